@@ -16,9 +16,11 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import br.com.igormartinez.potygames.security.jwt.JwtTokenProvider;
+import br.com.igormartinez.potygames.enums.PermissionType;
 import br.com.igormartinez.potygames.exceptions.handlers.CustomSpringSecurityExceptionHandler;
 import br.com.igormartinez.potygames.security.PasswordManager;
 import br.com.igormartinez.potygames.security.jwt.JwtTokenFilter;
+import jakarta.servlet.DispatcherType;
 
 @EnableWebSecurity
 @Configuration
@@ -50,8 +52,12 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(
                 authorizeHttpRequests -> authorizeHttpRequests
+                    // The end of a streamed response (async dispatch) belongs to a request already authorized
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                     .requestMatchers("/auth/signup", "/auth/signin", "/auth/refresh").permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    .requestMatchers("/actuator/**").hasAuthority(PermissionType.ADMIN.getValue())
                     .requestMatchers(HttpMethod.GET, "/api/v1/product/**").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/v1/inventory/**").permitAll()
                     .requestMatchers("/api/v1/**").authenticated()
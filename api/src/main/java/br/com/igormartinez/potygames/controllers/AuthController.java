@@ -12,10 +12,12 @@ import br.com.igormartinez.potygames.data.request.AccountCredentials;
 import br.com.igormartinez.potygames.data.request.UserRegistrationDTO;
 import br.com.igormartinez.potygames.data.response.UserDTO;
 import br.com.igormartinez.potygames.data.security.Token;
+import br.com.igormartinez.potygames.security.LoginAdmissionControl;
 import br.com.igormartinez.potygames.services.AuthService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.media.Content;
 
@@ -26,13 +28,17 @@ public class AuthController {
     @Autowired
     AuthService service;
 
+    @Autowired
+    LoginAdmissionControl admissionControl;
+
     @Operation(
         summary = "Signup a user",
         responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
-            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content),
+            @ApiResponse(description = "Service Unavailable", responseCode = "503", content = @Content)
         }
     )
     @PostMapping("/signup")
@@ -46,11 +52,14 @@ public class AuthController {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
-            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content),
+            @ApiResponse(description = "Service Unavailable", responseCode = "503", content = @Content)
         }
     )
     @PostMapping("/signin")
-    public Token signin(@RequestBody @Valid AccountCredentials accountCredentials) {
+    public Token signin(@RequestBody @Valid AccountCredentials accountCredentials, HttpServletRequest request) {
+        admissionControl.admitSignin(accountCredentials.username(), request.getRemoteAddr());
         return service.signin(accountCredentials);
     }
 
@@ -60,11 +69,13 @@ public class AuthController {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
         }
     )
     @PutMapping("/refresh")
-    public Token refresh(@RequestHeader("Authorization") String refreshToken) {
+    public Token refresh(@RequestHeader("Authorization") String refreshToken, HttpServletRequest request) {
+        admissionControl.admitRefresh(request.getRemoteAddr());
         return service.refresh(refreshToken);
     }
 }
@@ -1,11 +1,13 @@
 package br.com.igormartinez.potygames.controllers;
 
+import java.math.BigDecimal;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,11 +18,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import br.com.igormartinez.potygames.data.request.InventoryItemCreateDTO;
+import br.com.igormartinez.potygames.data.request.InventoryItemFilterDTO;
 import br.com.igormartinez.potygames.data.request.InventoryItemUpdateDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
 import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemSearchResultDTO;
+import br.com.igormartinez.potygames.data.response.SliceDTO;
+import br.com.igormartinez.potygames.enums.CountMode;
 import br.com.igormartinez.potygames.services.InventoryItemService;
+import br.com.igormartinez.potygames.utils.ConditionalRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -50,18 +59,79 @@ public class InventoryItemController {
         return service.findAll(pageable);
     }
 
+    @Operation(
+        summary = "Find all items in inventory without count query, with the total counted as requested (none, approximate or exact)",
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+        }
+    )
+    @GetMapping("/slice")
+    public SliceDTO<InventoryItemDTO> findSlice(
+        @RequestParam(value = "page", defaultValue = "0") Integer page,
+        @RequestParam(value = "size", defaultValue = "10") Integer size,
+        @RequestParam(value = "direction", defaultValue = "asc") String direction,
+        @RequestParam(value = "count", defaultValue = "approximate") String count) {
+        Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "id"));
+        return service.findSlice(pageable, CountMode.fromValue(count));
+    }
+
+    @Operation(
+        summary = "Find all items in inventory by cursor, without total count",
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+        }
+    )
+    @GetMapping("/scroll")
+    public CursorSliceDTO<InventoryItemDTO> findAll(
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "size", defaultValue = "10") Integer size,
+        @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        return service.findAll(after, size, sortDirection);
+    }
+
+    @Operation(
+        summary = "Search items in inventory by product type, product, condition, version and price range, with facet counts",
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+        }
+    )
+    @GetMapping("/search")
+    public InventoryItemSearchResultDTO search(
+        @RequestParam(value = "product-type", required = false) Long productType,
+        @RequestParam(value = "product", required = false) Long product,
+        @RequestParam(value = "version", required = false) String version,
+        @RequestParam(value = "condition", required = false) String condition,
+        @RequestParam(value = "min-price", required = false) BigDecimal minPrice,
+        @RequestParam(value = "max-price", required = false) BigDecimal maxPrice,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "size", defaultValue = "10") Integer size) {
+        InventoryItemFilterDTO filter = new InventoryItemFilterDTO(productType, product, version, condition, minPrice, maxPrice);
+        return service.search(filter, after, size);
+    }
+
     @Operation(
         summary = "Find a item in inventory by given id",
         responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
         }
     )
     @GetMapping("/{inventory-item-id}")
-    public InventoryItemDTO findById(@PathVariable(value = "inventory-item-id") Long id) {
-        return service.findById(id);
+    public InventoryItemDTO findById(@PathVariable(value = "inventory-item-id") Long id, ServletWebRequest request) {
+        return ConditionalRequest.evaluate(request, 
+            () -> service.findVersionById(id), 
+            current -> service.findById(id, current));
     }
 
     @Operation(
@@ -3,19 +3,28 @@ package br.com.igormartinez.potygames.controllers;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import br.com.igormartinez.potygames.data.request.CheckoutRequestDTO;
 import br.com.igormartinez.potygames.data.request.OrderRequestDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
 import br.com.igormartinez.potygames.data.response.OrderDetailResponseDTO;
 import br.com.igormartinez.potygames.data.response.OrderResponseDTO;
 import br.com.igormartinez.potygames.data.validation.annotations.PositiveNotNull;
+import br.com.igormartinez.potygames.enums.IdempotentOperation;
+import br.com.igormartinez.potygames.services.IdempotencyService;
+import br.com.igormartinez.potygames.services.OrderIntakeQueue;
 import br.com.igormartinez.potygames.services.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -30,17 +39,47 @@ public class OrderController {
     @Autowired
     OrderService service;
 
+    @Autowired
+    OrderIntakeQueue intakeQueue;
+
+    @Autowired
+    IdempotencyService idempotencyService;
+
     @GetMapping
     public List<OrderDetailResponseDTO> findAll() {
         return service.findAllByUser();
     }
 
+    @Operation(
+        summary = "Find the orders of the user by cursor, without total count",
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+        }
+    )
+    @GetMapping("/scroll")
+    public CursorSliceDTO<OrderDetailResponseDTO> findAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        return service.findAllByUser(after, size, sortDirection);
+    }
+
     @GetMapping("/{order-id}")
     public OrderDetailResponseDTO findById(
             @PathVariable(name = "order-id") @PositiveNotNull(message = "The order-id must be a positive number.") Long orderId) {
         return service.findById(orderId);
     }
 
+    @GetMapping("/{order-id}/status")
+    public OrderResponseDTO findStatusById(
+            @PathVariable(name = "order-id") @PositiveNotNull(message = "The order-id must be a positive number.") Long orderId) {
+        return service.findStatusById(orderId);
+    }
+
     @Operation(
         summary = "Creates a new order", 
         responses = {
@@ -50,11 +89,51 @@ public class OrderController {
             @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+            @ApiResponse(description = "Unprocessable Entity", responseCode = "422", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
     @PostMapping
-    public OrderResponseDTO createOrder(@RequestBody @Valid OrderRequestDTO request) {
-        return service.createOrder(request);
+    public OrderResponseDTO createOrder(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid OrderRequestDTO request) {
+        return idempotencyService.execute(idempotencyKey, IdempotentOperation.CREATE_ORDER, null, request, 
+            () -> service.createOrder(request));
+    }
+
+    @Operation(
+        summary = "Converts the shopping cart of the user into a new order", 
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content),
+            @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+            @ApiResponse(description = "Unprocessable Entity", responseCode = "422", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+    })
+    @PostMapping("/checkout")
+    public OrderResponseDTO checkout(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid CheckoutRequestDTO request) {
+        return idempotencyService.execute(idempotencyKey, IdempotentOperation.CHECKOUT, null, request, 
+            () -> service.checkout(request));
+    }
+
+    @Operation(
+        summary = "Accepts a new order to be processed asynchronously, its status must be polled", 
+        responses = {
+            @ApiResponse(description = "Accepted", responseCode = "202", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content),
+            @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content),
+            @ApiResponse(description = "Service Unavailable", responseCode = "503", content = @Content)
+    })
+    @PostMapping("/async")
+    public ResponseEntity<OrderResponseDTO> createOrderAsync(@RequestBody @Valid OrderRequestDTO request) {
+        return ResponseEntity.accepted().body(intakeQueue.submit(request));
     }
 
     @Operation(
@@ -65,11 +144,14 @@ public class OrderController {
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Unprocessable Entity", responseCode = "422", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
     @PutMapping("/{order-id}/cancel")
     public OrderResponseDTO cancelOrder(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
             @PathVariable(name = "order-id") @PositiveNotNull(message = "The order-id must be a positive number.") Long orderId) {
-        return service.cancelOrder(orderId);
+        return idempotencyService.execute(idempotencyKey, IdempotentOperation.CANCEL_ORDER, orderId, null, 
+            () -> service.cancelOrder(orderId));
     }
 }
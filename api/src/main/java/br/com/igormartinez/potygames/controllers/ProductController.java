@@ -1,11 +1,13 @@
 package br.com.igormartinez.potygames.controllers;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,11 +18,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import br.com.igormartinez.potygames.data.request.ProductCreateDTO;
 import br.com.igormartinez.potygames.data.request.ProductUpdateDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
 import br.com.igormartinez.potygames.data.response.ProductDTO;
+import br.com.igormartinez.potygames.data.response.ProductSearchResultDTO;
+import br.com.igormartinez.potygames.data.response.SliceDTO;
+import br.com.igormartinez.potygames.enums.CountMode;
 import br.com.igormartinez.potygames.services.ProductService;
+import br.com.igormartinez.potygames.utils.ConditionalRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -50,18 +58,74 @@ public class ProductController {
         return service.findAll(pageable);
     }
 
+    @Operation(
+        summary = "Find all products without count query, with the total counted as requested (none, approximate or exact)",
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+        }
+    )
+    @GetMapping("/slice")
+    public SliceDTO<ProductDTO> findSlice(
+        @RequestParam(value = "page", defaultValue = "0") Integer page,
+        @RequestParam(value = "size", defaultValue = "10") Integer size,
+        @RequestParam(value = "direction", defaultValue = "asc") String direction,
+        @RequestParam(value = "count", defaultValue = "approximate") String count) {
+        Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "id"));
+        return service.findSlice(pageable, CountMode.fromValue(count));
+    }
+
+    @Operation(
+        summary = "Search products by name and description, from the most relevant",
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+        }
+    )
+    @GetMapping("/search")
+    public List<ProductSearchResultDTO> search(
+        @RequestParam(value = "q") String query,
+        @RequestParam(value = "rank", required = false) Float rank,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam(value = "size", defaultValue = "10") Integer size) {
+        return service.search(query, rank, cursor, size);
+    }
+
+    @Operation(
+        summary = "Find all products by cursor, without total count",
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+        }
+    )
+    @GetMapping("/scroll")
+    public CursorSliceDTO<ProductDTO> findAll(
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "size", defaultValue = "10") Integer size,
+        @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        return service.findAll(after, size, sortDirection);
+    }
+
     @Operation(
         summary = "Find a product by given id",
         responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
         }
     )
     @GetMapping("/{product-id}")
-    public ProductDTO findById(@PathVariable(value = "product-id") Long id) {
-        return service.findById(id);
+    public ProductDTO findById(@PathVariable(value = "product-id") Long id, ServletWebRequest request) {
+        return ConditionalRequest.evaluate(request, 
+            () -> service.findVersionById(id), 
+            current -> service.findById(id, current));
     }
 
     @Operation(
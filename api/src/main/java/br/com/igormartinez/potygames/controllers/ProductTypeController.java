@@ -12,11 +12,13 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import br.com.igormartinez.potygames.data.request.ProductTypeCreateDTO;
 import br.com.igormartinez.potygames.data.request.ProductTypeUpdateDTO;
 import br.com.igormartinez.potygames.data.response.ProductTypeDTO;
 import br.com.igormartinez.potygames.services.ProductTypeService;
+import br.com.igormartinez.potygames.utils.ConditionalRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -33,26 +35,32 @@ public class ProductTypeController {
         summary = "Find all product types",
         responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
         }
     )
     @GetMapping
-    public List<ProductTypeDTO> findAll() {
-        return service.findAll();
+    public List<ProductTypeDTO> findAll(ServletWebRequest request) {
+        return ConditionalRequest.evaluate(request, 
+            () -> service.findVersionOfAll(), 
+            current -> service.findAll(current));
     }
 
     @Operation(
         summary = "Find a product type by given id",
         responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
         }
     )
     @GetMapping("/{product-type-id}")
-    public ProductTypeDTO findById(@PathVariable(value = "product-type-id") Long id) {
-        return service.findById(id);
+    public ProductTypeDTO findById(@PathVariable(value = "product-type-id") Long id, ServletWebRequest request) {
+        return ConditionalRequest.evaluate(request, 
+            () -> service.findVersionById(id), 
+            current -> service.findById(id, current));
     }
 
     @Operation(
@@ -14,8 +14,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import br.com.igormartinez.potygames.data.request.ShoppingCartBatchRequestDTO;
 import br.com.igormartinez.potygames.data.request.ShoppingCartItemRequestDTO;
 import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
+import br.com.igormartinez.potygames.data.response.ShoppingCartOperationResponseDTO;
 import br.com.igormartinez.potygames.data.validation.annotations.PositiveNotNull;
 import br.com.igormartinez.potygames.services.ShoppingCartService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -66,6 +68,24 @@ public class ShoppingCartController {
         return service.addItemToCart(idUser, itemDTO);
     }
 
+    @Operation(
+        summary = "Add, update and remove many items in user's shopping cart.",
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content),
+            @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+        }
+    )
+    @PostMapping("/batch")
+    public List<ShoppingCartOperationResponseDTO> applyOperations(
+        @PathVariable(name = "user-id") @PositiveNotNull(message = "The user-id must be a positive number.") Long idUser, 
+        @RequestBody @Valid ShoppingCartBatchRequestDTO batchDTO) {
+        return service.applyOperations(idUser, batchDTO);
+    }
+
     @Operation(
         summary = "Update a item in user's shopping cart.",
         responses = {
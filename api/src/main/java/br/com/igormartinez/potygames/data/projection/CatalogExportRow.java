@@ -0,0 +1,20 @@
+package br.com.igormartinez.potygames.data.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * A line of the catalog export: a product and one of its inventory items.
+ * The fields of the inventory item are null for a product without items.
+ */
+public record CatalogExportRow(
+    Long product,
+    Long productType,
+    String productTypeKeyword,
+    String name,
+    String description,
+    Long inventoryItem,
+    String version,
+    String condition,
+    BigDecimal price,
+    Integer quantity
+) {}
@@ -0,0 +1,17 @@
+package br.com.igormartinez.potygames.data.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of a guarded stock decrement of a single inventory item.
+ * @param idInventoryItem requested inventory item
+ * @param found false if the inventory item does not exist
+ * @param reserved true if the quantity was decremented
+ * @param price current price of the inventory item, null if not found
+ */
+public record InventoryItemStock(
+    Long idInventoryItem,
+    boolean found,
+    boolean reserved,
+    BigDecimal price
+) {}
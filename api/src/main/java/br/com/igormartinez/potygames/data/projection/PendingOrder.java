@@ -0,0 +1,11 @@
+package br.com.igormartinez.potygames.data.projection;
+
+/**
+ * Order waiting in the asynchronous intake.
+ * @param idOrder
+ * @param idInventoryItem lowest inventory item id of the order, used as shard key
+ */
+public record PendingOrder(
+    Long idOrder,
+    Long idInventoryItem
+) {}
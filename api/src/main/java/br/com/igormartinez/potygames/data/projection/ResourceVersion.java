@@ -0,0 +1,34 @@
+package br.com.igormartinez.potygames.data.projection;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Version of a catalog resource, used as its ETag and Last-Modified.
+ * @param tag row version of a single row, or the number of rows and the sum of their versions of a collection
+ * @param updatedAt last update of the row or of the collection, null for an empty collection
+ */
+public record ResourceVersion(
+    String tag,
+    LocalDateTime updatedAt
+) {
+
+    public ResourceVersion(Long rowVersion, LocalDateTime updatedAt) {
+        this(String.valueOf(rowVersion), updatedAt);
+    }
+
+    public ResourceVersion(Long count, Long rowVersionSum, LocalDateTime updatedAt) {
+        this(count + "." + ((rowVersionSum == null) ? 0L : rowVersionSum), updatedAt);
+    }
+
+    public String etag() {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * @return the update time in milliseconds since the epoch, or -1 if unknown
+     */
+    public long lastModified() {
+        return (updatedAt == null) ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.igormartinez.potygames.data.projection;
+
+import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
+
+/**
+ * Result of the insert of an item in a user's shopping cart.
+ * @param userFound false if the user does not exist
+ * @param itemFound false if the inventory item does not exist
+ * @param item the inserted item joined with its inventory item, null if not inserted
+ */
+public record ShoppingCartItemInsert(
+    boolean userFound,
+    boolean itemFound,
+    ShoppingCartItemResponseDTO item
+) {}
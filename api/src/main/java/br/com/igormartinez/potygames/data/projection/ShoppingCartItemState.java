@@ -0,0 +1,19 @@
+package br.com.igormartinez.potygames.data.projection;
+
+import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
+
+/**
+ * State of a requested inventory item in a user's shopping cart.
+ * @param idInventoryItem requested inventory item
+ * @param userFound false if the user does not exist
+ * @param itemFound false if the inventory item does not exist
+ * @param inCart true if the inventory item is in the cart
+ * @param item the inventory item with its quantity in the cart (null if not in cart), null if not found
+ */
+public record ShoppingCartItemState(
+    Long idInventoryItem,
+    boolean userFound,
+    boolean itemFound,
+    boolean inCart,
+    ShoppingCartItemResponseDTO item
+) {}
@@ -0,0 +1,11 @@
+package br.com.igormartinez.potygames.data.projection;
+
+/**
+ * Inventory item and quantity of a shopping cart item.
+ * @param idInventoryItem
+ * @param quantity
+ */
+public record ShoppingCartLine(
+    Long idInventoryItem,
+    Integer quantity
+) {}
@@ -0,0 +1,11 @@
+package br.com.igormartinez.potygames.data.projection;
+
+/**
+ * A value read together with its version.
+ * @param value
+ * @param version version of the rows the value was read from
+ */
+public record Versioned<T>(
+    T value,
+    ResourceVersion version
+) {}
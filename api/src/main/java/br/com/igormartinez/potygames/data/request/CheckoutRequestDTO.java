@@ -0,0 +1,15 @@
+package br.com.igormartinez.potygames.data.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+public record CheckoutRequestDTO(
+
+    @NotNull(message = "The billing address of order must be provided.")
+    @Valid
+    OrderAddressRequestDTO billingAddress,
+    
+    @NotNull(message = "The delivery address of order must be provided.")
+    @Valid
+    OrderAddressRequestDTO deliveryAddress
+) {}
@@ -0,0 +1,21 @@
+package br.com.igormartinez.potygames.data.request;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters of the inventory search. Null filters are not applied.
+ * @param productType id of the product type
+ * @param product id of the product
+ * @param version exact version, e.g. "1st Edition"
+ * @param condition exact condition, e.g. "Near Mint"
+ * @param minPrice inclusive
+ * @param maxPrice inclusive
+ */
+public record InventoryItemFilterDTO(
+    Long productType,
+    Long product,
+    String version,
+    String condition,
+    BigDecimal minPrice,
+    BigDecimal maxPrice
+) {}
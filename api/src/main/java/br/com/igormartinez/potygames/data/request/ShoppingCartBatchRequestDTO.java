@@ -0,0 +1,16 @@
+package br.com.igormartinez.potygames.data.request;
+
+import java.util.List;
+
+import br.com.igormartinez.potygames.data.validation.annotations.NotDuplicated;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record ShoppingCartBatchRequestDTO (
+
+    @NotEmpty(message = "The operations must be provided.")
+    @Size(max = 100, message = "The operations must have at most 100 elements.")
+    @NotDuplicated(message = "The list of operations cannot have more than one operation for the same inventory item.")
+    List<@Valid ShoppingCartOperationRequestDTO> operations
+) {}
@@ -0,0 +1,17 @@
+package br.com.igormartinez.potygames.data.request;
+
+import br.com.igormartinez.potygames.data.validation.annotations.PositiveNotNull;
+import br.com.igormartinez.potygames.enums.ShoppingCartOperationType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record ShoppingCartOperationRequestDTO (
+    @NotNull(message = "The type of operation must be provided.")
+    ShoppingCartOperationType type,
+
+    @PositiveNotNull(message = "The id of inventory item must be a positive number.")
+    Long idInventoryItem,
+
+    @Positive(message = "The quantity must be positive number.")
+    Integer quantity
+) {}
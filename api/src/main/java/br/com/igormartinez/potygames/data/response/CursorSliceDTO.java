@@ -0,0 +1,17 @@
+package br.com.igormartinez.potygames.data.response;
+
+import java.util.List;
+
+/**
+ * A page of keyset pagination, without total count.
+ * @param content elements of the page
+ * @param size requested size of the page
+ * @param hasNext true if there are more elements after the page
+ * @param next token to get the next page (after parameter), null if it is the last page
+ */
+public record CursorSliceDTO<T>(
+    List<T> content,
+    int size,
+    boolean hasNext,
+    String next
+) {}
@@ -0,0 +1,11 @@
+package br.com.igormartinez.potygames.data.response;
+
+/**
+ * Number of elements with a value of a facet.
+ * @param value null for the elements without value
+ * @param count
+ */
+public record FacetCountDTO(
+    String value,
+    long count
+) {}
@@ -0,0 +1,15 @@
+package br.com.igormartinez.potygames.data.response;
+
+import java.util.List;
+
+/**
+ * Facet counts of the inventory items that match the filters of a search.
+ * @param conditions from the most frequent condition
+ * @param versions from the most frequent version
+ * @param prices non-empty price ranges, from the lowest
+ */
+public record InventoryItemFacetsDTO(
+    List<FacetCountDTO> conditions,
+    List<FacetCountDTO> versions,
+    List<PriceRangeCountDTO> prices
+) {}
@@ -0,0 +1,11 @@
+package br.com.igormartinez.potygames.data.response;
+
+/**
+ * A page of the inventory search.
+ * @param items
+ * @param facets counts of all matching items, only on the first page (null on the next pages)
+ */
+public record InventoryItemSearchResultDTO(
+    CursorSliceDTO<InventoryItemDTO> items,
+    InventoryItemFacetsDTO facets
+) {}
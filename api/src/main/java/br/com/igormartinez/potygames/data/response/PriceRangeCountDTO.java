@@ -0,0 +1,15 @@
+package br.com.igormartinez.potygames.data.response;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of elements with the price in a range.
+ * @param min inclusive, null for the range below the first bound
+ * @param max exclusive, null for the range above the last bound
+ * @param count
+ */
+public record PriceRangeCountDTO(
+    BigDecimal min,
+    BigDecimal max,
+    long count
+) {}
@@ -0,0 +1,9 @@
+package br.com.igormartinez.potygames.data.response;
+
+public record ProductSearchResultDTO(
+    Long id,
+    Long idProductType,
+    String name,
+    String description,
+    Float rank
+) {}
@@ -0,0 +1,9 @@
+package br.com.igormartinez.potygames.data.response;
+
+public record ShoppingCartOperationResponseDTO (
+    String type,
+    Long idInventoryItem,
+    Integer status,
+    String message,
+    ShoppingCartItemResponseDTO item
+) {}
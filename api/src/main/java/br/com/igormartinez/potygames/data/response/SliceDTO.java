@@ -0,0 +1,58 @@
+package br.com.igormartinez.potygames.data.response;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.springframework.data.domain.Slice;
+
+import br.com.igormartinez.potygames.enums.CountMode;
+
+/**
+ * A page of offset pagination, read without count query.
+ * @param content elements of the page
+ * @param number number of the page, from zero
+ * @param size requested size of the page
+ * @param hasNext true if there are more elements after the page
+ * @param totalElements total of elements, null if not requested
+ * @param totalExact true if the total is exact, false if it is an estimate
+ */
+public record SliceDTO<T>(
+    List<T> content,
+    int number,
+    int size,
+    boolean hasNext,
+    Long totalElements,
+    boolean totalExact
+) {
+
+    /**
+     * Build the page with the total of the requested mode.
+     * On the last page the total is known without counting, so it is always exact.
+     * @param slice
+     * @param count
+     * @param estimateCount estimate of the total, used in APPROXIMATE mode
+     * @param exactCount exact total, used in EXACT mode
+     * @return
+     */
+    public static <T> SliceDTO<T> of(Slice<T> slice, CountMode count, LongSupplier estimateCount, 
+            LongSupplier exactCount) {
+        if (count == CountMode.NONE)
+            return of(slice, null, false);
+
+        long seen = (slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0) + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || slice.isFirst()))
+            return of(slice, seen, true);
+
+        if (count == CountMode.EXACT)
+            return of(slice, exactCount.getAsLong(), true);
+
+        // The statistics may be behind the table, but never below what was already seen
+        long estimate = Math.max(estimateCount.getAsLong(), seen + (slice.hasNext() ? 1 : 0));
+        return of(slice, estimate, false);
+    }
+
+    private static <T> SliceDTO<T> of(Slice<T> slice, Long totalElements, boolean totalExact) {
+        return new SliceDTO<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), 
+            totalElements, totalExact);
+    }
+}
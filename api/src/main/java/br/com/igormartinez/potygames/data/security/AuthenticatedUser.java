@@ -0,0 +1,40 @@
+package br.com.igormartinez.potygames.data.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import br.com.igormartinez.potygames.enums.PermissionType;
+import br.com.igormartinez.potygames.models.User;
+
+/**
+ * Immutable principal kept in the SecurityContext of an authenticated request.
+ * @param id id of the user
+ * @param email email (username) of the user
+ * @param permissions bitmask of PermissionType
+ */
+public record AuthenticatedUser(
+    Long id,
+    String email,
+    int permissions
+) {
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), PermissionType.toMask(user.getAuthorities()));
+    }
+
+    public boolean hasPermission(PermissionType permission) {
+        return (permissions & permission.getMask()) != 0;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (PermissionType permission : PermissionType.values()) {
+            if (hasPermission(permission))
+                authorities.add(new SimpleGrantedAuthority(permission.getValue()));
+        }
+        return authorities;
+    }
+}
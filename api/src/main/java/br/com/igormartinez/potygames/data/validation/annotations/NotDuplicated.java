@@ -17,6 +17,7 @@ import jakarta.validation.Payload;
  * Supported types are:
  * <ul>
  * <li>{@code List<OrderItemResquestDTO>} (id of inventory item is evaluated)</li>
+ * <li>{@code List<ShoppingCartOperationRequestDTO>} (id of inventory item is evaluated)</li>
  * <li>{@code List<Object>} (hash code is evaluated)</li>
  * </ul>
  */
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Set;
 
 import br.com.igormartinez.potygames.data.request.OrderItemResquestDTO;
+import br.com.igormartinez.potygames.data.request.ShoppingCartOperationRequestDTO;
 import br.com.igormartinez.potygames.data.validation.annotations.NotDuplicated;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -24,6 +25,14 @@ public class NotDuplicatedValidator implements ConstraintValidator<NotDuplicated
             return true;
         }
 
+        if (value.get(0) instanceof ShoppingCartOperationRequestDTO) {
+            Set<Long> elements = new HashSet<>();
+            for (Object item : value)
+                if (!elements.add(((ShoppingCartOperationRequestDTO) item).idInventoryItem()))
+                    return false;
+            return true;
+        }
+
         Set<Integer> elements = new HashSet<>();
         for(Object item : value)
             if (!elements.add(item.hashCode()))
@@ -0,0 +1,26 @@
+package br.com.igormartinez.potygames.enums;
+
+import br.com.igormartinez.potygames.exceptions.RequestValidationException;
+
+/**
+ * How the total of a listing is counted.
+ */
+public enum CountMode {
+    NONE,
+    APPROXIMATE,
+    EXACT;
+
+    /**
+     * Get the mode from the count parameter, ignoring case.
+     * @param value
+     * @return CountMode
+     * @throws RequestValidationException if the value is not a mode.
+     */
+    public static CountMode fromValue(String value) {
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value))
+                return mode;
+        }
+        throw new RequestValidationException("The count must be none, approximate or exact.");
+    }
+}
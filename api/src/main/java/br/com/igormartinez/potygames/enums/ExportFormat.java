@@ -0,0 +1,41 @@
+package br.com.igormartinez.potygames.enums;
+
+import br.com.igormartinez.potygames.exceptions.RequestValidationException;
+
+/**
+ * Format of a streamed export.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private String mediaType;
+    private String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Get the format from the format parameter, ignoring case.
+     * @param value
+     * @return ExportFormat
+     * @throws RequestValidationException if the value is not a format.
+     */
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value))
+                return format;
+        }
+        throw new RequestValidationException("The format must be ndjson or csv.");
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.igormartinez.potygames.enums;
+
+public enum IdempotentOperation {
+    CREATE_ORDER,
+    CANCEL_ORDER,
+    CHECKOUT;
+}
@@ -1,11 +1,13 @@
 package br.com.igormartinez.potygames.enums;
 
 public enum OrderStatus {
+    PENDING,
     CONFIRMED,
     PENDING_PAYMENT,
     PAYMENT_CONFIRMED,
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELED;
+    CANCELED,
+    REJECTED;
 }
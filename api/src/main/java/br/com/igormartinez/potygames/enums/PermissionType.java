@@ -1,5 +1,9 @@
 package br.com.igormartinez.potygames.enums;
 
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+
 public enum PermissionType {
     ADMIN("ADMIN"),
     CUSTOMER("CUSTOMER");
@@ -13,4 +17,31 @@ public enum PermissionType {
     public String getValue() {
         return value;
     }
+
+    /**
+     * Get the bit of this permission in a permission bitmask.
+     * @return int
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Build the bitmask of the given authorities. Unknown authorities are ignored.
+     * @param authorities
+     * @return int
+     */
+    public static int toMask(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        if (authorities == null)
+            return mask;
+
+        for (GrantedAuthority authority : authorities) {
+            for (PermissionType permission : values()) {
+                if (permission.getValue().equals(authority.getAuthority()))
+                    mask |= permission.getMask();
+            }
+        }
+        return mask;
+    }
 }
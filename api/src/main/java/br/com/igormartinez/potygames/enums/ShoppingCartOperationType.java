@@ -0,0 +1,7 @@
+package br.com.igormartinez.potygames.enums;
+
+public enum ShoppingCartOperationType {
+    ADD,
+    UPDATE,
+    REMOVE;
+}
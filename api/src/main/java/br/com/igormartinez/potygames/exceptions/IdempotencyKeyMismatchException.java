@@ -0,0 +1,18 @@
+package br.com.igormartinez.potygames.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyMismatchException(String ex) {
+        super(ex);
+    }
+
+    public IdempotencyKeyMismatchException() {
+        super("The Idempotency-Key was already used in a different request.");
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.igormartinez.potygames.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceUnavailableException(String ex) {
+        super(ex);
+    }
+
+    public ServiceUnavailableException() {
+        super("The server is overloaded and cannot process the request now, try again later.");
+    }
+}
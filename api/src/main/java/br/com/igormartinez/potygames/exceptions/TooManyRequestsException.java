@@ -0,0 +1,18 @@
+package br.com.igormartinez.potygames.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException(String ex) {
+        super(ex);
+    }
+
+    public TooManyRequestsException() {
+        super("Too many attempts, try again later.");
+    }
+}
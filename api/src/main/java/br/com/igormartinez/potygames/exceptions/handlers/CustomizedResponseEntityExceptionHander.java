@@ -22,13 +22,16 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import br.com.igormartinez.potygames.data.response.APIErrorResponse;
 import br.com.igormartinez.potygames.exceptions.DeleteAssociationConflictException;
 import br.com.igormartinez.potygames.exceptions.ExceptionResponse;
+import br.com.igormartinez.potygames.exceptions.IdempotencyKeyMismatchException;
 import br.com.igormartinez.potygames.exceptions.InvalidTokenException;
 import br.com.igormartinez.potygames.exceptions.RequestObjectIsNullException;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceAlreadyExistsException;
 import br.com.igormartinez.potygames.exceptions.ResourceInsufficientException;
 import br.com.igormartinez.potygames.exceptions.ResourceNotFoundException;
+import br.com.igormartinez.potygames.exceptions.ServiceUnavailableException;
 import br.com.igormartinez.potygames.exceptions.TokenCreationErrorException;
+import br.com.igormartinez.potygames.exceptions.TooManyRequestsException;
 import br.com.igormartinez.potygames.exceptions.UserUnauthorizedException;
 import jakarta.validation.ConstraintViolationException;
 import br.com.igormartinez.potygames.exceptions.InvalidUsernamePasswordException;
@@ -150,4 +153,43 @@ public class CustomizedResponseEntityExceptionHander extends ResponseEntityExcep
 
         return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public final ResponseEntity<ExceptionResponse> handleUnprocessableEntityExceptions(Exception ex, WebRequest request) {
+        ExceptionResponse exceptionResponse = 
+            new ExceptionResponse(
+                "about:blank",
+                "Unprocessable Entity", 
+                HttpStatus.UNPROCESSABLE_ENTITY.value(), 
+                ex.getMessage(), 
+                request.getDescription(false).substring(SUBSTRING_URI));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public final ResponseEntity<ExceptionResponse> handleTooManyRequestsExceptions(Exception ex, WebRequest request) {
+        ExceptionResponse exceptionResponse = 
+            new ExceptionResponse(
+                "about:blank",
+                "Too Many Requests", 
+                HttpStatus.TOO_MANY_REQUESTS.value(), 
+                ex.getMessage(), 
+                request.getDescription(false).substring(SUBSTRING_URI));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public final ResponseEntity<ExceptionResponse> handleServiceUnavailableExceptions(Exception ex, WebRequest request) {
+        ExceptionResponse exceptionResponse = 
+            new ExceptionResponse(
+                "about:blank",
+                "Service Unavailable", 
+                HttpStatus.SERVICE_UNAVAILABLE.value(), 
+                ex.getMessage(), 
+                request.getDescription(false).substring(SUBSTRING_URI));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -53,20 +53,32 @@ public class OrderEntityToDetailDTOMapper implements Function<Order, OrderDetail
 
     @Override
     public OrderDetailResponseDTO apply(Order entity) {
+        return apply(entity, map(entity.getOrderItems()));
+    }
+
+    /**
+     * Map the order with its items already projected, so the items are not loaded through the entity.
+     * @param entity
+     * @param items
+     * @return
+     */
+    public OrderDetailResponseDTO apply(Order entity, List<OrderItemResponseDTO> items) {
         
         OrderAddress billingAddress = null, deliveryAddress = null;
-        for (OrderAddress orderAddress : entity.getOrderAddresses()) {
-            if (orderAddress.getBillingAddress())
-                billingAddress = orderAddress;
-            if (orderAddress.getDeliveryAddress())
-                deliveryAddress = orderAddress;
+        if (entity.getOrderAddresses() != null) {
+            for (OrderAddress orderAddress : entity.getOrderAddresses()) {
+                if (orderAddress.getBillingAddress())
+                    billingAddress = orderAddress;
+                if (orderAddress.getDeliveryAddress())
+                    deliveryAddress = orderAddress;
+            }
         }
 
         return new OrderDetailResponseDTO(
             entity.getId(), 
             entity.getStatus().name(), 
             entity.getTotalPrice(), 
-            map(entity.getOrderItems()), 
+            (items == null || items.isEmpty()) ? null : items, 
             map(billingAddress), 
             map(deliveryAddress)
         );
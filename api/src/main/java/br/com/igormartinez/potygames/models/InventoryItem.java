@@ -1,6 +1,7 @@
 package br.com.igormartinez.potygames.models;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import jakarta.persistence.Column;
@@ -38,6 +39,13 @@ public class InventoryItem {
     @Column(name = "quantity")
     private Integer quantity;
 
+    // Kept by the database on every change of the row
+    @Column(name = "row_version", nullable = false, insertable = false, updatable = false)
+    private Long rowVersion;
+
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "item")
     List<OrderItem> orderItems;
 
@@ -100,6 +108,22 @@ public class InventoryItem {
         this.orderItems = orderItems;
     }
 
+    public Long getRowVersion() {
+        return rowVersion;
+    }
+
+    public void setRowVersion(Long rowVersion) {
+        this.rowVersion = rowVersion;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,145 @@
+package br.com.igormartinez.potygames.models;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.java.Immutability;
+import org.springframework.data.domain.Persistable;
+
+import br.com.igormartinez.potygames.data.response.OrderDetailResponseDTO;
+import br.com.igormartinez.potygames.enums.OrderStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * Read model of an order: the detailed order as a JSONB document, written at checkout.
+ */
+@Entity
+@Table(name = "order_documents")
+public class OrderDocument implements Persistable<Long> {
+
+    @Id
+    @Column(name = "id_order")
+    private Long idOrder;
+
+    @Column(name = "id_user", nullable = false)
+    private Long idUser;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Mutability(Immutability.class)
+    @Column(name = "document", nullable = false)
+    private OrderDetailResponseDTO document;
+
+    // The id is assigned, so the new state is tracked to persist without a select
+    @Transient
+    private boolean newDocument = true;
+
+    public OrderDocument() {
+    }
+
+    public OrderDocument(Long idOrder, Long idUser, OrderStatus status, OrderDetailResponseDTO document) {
+        this.idOrder = idOrder;
+        this.idUser = idUser;
+        this.status = status;
+        this.document = document;
+    }
+
+    @Override
+    public Long getId() {
+        return idOrder;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newDocument;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newDocument = false;
+    }
+
+    public Long getIdOrder() {
+        return idOrder;
+    }
+
+    public void setIdOrder(Long idOrder) {
+        this.idOrder = idOrder;
+    }
+
+    public Long getIdUser() {
+        return idUser;
+    }
+
+    public void setIdUser(Long idUser) {
+        this.idUser = idUser;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public OrderDetailResponseDTO getDocument() {
+        return document;
+    }
+
+    public void setDocument(OrderDetailResponseDTO document) {
+        this.document = document;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((idOrder == null) ? 0 : idOrder.hashCode());
+        result = prime * result + ((idUser == null) ? 0 : idUser.hashCode());
+        result = prime * result + ((status == null) ? 0 : status.hashCode());
+        result = prime * result + ((document == null) ? 0 : document.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        OrderDocument other = (OrderDocument) obj;
+        if (idOrder == null) {
+            if (other.idOrder != null)
+                return false;
+        } else if (!idOrder.equals(other.idOrder))
+            return false;
+        if (idUser == null) {
+            if (other.idUser != null)
+                return false;
+        } else if (!idUser.equals(other.idUser))
+            return false;
+        if (status != other.status)
+            return false;
+        if (document == null) {
+            if (other.document != null)
+                return false;
+        } else if (!document.equals(other.document))
+            return false;
+        return true;
+    }
+}
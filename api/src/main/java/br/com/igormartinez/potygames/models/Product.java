@@ -1,5 +1,6 @@
 package br.com.igormartinez.potygames.models;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import jakarta.persistence.Column;
@@ -21,7 +22,8 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // The types are resolved by the ProductTypeRegistry, the mapping only needs the id of the proxy
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "type", nullable = false)
     private ProductType type;
     
@@ -31,6 +33,13 @@ public class Product {
     @Column(name = "description")
     private String description;
 
+    // Kept by the database on every change of the row
+    @Column(name = "row_version", nullable = false, insertable = false, updatable = false)
+    private Long rowVersion;
+
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "product")
     private List<InventoryItem> inventoryItems;
 
@@ -77,15 +86,32 @@ public class Product {
         this.inventoryItems = inventoryItems;
     }
 
+    public Long getRowVersion() {
+        return rowVersion;
+    }
+
+    public void setRowVersion(Long rowVersion) {
+        this.rowVersion = rowVersion;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Only the id of the type and no lazy collection, so equals and hashCode never load an association
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
+        Long typeId = (type == null) ? null : type.getId();
         result = prime * result + ((id == null) ? 0 : id.hashCode());
-        result = prime * result + ((type == null) ? 0 : type.hashCode());
+        result = prime * result + ((typeId == null) ? 0 : typeId.hashCode());
         result = prime * result + ((name == null) ? 0 : name.hashCode());
         result = prime * result + ((description == null) ? 0 : description.hashCode());
-        result = prime * result + ((inventoryItems == null) ? 0 : inventoryItems.hashCode());
         return result;
     }
 
@@ -103,10 +129,12 @@ public class Product {
                 return false;
         } else if (!id.equals(other.id))
             return false;
-        if (type == null) {
-            if (other.type != null)
+        Long typeId = (type == null) ? null : type.getId();
+        Long otherTypeId = (other.type == null) ? null : other.type.getId();
+        if (typeId == null) {
+            if (otherTypeId != null)
                 return false;
-        } else if (!type.equals(other.type))
+        } else if (!typeId.equals(otherTypeId))
             return false;
         if (name == null) {
             if (other.name != null)
@@ -118,11 +146,6 @@ public class Product {
                 return false;
         } else if (!description.equals(other.description))
             return false;
-        if (inventoryItems == null) {
-            if (other.inventoryItems != null)
-                return false;
-        } else if (!inventoryItems.equals(other.inventoryItems))
-            return false;
         return true;
     }
 }
@@ -1,5 +1,6 @@
 package br.com.igormartinez.potygames.models;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import jakarta.persistence.Column;
@@ -25,6 +26,13 @@ public class ProductType {
     @Column(name="description")
     private String description;
 
+    // Kept by the database on every change of the row
+    @Column(name = "row_version", nullable = false, insertable = false, updatable = false)
+    private Long rowVersion;
+
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "type")
     private List<Product> products;
 
@@ -62,6 +70,22 @@ public class ProductType {
         this.keyword = keyword;
     }
 
+    public Long getRowVersion() {
+        return rowVersion;
+    }
+
+    public void setRowVersion(Long rowVersion) {
+        this.rowVersion = rowVersion;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -69,7 +93,6 @@ public class ProductType {
         result = prime * result + ((id == null) ? 0 : id.hashCode());
         result = prime * result + ((keyword == null) ? 0 : keyword.hashCode());
         result = prime * result + ((description == null) ? 0 : description.hashCode());
-        result = prime * result + ((products == null) ? 0 : products.hashCode());
         return result;
     }
 
@@ -97,11 +120,6 @@ public class ProductType {
                 return false;
         } else if (!description.equals(other.description))
             return false;
-        if (products == null) {
-            if (other.products != null)
-                return false;
-        } else if (!products.equals(other.products))
-            return false;
         return true;
     }
 
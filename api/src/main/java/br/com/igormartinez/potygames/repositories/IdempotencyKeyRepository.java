@@ -0,0 +1,24 @@
+package br.com.igormartinez.potygames.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.igormartinez.potygames.enums.IdempotentOperation;
+import br.com.igormartinez.potygames.models.IdempotencyKey;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByIdUserAndOperationAndIdempotencyKey(Long idUser, IdempotentOperation operation, String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :createdAt")
+    int deleteAllCreatedBefore(LocalDateTime createdAt);
+}
@@ -1,14 +1,128 @@
 package br.com.igormartinez.potygames.repositories;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
 import br.com.igormartinez.potygames.models.InventoryItem;
+import br.com.igormartinez.potygames.models.Product;
 
 @Repository
-public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
+public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long>, InventoryItemRepositoryCustom {
     
     @Query("SELECT COUNT(i) FROM InventoryItem i WHERE i.product.id = :idProduct")
     int countByIdProduct(long idProduct);
+
+    /**
+     * Get the version of a inventory item, without loading it.
+     * @param id
+     * @return
+     */
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.projection.ResourceVersion(i.rowVersion, i.updatedAt) 
+        FROM InventoryItem i 
+        WHERE i.id = :id
+        """)
+    Optional<ResourceVersion> findVersionById(Long id);
+
+    /**
+     * Get a page of the inventory items as DTOs, without loading their products.
+     * @param pageable
+     * @return
+     */
+    @Query(value = """
+        SELECT new br.com.igormartinez.potygames.data.response.InventoryItemDTO(
+            i.id, i.product.id, i.version, i.condition, i.price, i.quantity) 
+        FROM InventoryItem i
+        """,
+        countQuery = "SELECT COUNT(i) FROM InventoryItem i")
+    Page<InventoryItemDTO> findAllDTO(Pageable pageable);
+
+    /**
+     * Get a page of the inventory items as DTOs, without loading their products and without count query.
+     * @param pageable
+     * @return
+     */
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.response.InventoryItemDTO(
+            i.id, i.product.id, i.version, i.condition, i.price, i.quantity) 
+        FROM InventoryItem i
+        """)
+    Slice<InventoryItemDTO> findSliceDTO(Pageable pageable);
+
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.response.InventoryItemDTO(
+            i.id, i.product.id, i.version, i.condition, i.price, i.quantity) 
+        FROM InventoryItem i 
+        WHERE i.id > :id 
+        ORDER BY i.id ASC
+        """)
+    List<InventoryItemDTO> findAllDTOByIdAfter(Long id, Pageable pageable);
+
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.response.InventoryItemDTO(
+            i.id, i.product.id, i.version, i.condition, i.price, i.quantity) 
+        FROM InventoryItem i 
+        WHERE i.id < :id 
+        ORDER BY i.id DESC
+        """)
+    List<InventoryItemDTO> findAllDTOByIdBefore(Long id, Pageable pageable);
+
+    @Query("SELECT i FROM InventoryItem i JOIN FETCH i.product WHERE i.id IN :ids")
+    List<InventoryItem> findAllWithProductByIdIn(Collection<Long> ids);
+
+    /**
+     * Give back to the inventory the quantities of all items of an order, in a single statement.
+     * The rows are locked in ascending id order, as in the decrement.
+     * @param idOrder
+     * @return the number of restocked inventory items
+     */
+    @Modifying
+    @Query(value = """
+        WITH restock AS (
+            SELECT oi.id_inventory_item AS id, SUM(oi.quantity) AS quantity 
+            FROM order_items oi 
+            WHERE oi.id_order = :idOrder 
+            GROUP BY oi.id_inventory_item
+        ), locked AS (
+            SELECT i.id 
+            FROM inventory_items i 
+            WHERE i.id IN (SELECT id FROM restock) 
+            ORDER BY i.id 
+            FOR UPDATE
+        )
+        UPDATE inventory_items i 
+        SET quantity = i.quantity + r.quantity 
+        FROM locked l, restock r 
+        WHERE i.id = l.id AND r.id = l.id
+        """, nativeQuery = true)
+    int restockByIdOrder(Long idOrder);
+
+    /**
+     * Update an inventory item without writing its quantity, which is kept by the reservation engine.
+     * @param id
+     * @param product
+     * @param version
+     * @param condition
+     * @param price
+     * @return the number of updated inventory items
+     */
+    @Modifying
+    @Query("""
+        UPDATE InventoryItem i 
+        SET i.product = :product, i.version = :version, i.condition = :condition, i.price = :price 
+        WHERE i.id = :id
+        """)
+    int updateWithoutQuantity(Long id, Product product, String version, String condition, BigDecimal price);
 }
@@ -0,0 +1,76 @@
+package br.com.igormartinez.potygames.repositories;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import br.com.igormartinez.potygames.data.projection.InventoryItemStock;
+import br.com.igormartinez.potygames.data.request.InventoryItemFilterDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemFacetsDTO;
+
+public interface InventoryItemRepositoryCustom {
+
+    /**
+     * Decrement the quantity of many inventory items in a single statement. Each row is decremented
+     * only if its quantity is enough (quantity >= requested), with no read-modify-write in the application.
+     * The rows are locked in ascending id order. Nothing is undone on failed lines, the caller
+     * must roll back the transaction if any line was not reserved.
+     * @param quantities quantity to decrement by inventory item id
+     * @return the result of each requested line, in ascending id order
+     */
+    List<InventoryItemStock> decrementQuantities(Map<Long, Integer> quantities);
+
+    /**
+     * Increment the quantity of many inventory items, as a JDBC batch in ascending id order.
+     * Used to give back a partial reservation of decrementQuantities.
+     * @param quantities quantity to increment by inventory item id
+     */
+    void incrementQuantities(Map<Long, Integer> quantities);
+
+    /**
+     * Get the available quantity of an inventory item: the stored quantity plus the
+     * pending deltas of the reservation journal.
+     * @param id
+     * @return the available quantity or null if the inventory item does not exist
+     */
+    Integer findAvailableQuantity(Long id);
+
+    /**
+     * Insert the quantity deltas in the reservation journal, as a JDBC batch.
+     * @param deltas signed quantity by inventory item id
+     */
+    void insertJournal(Map<Long, Integer> deltas);
+
+    /**
+     * Move all pending deltas of the reservation journal to inventory_items, in a single statement.
+     * The journal rows are deleted and their net delta applied atomically, so each delta is applied exactly once.
+     * @return the number of applied journal rows by inventory item id
+     */
+    Map<Long, Integer> applyJournal();
+
+    /**
+     * Estimate the number of inventory items from the planner statistics (pg_class.reltuples), without scanning the table.
+     * The table is counted only if it was never analyzed.
+     * @return
+     */
+    long estimateCount();
+
+    /**
+     * Get the inventory items that match the filters, in ascending id order, after the cursor (keyset pagination).
+     * @param filter
+     * @param cursor id of the last item of the previous page, 0 on the first page.
+     * @param size maximum number of items
+     * @return
+     */
+    List<InventoryItemDTO> search(InventoryItemFilterDTO filter, Long cursor, int size);
+
+    /**
+     * Count the inventory items that match the filters by condition, by version and by price range,
+     * in a single grouped query (grouping sets).
+     * @param filter
+     * @param priceBounds ascending bounds of the price ranges
+     * @return
+     */
+    InventoryItemFacetsDTO countFacets(InventoryItemFilterDTO filter, List<BigDecimal> priceBounds);
+}
@@ -0,0 +1,277 @@
+package br.com.igormartinez.potygames.repositories;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import br.com.igormartinez.potygames.data.projection.InventoryItemStock;
+import br.com.igormartinez.potygames.data.request.InventoryItemFilterDTO;
+import br.com.igormartinez.potygames.data.response.FacetCountDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemFacetsDTO;
+import br.com.igormartinez.potygames.data.response.PriceRangeCountDTO;
+
+public class InventoryItemRepositoryCustomImpl implements InventoryItemRepositoryCustom {
+
+    private static final String DECREMENT_QUANTITIES = """
+        WITH requested AS (
+            SELECT r.id, r.quantity 
+            FROM unnest(?, ?) AS r(id, quantity)
+        ), locked AS (
+            SELECT i.id, i.price 
+            FROM inventory_items i 
+            WHERE i.id IN (SELECT id FROM requested) 
+            ORDER BY i.id 
+            FOR UPDATE
+        ), updated AS (
+            UPDATE inventory_items i 
+            SET quantity = i.quantity - r.quantity 
+            FROM locked l, requested r 
+            WHERE i.id = l.id AND r.id = l.id AND i.quantity >= r.quantity 
+            RETURNING i.id
+        )
+        SELECT r.id, l.id IS NOT NULL AS found, u.id IS NOT NULL AS reserved, l.price 
+        FROM requested r 
+        LEFT JOIN locked l ON l.id = r.id 
+        LEFT JOIN updated u ON u.id = r.id 
+        ORDER BY r.id
+        """;
+
+    private static final String INCREMENT_QUANTITY = """
+        UPDATE inventory_items SET quantity = quantity + ? WHERE id = ?
+        """;
+
+    private static final String FIND_AVAILABLE_QUANTITY = """
+        SELECT i.quantity + COALESCE(
+            (SELECT SUM(j.delta) FROM inventory_reservation_journal j WHERE j.id_inventory_item = i.id), 0) 
+        FROM inventory_items i 
+        WHERE i.id = ?
+        """;
+
+    private static final String INSERT_JOURNAL = """
+        INSERT INTO inventory_reservation_journal (id_inventory_item, delta) VALUES (?, ?)
+        """;
+
+    private static final String APPLY_JOURNAL = """
+        WITH moved AS (
+            DELETE FROM inventory_reservation_journal 
+            RETURNING id_inventory_item, delta
+        ), net AS (
+            SELECT id_inventory_item AS id, SUM(delta) AS delta, COUNT(*) AS entries 
+            FROM moved 
+            GROUP BY id_inventory_item
+        ), updated AS (
+            UPDATE inventory_items i 
+            SET quantity = i.quantity + n.delta 
+            FROM net n 
+            WHERE i.id = n.id
+        )
+        SELECT id, entries FROM net
+        """;
+
+    private static final String ESTIMATE_COUNT = """
+        SELECT CASE WHEN c.reltuples < 0 THEN (SELECT COUNT(*) FROM inventory_items) ELSE c.reltuples::bigint END 
+        FROM pg_class c 
+        WHERE c.oid = 'inventory_items'::regclass
+        """;
+
+    // %s: the conditions of the filters
+    private static final String SEARCH = """
+        SELECT i.id, i.id_product, i.version, i.condition, i.price, i.quantity 
+        FROM inventory_items i 
+        WHERE i.id > ? %s
+        ORDER BY i.id 
+        LIMIT ?
+        """;
+
+    // One row by condition, by version and by price range. The range is 0 below the first bound,
+    // n above the last one, and NULL without price
+    private static final String COUNT_FACETS = """
+        SELECT GROUPING(f.condition) = 0 AS by_condition, GROUPING(f.version) = 0 AS by_version, 
+            f.condition, f.version, f.price_range, COUNT(*) AS count 
+        FROM (
+            SELECT i.condition, i.version, width_bucket(i.price, ?) AS price_range 
+            FROM inventory_items i 
+            WHERE TRUE %s
+        ) f 
+        GROUP BY GROUPING SETS ((f.condition), (f.version), (f.price_range)) 
+        ORDER BY count DESC, f.condition, f.version
+        """;
+
+    private static final RowMapper<InventoryItemDTO> ITEM_MAPPER = (rs, rowNum) -> new InventoryItemDTO(
+        rs.getLong("id"),
+        rs.getLong("id_product"),
+        rs.getString("version"),
+        rs.getString("condition"),
+        rs.getBigDecimal("price"),
+        rs.getInt("quantity"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryItemRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<InventoryItemStock> decrementQuantities(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty())
+            return List.of();
+
+        Long[] ids = quantities.keySet().toArray(Long[]::new);
+        Integer[] amounts = quantities.values().toArray(Integer[]::new);
+
+        return jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(DECREMENT_QUANTITIES);
+                Array idsArray = connection.createArrayOf("bigint", ids);
+                Array amountsArray = connection.createArrayOf("integer", amounts);
+                statement.setArray(1, idsArray);
+                statement.setArray(2, amountsArray);
+                return statement;
+            },
+            (rs, rowNum) -> new InventoryItemStock(
+                rs.getLong("id"),
+                rs.getBoolean("found"),
+                rs.getBoolean("reserved"),
+                rs.getBigDecimal("price")));
+    }
+
+    @Override
+    public void incrementQuantities(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty())
+            return;
+
+        List<Object[]> rows = new TreeMap<>(quantities).entrySet()
+            .stream()
+            .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+            .toList();
+        jdbcTemplate.batchUpdate(INCREMENT_QUANTITY, rows);
+    }
+
+    @Override
+    public Integer findAvailableQuantity(Long id) {
+        List<Integer> result = jdbcTemplate.queryForList(FIND_AVAILABLE_QUANTITY, Integer.class, id);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public void insertJournal(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty())
+            return;
+
+        List<Object[]> rows = deltas.entrySet()
+            .stream()
+            .map(entry -> new Object[] { entry.getKey(), entry.getValue() })
+            .toList();
+        jdbcTemplate.batchUpdate(INSERT_JOURNAL, rows);
+    }
+
+    @Override
+    public Map<Long, Integer> applyJournal() {
+        Map<Long, Integer> applied = new LinkedHashMap<>();
+        jdbcTemplate.query(APPLY_JOURNAL, (RowCallbackHandler) rs -> applied.put(rs.getLong("id"), rs.getInt("entries")));
+        return applied;
+    }
+
+    @Override
+    public long estimateCount() {
+        Long estimate = jdbcTemplate.queryForObject(ESTIMATE_COUNT, Long.class);
+        return estimate == null ? 0 : estimate;
+    }
+
+    @Override
+    public List<InventoryItemDTO> search(InventoryItemFilterDTO filter, Long cursor, int size) {
+        List<Object> args = new ArrayList<>();
+        args.add(cursor);
+        String conditions = filterConditions(filter, args);
+        args.add(size);
+
+        return jdbcTemplate.query(SEARCH.formatted(conditions), ITEM_MAPPER, args.toArray());
+    }
+
+    @Override
+    public InventoryItemFacetsDTO countFacets(InventoryItemFilterDTO filter, List<BigDecimal> priceBounds) {
+        List<Object> args = new ArrayList<>();
+        String conditions = filterConditions(filter, args);
+
+        List<FacetCountDTO> conditionCounts = new ArrayList<>();
+        List<FacetCountDTO> versionCounts = new ArrayList<>();
+        Map<Integer, Long> priceRangeCounts = new TreeMap<>();
+        RowCallbackHandler handler = rs -> {
+            if (rs.getBoolean("by_condition")) {
+                conditionCounts.add(new FacetCountDTO(rs.getString("condition"), rs.getLong("count")));
+            } else if (rs.getBoolean("by_version")) {
+                versionCounts.add(new FacetCountDTO(rs.getString("version"), rs.getLong("count")));
+            } else {
+                int priceRange = rs.getInt("price_range");
+                if (!rs.wasNull())
+                    priceRangeCounts.put(priceRange, rs.getLong("count"));
+            }
+        };
+
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(COUNT_FACETS.formatted(conditions));
+                Array boundsArray = connection.createArrayOf("numeric", priceBounds.toArray(BigDecimal[]::new));
+                statement.setArray(1, boundsArray);
+                for (int i = 0; i < args.size(); i++)
+                    statement.setObject(i + 2, args.get(i));
+                return statement;
+            },
+            handler);
+
+        List<PriceRangeCountDTO> priceCounts = priceRangeCounts.entrySet()
+            .stream()
+            .map(entry -> new PriceRangeCountDTO(
+                entry.getKey() == 0 ? null : priceBounds.get(entry.getKey() - 1),
+                entry.getKey() == priceBounds.size() ? null : priceBounds.get(entry.getKey()),
+                entry.getValue()))
+            .toList();
+        return new InventoryItemFacetsDTO(conditionCounts, versionCounts, priceCounts);
+    }
+
+    /**
+     * Build the SQL conditions of the given filters only, so the planner sees the actual predicates
+     * and can use the index on (id_product, condition, price).
+     * @param filter
+     * @param args receives the values of the conditions, in order
+     * @return the conditions, each one starting with AND
+     */
+    private static String filterConditions(InventoryItemFilterDTO filter, List<Object> args) {
+        StringBuilder conditions = new StringBuilder();
+        if (filter.productType() != null) {
+            conditions.append("AND i.id_product IN (SELECT p.id FROM products p WHERE p.type = ?) ");
+            args.add(filter.productType());
+        }
+        if (filter.product() != null) {
+            conditions.append("AND i.id_product = ? ");
+            args.add(filter.product());
+        }
+        if (filter.condition() != null) {
+            conditions.append("AND i.condition = ? ");
+            args.add(filter.condition());
+        }
+        if (filter.version() != null) {
+            conditions.append("AND i.version = ? ");
+            args.add(filter.version());
+        }
+        if (filter.minPrice() != null) {
+            conditions.append("AND i.price >= ? ");
+            args.add(filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            conditions.append("AND i.price <= ? ");
+            args.add(filter.maxPrice());
+        }
+        return conditions.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.igormartinez.potygames.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import br.com.igormartinez.potygames.models.OrderDocument;
+
+@Repository
+public interface OrderDocumentRepository extends JpaRepository<OrderDocument, Long> {
+
+    @Query("SELECT d FROM OrderDocument d WHERE d.idUser = :idUser ORDER BY d.idOrder ASC")
+    List<OrderDocument> findAllByIdUser(Long idUser);
+
+    @Query("SELECT d FROM OrderDocument d WHERE d.idUser = :idUser AND d.idOrder > :cursor ORDER BY d.idOrder ASC")
+    List<OrderDocument> findAllByIdUserAndIdOrderAfter(Long idUser, Long cursor, Pageable pageable);
+
+    @Query("SELECT d FROM OrderDocument d WHERE d.idUser = :idUser AND d.idOrder < :cursor ORDER BY d.idOrder DESC")
+    List<OrderDocument> findAllByIdUserAndIdOrderBefore(Long idUser, Long cursor, Pageable pageable);
+
+    /**
+     * Change the status of the order in the status column and inside the document, in a single statement.
+     * @param idOrder
+     * @param status
+     * @return the number of updated documents
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE order_documents 
+        SET status = :status, document = jsonb_set(document, '{status}', to_jsonb(CAST(:status AS TEXT))) 
+        WHERE id_order = :idOrder
+        """, nativeQuery = true)
+    int updateStatus(Long idOrder, String status);
+}
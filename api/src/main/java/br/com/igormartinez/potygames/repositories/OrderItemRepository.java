@@ -1,9 +1,30 @@
 package br.com.igormartinez.potygames.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import br.com.igormartinez.potygames.data.response.OrderItemResponseDTO;
 import br.com.igormartinez.potygames.models.OrderItem;
 
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {}
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /**
+     * Get the items of an order joined with their inventory items and products, in a single query.
+     * @param idOrder
+     * @return the items, in the order they were created
+     */
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.response.OrderItemResponseDTO(
+            i.id, p.name, i.version, i.condition, i.price, oi.quantity) 
+        FROM OrderItem oi 
+        JOIN oi.item i 
+        LEFT JOIN i.product p 
+        WHERE oi.order.id = :idOrder 
+        ORDER BY oi.id
+        """)
+    List<OrderItemResponseDTO> findAllResponseByIdOrder(Long idOrder);
+}
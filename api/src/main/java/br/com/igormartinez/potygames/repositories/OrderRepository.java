@@ -1,13 +1,37 @@
 package br.com.igormartinez.potygames.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import br.com.igormartinez.potygames.data.projection.PendingOrder;
+import br.com.igormartinez.potygames.enums.OrderStatus;
 import br.com.igormartinez.potygames.models.Order;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findAllByUserId(Long idUser);
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderAddresses WHERE o.id IN :ids")
+    List<Order> fetchAddressesByIdIn(Collection<Long> ids);
+
+    @Query("""
+        SELECT o FROM Order o 
+        JOIN FETCH o.orderItems i 
+        JOIN FETCH i.item it 
+        JOIN FETCH it.product 
+        WHERE o.id IN :ids AND o.status = :status 
+        ORDER BY o.id, i.id
+        """)
+    List<Order> findAllWithItemsByIdInAndStatus(Collection<Long> ids, OrderStatus status);
+
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.projection.PendingOrder(o.id, MIN(i.item.id)) 
+        FROM Order o JOIN o.orderItems i 
+        WHERE o.status = br.com.igormartinez.potygames.enums.OrderStatus.PENDING 
+        GROUP BY o.id 
+        ORDER BY o.id
+        """)
+    List<PendingOrder> findAllPending();
 }
@@ -1,14 +1,60 @@
 package br.com.igormartinez.potygames.repositories;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.response.ProductDTO;
 import br.com.igormartinez.potygames.models.Product;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     
     @Query("SELECT COUNT(p) FROM Product p WHERE p.type.id = :idProductType")
     int countProductsByIdProductType(long idProductType);
+
+    /**
+     * Get the version of a product, without loading it.
+     * @param id
+     * @return
+     */
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.projection.ResourceVersion(p.rowVersion, p.updatedAt) 
+        FROM Product p 
+        WHERE p.id = :id
+        """)
+    Optional<ResourceVersion> findVersionById(Long id);
+
+    /**
+     * Get a page of the products as DTOs, without count query.
+     * @param pageable
+     * @return
+     */
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.response.ProductDTO(p.id, p.type.id, p.name, p.description) 
+        FROM Product p
+        """)
+    Slice<ProductDTO> findSliceDTO(Pageable pageable);
+
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.response.ProductDTO(p.id, p.type.id, p.name, p.description) 
+        FROM Product p 
+        WHERE p.id > :id 
+        ORDER BY p.id ASC
+        """)
+    List<ProductDTO> findAllDTOByIdAfter(Long id, Pageable pageable);
+
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.response.ProductDTO(p.id, p.type.id, p.name, p.description) 
+        FROM Product p 
+        WHERE p.id < :id 
+        ORDER BY p.id DESC
+        """)
+    List<ProductDTO> findAllDTOByIdBefore(Long id, Pageable pageable);
 }
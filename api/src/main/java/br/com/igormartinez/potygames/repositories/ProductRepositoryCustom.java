@@ -0,0 +1,37 @@
+package br.com.igormartinez.potygames.repositories;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import br.com.igormartinez.potygames.data.projection.CatalogExportRow;
+import br.com.igormartinez.potygames.data.response.ProductSearchResultDTO;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Full-text search of the products by name and description, in Portuguese and English.
+     * The results are ordered by descending rank and ascending id, and paged by that pair (keyset pagination).
+     * @param query search text, in the web search syntax ("quoted phrases", or, -exclusion)
+     * @param rank rank of the last result of the previous page, null on the first page
+     * @param cursor id of the last result of the previous page, null on the first page
+     * @param size maximum number of results
+     * @return
+     */
+    List<ProductSearchResultDTO> search(String query, Float rank, Long cursor, int size);
+
+    /**
+     * Estimate the number of products from the planner statistics (pg_class.reltuples), without scanning the table.
+     * The table is counted only if it was never analyzed.
+     * @return
+     */
+    long estimateCount();
+
+    /**
+     * Read all products with their inventory items, ordered by product and inventory item id, through a
+     * forward-only cursor: only fetchSize rows are held in memory at a time. PostgreSQL only uses the cursor
+     * inside a transaction (no autocommit), otherwise the whole result is loaded.
+     * @param fetchSize number of rows fetched from the database at a time
+     * @param consumer receives each row, in order
+     */
+    void streamCatalog(int fetchSize, Consumer<CatalogExportRow> consumer);
+}
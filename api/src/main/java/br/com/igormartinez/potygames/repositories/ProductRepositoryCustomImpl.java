@@ -0,0 +1,104 @@
+package br.com.igormartinez.potygames.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import br.com.igormartinez.potygames.data.projection.CatalogExportRow;
+import br.com.igormartinez.potygames.data.response.ProductSearchResultDTO;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String SEARCH = """
+        WITH query AS (
+            SELECT websearch_to_tsquery('portuguese', ?) || websearch_to_tsquery('english', ?) AS q
+        ), ranked AS (
+            SELECT p.id, p.type, p.name, p.description, ts_rank(p.search_vector, query.q) AS rank 
+            FROM products p, query 
+            WHERE p.search_vector @@ query.q
+        )
+        SELECT id, type, name, description, rank 
+        FROM ranked 
+        """;
+
+    private static final String SEARCH_FIRST_PAGE = SEARCH + """
+        ORDER BY rank DESC, id 
+        LIMIT ?
+        """;
+
+    private static final String SEARCH_NEXT_PAGE = SEARCH + """
+        WHERE rank < ? OR (rank = ? AND id > ?) 
+        ORDER BY rank DESC, id 
+        LIMIT ?
+        """;
+
+    private static final RowMapper<ProductSearchResultDTO> RESULT_MAPPER = (rs, rowNum) -> new ProductSearchResultDTO(
+        rs.getLong("id"),
+        rs.getLong("type"),
+        rs.getString("name"),
+        rs.getString("description"),
+        rs.getFloat("rank"));
+
+    private static final String ESTIMATE_COUNT = """
+        SELECT CASE WHEN c.reltuples < 0 THEN (SELECT COUNT(*) FROM products) ELSE c.reltuples::bigint END 
+        FROM pg_class c 
+        WHERE c.oid = 'products'::regclass
+        """;
+
+    private static final String STREAM_CATALOG = """
+        SELECT p.id, p.type, t.key_word AS keyword, p.name, p.description, 
+            i.id AS id_inventory_item, i.version, i.condition, i.price, i.quantity 
+        FROM products p 
+        JOIN product_types t ON t.id = p.type 
+        LEFT JOIN inventory_items i ON i.id_product = p.id 
+        ORDER BY p.id, i.id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ProductSearchResultDTO> search(String query, Float rank, Long cursor, int size) {
+        if (rank == null || cursor == null)
+            return jdbcTemplate.query(SEARCH_FIRST_PAGE, RESULT_MAPPER, query, query, size);
+
+        return jdbcTemplate.query(SEARCH_NEXT_PAGE, RESULT_MAPPER, query, query, rank, rank, cursor, size);
+    }
+
+    @Override
+    public long estimateCount() {
+        Long estimate = jdbcTemplate.queryForObject(ESTIMATE_COUNT, Long.class);
+        return estimate == null ? 0 : estimate;
+    }
+
+    @Override
+    public void streamCatalog(int fetchSize, Consumer<CatalogExportRow> consumer) {
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(STREAM_CATALOG, 
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            },
+            rs -> {
+                consumer.accept(new CatalogExportRow(
+                    rs.getLong("id"),
+                    rs.getLong("type"),
+                    rs.getString("keyword"),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getObject("id_inventory_item", Long.class),
+                    rs.getString("version"),
+                    rs.getString("condition"),
+                    rs.getBigDecimal("price"),
+                    rs.getObject("quantity", Integer.class)));
+            });
+    }
+}
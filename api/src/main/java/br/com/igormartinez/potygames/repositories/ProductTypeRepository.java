@@ -1,9 +1,37 @@
 package br.com.igormartinez.potygames.repositories;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
 import br.com.igormartinez.potygames.models.ProductType;
 
 @Repository
-public interface ProductTypeRepository extends JpaRepository<ProductType, Long> {}
+public interface ProductTypeRepository extends JpaRepository<ProductType, Long> {
+
+    /**
+     * Get the version of a product type, without loading it.
+     * @param id
+     * @return
+     */
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.projection.ResourceVersion(t.rowVersion, t.updatedAt) 
+        FROM ProductType t 
+        WHERE t.id = :id
+        """)
+    Optional<ResourceVersion> findVersionById(Long id);
+
+    /**
+     * Get the version of all product types: any insert, update or delete changes it.
+     * @return
+     */
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.projection.ResourceVersion(
+            COUNT(t), SUM(t.rowVersion), MAX(t.updatedAt)) 
+        FROM ProductType t
+        """)
+    ResourceVersion findVersionOfAll();
+}
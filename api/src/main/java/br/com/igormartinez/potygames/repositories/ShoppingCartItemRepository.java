@@ -4,15 +4,30 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
 import br.com.igormartinez.potygames.models.ShoppingCartItem;
 
 @Repository
-public interface ShoppingCartItemRepository extends JpaRepository<ShoppingCartItem, Long> {
-    List<ShoppingCartItem> findAllByUserId(Long userId);
+public interface ShoppingCartItemRepository extends JpaRepository<ShoppingCartItem, Long>, ShoppingCartItemRepositoryCustom {
 
-    Optional<ShoppingCartItem> findByUserIdAndItemId(Long userId, Long itemId);
+    /**
+     * Get the items of a user's shopping cart joined with their inventory items and products, in a single query.
+     * @param userId
+     * @return the items, in the order they were added
+     */
+    @Query("""
+        SELECT new br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO(
+            i.id, p.name, i.version, i.condition, i.price, c.quantity) 
+        FROM ShoppingCartItem c 
+        JOIN c.item i 
+        LEFT JOIN i.product p 
+        WHERE c.user.id = :userId 
+        ORDER BY c.id
+        """)
+    List<ShoppingCartItemResponseDTO> findAllResponseByUserId(Long userId);
 
-    boolean existsByUserIdAndItemId(Long userId, Long itemId);
+    Optional<ShoppingCartItem> findByUserIdAndItemId(Long userId, Long itemId);
 }
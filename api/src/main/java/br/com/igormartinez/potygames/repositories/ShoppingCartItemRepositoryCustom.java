@@ -0,0 +1,84 @@
+package br.com.igormartinez.potygames.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import br.com.igormartinez.potygames.data.projection.ShoppingCartItemInsert;
+import br.com.igormartinez.potygames.data.projection.ShoppingCartItemState;
+import br.com.igormartinez.potygames.data.projection.ShoppingCartLine;
+import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
+
+public interface ShoppingCartItemRepositoryCustom {
+
+    /**
+     * Insert an item in a user's shopping cart and return it joined with its inventory item, in a single statement.
+     * An item already in the cart is left unchanged (ON CONFLICT DO NOTHING on the unique user/item constraint).
+     * @param idUser
+     * @param idInventoryItem
+     * @param quantity
+     * @return the inserted item, or which of the user and inventory item was not found
+     */
+    ShoppingCartItemInsert insertItem(Long idUser, Long idInventoryItem, Integer quantity);
+
+    /**
+     * Update the quantity of an item in a user's shopping cart and return it joined with its
+     * inventory item, in a single statement.
+     * @param idUser
+     * @param idInventoryItem
+     * @param quantity
+     * @return the updated item, empty if it is not in the cart
+     */
+    Optional<ShoppingCartItemResponseDTO> updateItemQuantity(Long idUser, Long idInventoryItem, Integer quantity);
+
+    /**
+     * Remove all items from a user's shopping cart and return them, in a single statement.
+     * The cart is read and cleared atomically, so concurrent checkouts of the same cart cannot
+     * both get its items. Inside a transaction, the items are back if it rolls back.
+     * @param idUser
+     * @return the removed lines, in ascending inventory item id order
+     */
+    List<ShoppingCartLine> deleteAllByUserIdReturning(Long idUser);
+
+    /**
+     * Get the state of many inventory items in a user's shopping cart, in a single query.
+     * The items already in the cart are locked until the end of the transaction.
+     * @param idUser
+     * @param idsInventoryItem
+     * @return the state of each requested inventory item, in ascending id order
+     */
+    List<ShoppingCartItemState> findAllStateForUpdate(Long idUser, Collection<Long> idsInventoryItem);
+
+    /**
+     * Insert many items in a user's shopping cart, in a single JDBC batch.
+     * The items already in the cart are left unchanged.
+     * @param idUser
+     * @param quantities quantity by inventory item id
+     */
+    void insertItems(Long idUser, Map<Long, Integer> quantities);
+
+    /**
+     * Update the quantity of many items in a user's shopping cart, in a single JDBC batch.
+     * @param idUser
+     * @param quantities new quantity by inventory item id
+     */
+    void updateItemQuantities(Long idUser, Map<Long, Integer> quantities);
+
+    /**
+     * Remove many items from a user's shopping cart, in a single JDBC batch.
+     * @param idUser
+     * @param idsInventoryItem
+     */
+    void deleteItems(Long idUser, Collection<Long> idsInventoryItem);
+
+    /**
+     * Delete a bounded batch of items from the carts without any change since the given time.
+     * The items locked by a concurrent write are skipped, so the sweep never waits for a user.
+     * @param idleBefore
+     * @param batchSize maximum number of items deleted
+     * @return the number of deleted items
+     */
+    int deleteIdleBatch(LocalDateTime idleBefore, int batchSize);
+}
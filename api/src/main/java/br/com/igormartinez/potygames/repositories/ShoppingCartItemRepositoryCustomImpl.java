@@ -0,0 +1,237 @@
+package br.com.igormartinez.potygames.repositories;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.igormartinez.potygames.data.projection.ShoppingCartItemInsert;
+import br.com.igormartinez.potygames.data.projection.ShoppingCartItemState;
+import br.com.igormartinez.potygames.data.projection.ShoppingCartLine;
+import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
+
+public class ShoppingCartItemRepositoryCustomImpl implements ShoppingCartItemRepositoryCustom {
+
+    private static final String INSERT_ITEM = """
+        WITH inserted AS (
+            INSERT INTO shopping_cart_items (id_user, id_inventory_item, quantity) 
+            SELECT u.id, i.id, ? 
+            FROM users u, inventory_items i 
+            WHERE u.id = ? AND i.id = ? 
+            ON CONFLICT (id_user, id_inventory_item) DO NOTHING 
+            RETURNING quantity
+        )
+        SELECT EXISTS (SELECT 1 FROM users u WHERE u.id = ?) AS user_found, 
+            i.id, p.name, i.version, i.condition, i.price, 
+            (SELECT quantity FROM inserted) AS quantity 
+        FROM (VALUES (1)) AS v(x) 
+        LEFT JOIN inventory_items i ON i.id = ? 
+        LEFT JOIN products p ON p.id = i.id_product
+        """;
+
+    private static final String UPDATE_ITEM_QUANTITY = """
+        UPDATE shopping_cart_items c 
+        SET quantity = ?, updated_at = now() 
+        FROM inventory_items i 
+        JOIN products p ON p.id = i.id_product 
+        WHERE c.id_user = ? AND c.id_inventory_item = ? AND i.id = c.id_inventory_item 
+        RETURNING i.id, p.name, i.version, i.condition, i.price, c.quantity
+        """;
+
+    private static final String DELETE_ALL_BY_USER_RETURNING = """
+        WITH deleted AS (
+            DELETE FROM shopping_cart_items 
+            WHERE id_user = ? 
+            RETURNING id_inventory_item, quantity
+        )
+        SELECT id_inventory_item, quantity 
+        FROM deleted 
+        ORDER BY id_inventory_item
+        """;
+
+    private static final String FIND_ALL_STATE_FOR_UPDATE = """
+        WITH requested AS (
+            SELECT r.id 
+            FROM unnest(?) AS r(id)
+        ), cart AS (
+            SELECT c.id_inventory_item, c.quantity 
+            FROM shopping_cart_items c 
+            WHERE c.id_user = ? AND c.id_inventory_item IN (SELECT id FROM requested) 
+            ORDER BY c.id_inventory_item 
+            FOR UPDATE
+        )
+        SELECT r.id AS id_requested, EXISTS (SELECT 1 FROM users u WHERE u.id = ?) AS user_found, 
+            i.id, p.name, i.version, i.condition, i.price, c.quantity 
+        FROM requested r 
+        LEFT JOIN inventory_items i ON i.id = r.id 
+        LEFT JOIN products p ON p.id = i.id_product 
+        LEFT JOIN cart c ON c.id_inventory_item = r.id 
+        ORDER BY r.id
+        """;
+
+    private static final String INSERT_ITEMS = """
+        INSERT INTO shopping_cart_items (id_user, id_inventory_item, quantity) VALUES (?, ?, ?) 
+        ON CONFLICT (id_user, id_inventory_item) DO NOTHING
+        """;
+
+    private static final String UPDATE_ITEMS = """
+        UPDATE shopping_cart_items SET quantity = ?, updated_at = now() WHERE id_user = ? AND id_inventory_item = ?
+        """;
+
+    private static final String DELETE_ITEMS = """
+        DELETE FROM shopping_cart_items WHERE id_user = ? AND id_inventory_item = ?
+        """;
+
+    private static final String DELETE_IDLE_BATCH = """
+        DELETE FROM shopping_cart_items 
+        WHERE id IN (
+            SELECT c.id 
+            FROM shopping_cart_items c 
+            WHERE c.updated_at < ? 
+                AND NOT EXISTS (
+                    SELECT 1 FROM shopping_cart_items r WHERE r.id_user = c.id_user AND r.updated_at >= ?) 
+            ORDER BY c.id 
+            LIMIT ? 
+            FOR UPDATE SKIP LOCKED
+        )
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShoppingCartItemRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public ShoppingCartItemInsert insertItem(Long idUser, Long idInventoryItem, Integer quantity) {
+        return jdbcTemplate.queryForObject(
+            INSERT_ITEM,
+            (rs, rowNum) -> {
+                boolean itemFound = rs.getObject("id") != null;
+                boolean inserted = rs.getObject("quantity") != null;
+                return new ShoppingCartItemInsert(
+                    rs.getBoolean("user_found"), 
+                    itemFound, 
+                    inserted ? mapItem(rs) : null);
+            },
+            quantity, idUser, idInventoryItem, idUser, idInventoryItem);
+    }
+
+    @Override
+    public Optional<ShoppingCartItemResponseDTO> updateItemQuantity(Long idUser, Long idInventoryItem, Integer quantity) {
+        return jdbcTemplate.query(
+                UPDATE_ITEM_QUANTITY, 
+                (rs, rowNum) -> mapItem(rs), 
+                quantity, idUser, idInventoryItem)
+            .stream()
+            .findFirst();
+    }
+
+    @Override
+    public List<ShoppingCartLine> deleteAllByUserIdReturning(Long idUser) {
+        return jdbcTemplate.query(
+            DELETE_ALL_BY_USER_RETURNING,
+            (rs, rowNum) -> new ShoppingCartLine(
+                rs.getLong("id_inventory_item"),
+                rs.getInt("quantity")),
+            idUser);
+    }
+
+    @Override
+    public List<ShoppingCartItemState> findAllStateForUpdate(Long idUser, Collection<Long> idsInventoryItem) {
+        if (idsInventoryItem.isEmpty())
+            return List.of();
+
+        Long[] ids = idsInventoryItem.toArray(Long[]::new);
+
+        return jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(FIND_ALL_STATE_FOR_UPDATE);
+                Array idsArray = connection.createArrayOf("bigint", ids);
+                statement.setArray(1, idsArray);
+                statement.setLong(2, idUser);
+                statement.setLong(3, idUser);
+                return statement;
+            },
+            (rs, rowNum) -> {
+                boolean itemFound = rs.getObject("id") != null;
+                boolean inCart = rs.getObject("quantity") != null;
+                return new ShoppingCartItemState(
+                    rs.getLong("id_requested"),
+                    rs.getBoolean("user_found"),
+                    itemFound,
+                    inCart,
+                    itemFound 
+                        ? new ShoppingCartItemResponseDTO(
+                            rs.getLong("id"),
+                            rs.getString("name"),
+                            rs.getString("version"),
+                            rs.getString("condition"),
+                            rs.getBigDecimal("price"),
+                            inCart ? rs.getInt("quantity") : null) 
+                        : null);
+            });
+    }
+
+    @Override
+    public void insertItems(Long idUser, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty())
+            return;
+
+        List<Object[]> rows = new TreeMap<>(quantities).entrySet()
+            .stream()
+            .map(entry -> new Object[] { idUser, entry.getKey(), entry.getValue() })
+            .toList();
+        jdbcTemplate.batchUpdate(INSERT_ITEMS, rows);
+    }
+
+    @Override
+    public void updateItemQuantities(Long idUser, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty())
+            return;
+
+        List<Object[]> rows = new TreeMap<>(quantities).entrySet()
+            .stream()
+            .map(entry -> new Object[] { entry.getValue(), idUser, entry.getKey() })
+            .toList();
+        jdbcTemplate.batchUpdate(UPDATE_ITEMS, rows);
+    }
+
+    @Override
+    public void deleteItems(Long idUser, Collection<Long> idsInventoryItem) {
+        if (idsInventoryItem.isEmpty())
+            return;
+
+        List<Object[]> rows = idsInventoryItem
+            .stream()
+            .sorted()
+            .map(id -> new Object[] { idUser, id })
+            .toList();
+        jdbcTemplate.batchUpdate(DELETE_ITEMS, rows);
+    }
+
+    @Override
+    public int deleteIdleBatch(LocalDateTime idleBefore, int batchSize) {
+        Timestamp timestamp = Timestamp.valueOf(idleBefore);
+        return jdbcTemplate.update(DELETE_IDLE_BATCH, timestamp, timestamp, batchSize);
+    }
+
+    private static ShoppingCartItemResponseDTO mapItem(ResultSet rs) throws SQLException {
+        return new ShoppingCartItemResponseDTO(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("version"),
+            rs.getString("condition"),
+            rs.getBigDecimal("price"),
+            rs.getInt("quantity"));
+    }
+}
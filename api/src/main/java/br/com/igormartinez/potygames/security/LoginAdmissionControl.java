@@ -0,0 +1,134 @@
+package br.com.igormartinez.potygames.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.igormartinez.potygames.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission control of the authentication endpoints.
+ * Each account and each client address has an in memory token bucket, the attempt is
+ * rejected before any query or password hashing when one of the buckets is empty.
+ */
+@Service
+public class LoginAdmissionControl {
+
+    private final Cache<String, TokenBucket> accountBuckets;
+    private final Cache<String, TokenBucket> addressBuckets;
+    private final int accountCapacity;
+    private final long accountRefillNanos;
+    private final int addressCapacity;
+    private final long addressRefillNanos;
+    private final Counter rejectedByAccount;
+    private final Counter rejectedByAddress;
+
+    public LoginAdmissionControl(
+            @Value("${security.login-admission.account.capacity:5}") int accountCapacity,
+            @Value("${security.login-admission.account.refill-period:1m}") Duration accountRefillPeriod,
+            @Value("${security.login-admission.address.capacity:20}") int addressCapacity,
+            @Value("${security.login-admission.address.refill-period:1m}") Duration addressRefillPeriod,
+            @Value("${security.login-admission.maximum-size:100000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.accountCapacity = accountCapacity;
+        this.accountRefillNanos = accountRefillPeriod.toNanos() / accountCapacity;
+        this.addressCapacity = addressCapacity;
+        this.addressRefillNanos = addressRefillPeriod.toNanos() / addressCapacity;
+
+        // A bucket idle for a whole refill period is full again, so it can be dropped
+        this.accountBuckets = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterAccess(accountRefillPeriod)
+            .build();
+        this.addressBuckets = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterAccess(addressRefillPeriod)
+            .build();
+
+        this.rejectedByAccount = Counter.builder("auth.admission.rejected")
+            .tag("key", "account")
+            .register(meterRegistry);
+        this.rejectedByAddress = Counter.builder("auth.admission.rejected")
+            .tag("key", "address")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Admit a signin attempt, consuming a token of the client address and of the account.
+     * @param username
+     * @param clientAddress
+     * @throws TooManyRequestsException if one of the buckets is empty
+     */
+    public void admitSignin(String username, String clientAddress) {
+        admitAddress(clientAddress);
+
+        if (username == null || username.isBlank())
+            return;
+
+        TokenBucket bucket = accountBuckets.get(
+            username.trim().toLowerCase(Locale.ROOT),
+            key -> new TokenBucket(accountCapacity, accountRefillNanos));
+        if (!bucket.tryConsume(System.nanoTime())) {
+            rejectedByAccount.increment();
+            throw new TooManyRequestsException();
+        }
+    }
+
+    /**
+     * Admit a refresh attempt, consuming a token of the client address.
+     * @param clientAddress
+     * @throws TooManyRequestsException if the bucket is empty
+     */
+    public void admitRefresh(String clientAddress) {
+        admitAddress(clientAddress);
+    }
+
+    private void admitAddress(String clientAddress) {
+        if (clientAddress == null)
+            return;
+
+        TokenBucket bucket = addressBuckets.get(
+            clientAddress,
+            key -> new TokenBucket(addressCapacity, addressRefillNanos));
+        if (!bucket.tryConsume(System.nanoTime())) {
+            rejectedByAddress.increment();
+            throw new TooManyRequestsException();
+        }
+    }
+
+    /**
+     * Lock-free token bucket kept in a single AtomicLong (GCRA form).
+     * The state is the instant when the bucket will be full again; a token is available
+     * while that instant is less than a whole bucket ahead of now.
+     */
+    static class TokenBucket {
+        private final long refillNanos;
+        private final long burstNanos;
+        private final AtomicLong fullAt;
+
+        TokenBucket(int capacity, long refillNanos) {
+            this.refillNanos = refillNanos;
+            this.burstNanos = refillNanos * capacity;
+            this.fullAt = new AtomicLong(System.nanoTime());
+        }
+
+        boolean tryConsume(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + refillNanos;
+                if (next - now > burstNanos)
+                    return false;
+                if (fullAt.compareAndSet(current, next))
+                    return true;
+            }
+        }
+    }
+}
@@ -13,21 +13,55 @@ import org.springframework.stereotype.Service;
 @Service
 public class PasswordManager {
 
-    public PasswordManager() {}
+    private final PasswordEncoder passwordEncoder;
 
-    public PasswordEncoder getDefaultPasswordEncoder(){
+    public PasswordManager(PasswordHashingExecutor hashingExecutor) {
         Map<String, PasswordEncoder> encoders = new HashMap<>();
 		Pbkdf2PasswordEncoder pbkdf2PasswordEncoder = new Pbkdf2PasswordEncoder("", 8, 185000, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
 		encoders.put("pbkdf2", pbkdf2PasswordEncoder);
-		DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
-		passwordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2PasswordEncoder);
+		DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
+		delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2PasswordEncoder);
+
+        // The encoders are stateless and thread-safe, so they are built only once
+        this.passwordEncoder = new BoundedPasswordEncoder(delegatingPasswordEncoder, hashingExecutor);
+    }
 
+    /**
+     * Get the password encoder of the application.
+     * The hashing and verification run in the bounded hashing pool.
+     * @return PasswordEncoder
+     */
+    public PasswordEncoder getDefaultPasswordEncoder(){
         return passwordEncoder;
     }
 
     public String encodePassword(String rawPassword) {
-        PasswordEncoder passwordEncoder = getDefaultPasswordEncoder();
         String encodedString = passwordEncoder.encode(rawPassword);
         return StringUtils.substringAfter(encodedString, "}"); // {pbkdf2}f88...
     }
+
+    private static class BoundedPasswordEncoder implements PasswordEncoder {
+        private final PasswordEncoder delegate;
+        private final PasswordHashingExecutor hashingExecutor;
+
+        BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor hashingExecutor) {
+            this.delegate = delegate;
+            this.hashingExecutor = hashingExecutor;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return hashingExecutor.encode(() -> delegate.encode(rawPassword));
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return hashingExecutor.matches(() -> delegate.matches(rawPassword, encodedPassword));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    }
 }
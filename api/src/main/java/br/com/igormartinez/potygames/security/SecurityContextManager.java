@@ -1,33 +1,39 @@
 package br.com.igormartinez.potygames.security;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import br.com.igormartinez.potygames.data.security.AuthenticatedUser;
 import br.com.igormartinez.potygames.enums.PermissionType;
-import br.com.igormartinez.potygames.models.User;
 
 @Service
 public class SecurityContextManager {
 
+    private AuthenticatedUser getPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal))
+            return null;
+
+        return principal;
+    }
+
     private boolean verifyIdUserAuthenticated(long id) {
-        User userAuthenticated = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return id == userAuthenticated.getId();
+        AuthenticatedUser userAuthenticated = getPrincipal();
+        return userAuthenticated != null && id == userAuthenticated.id();
     }
 
     private boolean verifyPermissionUserAuthenticated(PermissionType permission) {
-        return SecurityContextHolder.getContext()
-            .getAuthentication()
-            .getAuthorities()
-            .stream()
-            .anyMatch(ga -> ga.getAuthority().equals(permission.getValue()));
+        AuthenticatedUser userAuthenticated = getPrincipal();
+        return userAuthenticated != null && userAuthenticated.hasPermission(permission);
     }
 
     /**
      * Get the authenticated user.
-     * @return User
+     * @return AuthenticatedUser
      */
-    public User getUser() {
-        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    public AuthenticatedUser getUser() {
+        return getPrincipal();
     }
 
     /**
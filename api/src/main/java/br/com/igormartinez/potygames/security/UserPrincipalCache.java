@@ -0,0 +1,70 @@
+package br.com.igormartinez.potygames.security;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.igormartinez.potygames.data.security.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Service
+public class UserPrincipalCache {
+
+    public static final String CACHE_NAME = "user-principals";
+
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public UserPrincipalCache(
+            @Value("${security.principal-cache.ttl:5m}") Duration ttl,
+            @Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+
+        // Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get the principal of the given username, loading it with the loader if it is not cached.
+     * Exceptions thrown by the loader are propagated and nothing is cached, neither a null result.
+     * @param username
+     * @param loader
+     * @return AuthenticatedUser
+     */
+    public AuthenticatedUser get(String username, Function<String, AuthenticatedUser> loader) {
+        return cache.get(username, loader);
+    }
+
+    /**
+     * Remove the principal of the given username from the cache.
+     * @param username
+     */
+    public void evict(String username) {
+        if (username != null)
+            cache.invalidate(username);
+    }
+
+    /**
+     * Remove the principal of the given user id from the cache.
+     * The cache is keyed by username, so this scans the entries; it must be used only on writes.
+     * @param idUser
+     */
+    public void evict(Long idUser) {
+        if (idUser == null)
+            return;
+
+        cache.asMap()
+            .values()
+            .removeIf(principal -> idUser.equals(principal.id()));
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.GenericFilterBean;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -26,8 +28,10 @@ public class JwtTokenFilter extends GenericFilterBean {
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {                
         String token = tokenProvider.resolveToken((HttpServletRequest) request);
         
-        if (token != null && tokenProvider.validateToken(token)) {
-            Authentication auth = tokenProvider.getAuthentication(token);
+        // The token is decoded and verified only once, the claims are reused to authenticate
+        DecodedJWT decodedJWT = (token != null) ? tokenProvider.decodeToken(token) : null;
+        if (decodedJWT != null) {
+            Authentication auth = tokenProvider.getAuthentication(decodedJWT);
             if (auth != null) {
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
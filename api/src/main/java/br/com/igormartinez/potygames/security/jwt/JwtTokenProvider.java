@@ -24,7 +24,10 @@ import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 
+import br.com.igormartinez.potygames.data.security.AuthenticatedUser;
 import br.com.igormartinez.potygames.data.security.Token;
+import br.com.igormartinez.potygames.models.User;
+import br.com.igormartinez.potygames.security.UserPrincipalCache;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -40,12 +43,19 @@ public class JwtTokenProvider {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserPrincipalCache principalCache;
+
     Algorithm algorithm = null;
 
+    // JWTVerifier is immutable and thread-safe, so it is built once and shared by all requests
+    JWTVerifier verifier = null;
+
     @PostConstruct
     protected void init() {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        verifier = JWT.require(algorithm).build();
     }
 
     /**
@@ -81,7 +91,6 @@ public class JwtTokenProvider {
         String username = "";
         List<String> roles = new ArrayList<>();
 
-        JWTVerifier verifier = JWT.require(algorithm).build();
         DecodedJWT decodedJWT = verifier.verify(refreshToken);
         username = decodedJWT.getSubject();
         roles = decodedJWT.getClaim("roles").asList(String.class);
@@ -134,22 +143,30 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Authenticate a user through the token
+     * Authenticate a user through the token.
+     * The token is decoded and verified again, prefer {@link #getAuthentication(DecodedJWT)} 
+     * when the token was already decoded.
      * @param token
      * @return  
      */
     public Authentication getAuthentication(String token) {
-        DecodedJWT decodedJWT = decodedToken(token);
+        return getAuthentication(verifier.verify(token));
+    }
 
+    /**
+     * Authenticate a user through an already decoded and verified token.
+     * The principal is resolved through the principal cache, so the database 
+     * is only hit when the user is not cached or the cached entry has expired.
+     * @param decodedJWT
+     * @return  
+     */
+    public Authentication getAuthentication(DecodedJWT decodedJWT) {
         try {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(decodedJWT.getSubject());
-
-            // If one of this conditions is false, the authentication cannot be allowed
-            if (!(userDetails.isAccountNonExpired() && userDetails.isAccountNonLocked()
-                && userDetails.isCredentialsNonExpired() && userDetails.isEnabled()))
+            AuthenticatedUser principal = principalCache.get(decodedJWT.getSubject(), this::loadPrincipal);
+            if (principal == null)
                 return null;
 
-            return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities()); 
+            return new UsernamePasswordAuthenticationToken(principal, "", principal.getAuthorities()); 
         } catch (UsernameNotFoundException ex) {
             // If the user was not found, somethig go wrong and the authentication cannot be allowed
             return null;
@@ -157,16 +174,38 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Decode a token
+     * Load the user and convert it to the compact principal, so no entity is kept in the context
+     * @param username
+     * @return the principal or null if the account cannot be authenticated
+     */
+    private AuthenticatedUser loadPrincipal(String username) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+
+        // If one of this conditions is false, the authentication cannot be allowed
+        if (!(userDetails.isAccountNonExpired() && userDetails.isAccountNonLocked()
+            && userDetails.isCredentialsNonExpired() && userDetails.isEnabled()))
+            return null;
+
+        if (!(userDetails instanceof User user))
+            return null;
+
+        return AuthenticatedUser.from(user);
+    }
+
+    /**
+     * Decode and verify a token (signature and expiration) with the shared verifier.
      * @param token
-     * @return
+     * @return the decoded token or null if the token is not valid
      */
-    private DecodedJWT decodedToken(String token) {
-        Algorithm alg = Algorithm.HMAC256(secretKey.getBytes());
-        JWTVerifier verifier = JWT.require(alg).build();
-        DecodedJWT decodedJWT = verifier.verify(token);
-        
-        return decodedJWT;
+    public DecodedJWT decodeToken(String token) {
+        try {
+            DecodedJWT decodedJWT = verifier.verify(token);
+            if (decodedJWT.getExpiresAt() == null || decodedJWT.getExpiresAt().before(new Date())) return null;
+
+            return decodedJWT;
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     /**
@@ -190,13 +229,6 @@ public class JwtTokenProvider {
      * @return
      */
     public boolean validateToken(String token) {
-        try {
-            DecodedJWT decodedJWT = decodedToken(token);
-            if (decodedJWT.getExpiresAt().before(new Date())) return false;
-
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return decodeToken(token) != null;
     }
 }
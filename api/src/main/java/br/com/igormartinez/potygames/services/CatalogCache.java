@@ -0,0 +1,127 @@
+package br.com.igormartinez.potygames.services;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.projection.Versioned;
+import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
+import br.com.igormartinez.potygames.data.response.ProductDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Local read-through cache of the catalog: products and inventory items.
+ * The product types are always resident in the ProductTypeRegistry.
+ *
+ * The entries are evicted by the writes of the catalog services and by the stock changes of the orders.
+ * Inside a transaction the entries are evicted again after its completion, so a concurrent read cannot
+ * cache the value replaced by the transaction. Each instance has its own cache, so the changes made
+ * by another instance are only seen after the TTL, or as soon as a conditional request brings the
+ * current version of the value.
+ */
+@Service
+public class CatalogCache {
+
+    public static final String PRODUCTS_CACHE_NAME = "catalog.products";
+    public static final String INVENTORY_ITEMS_CACHE_NAME = "catalog.inventory-items";
+
+    private final Cache<Long, Versioned<ProductDTO>> products;
+    private final Cache<Long, Versioned<InventoryItemDTO>> inventoryItems;
+
+    public CatalogCache(
+            @Value("${catalog.cache.ttl:10m}") Duration ttl,
+            @Value("${catalog.cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.products = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+        this.inventoryItems = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+
+        // Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size... of each cache
+        CaffeineCacheMetrics.monitor(meterRegistry, products, PRODUCTS_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, inventoryItems, INVENTORY_ITEMS_CACHE_NAME);
+    }
+
+    /**
+     * Get the product of the given id, loading it with the loader if it is not cached
+     * or if its version is not the current one.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     * @param id
+     * @param current current version of the product, null if unknown.
+     * @param loader
+     * @return the product and the version it was read with
+     */
+    public Versioned<ProductDTO> getProduct(Long id, ResourceVersion current,
+            Function<Long, Versioned<ProductDTO>> loader) {
+        return get(products, id, current, loader);
+    }
+
+    /**
+     * Get the inventory item of the given id, loading it with the loader if it is not cached
+     * or if its version is not the current one.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     * @param id
+     * @param current current version of the inventory item, null if unknown.
+     * @param loader
+     * @return the inventory item and the version it was read with
+     */
+    public Versioned<InventoryItemDTO> getInventoryItem(Long id, ResourceVersion current,
+            Function<Long, Versioned<InventoryItemDTO>> loader) {
+        return get(inventoryItems, id, current, loader);
+    }
+
+    public void evictProduct(Long id) {
+        evict(() -> products.invalidate(id));
+    }
+
+    public void evictInventoryItem(Long id) {
+        evict(() -> inventoryItems.invalidate(id));
+    }
+
+    /**
+     * Remove many inventory items from the cache, e.g. after a change of their quantities.
+     * @param ids
+     */
+    public void evictInventoryItems(Collection<Long> ids) {
+        evict(() -> inventoryItems.invalidateAll(ids));
+    }
+
+    private static <K, V> Versioned<V> get(Cache<K, Versioned<V>> cache, K key, ResourceVersion current,
+            Function<K, Versioned<V>> loader) {
+        Versioned<V> cached = cache.get(key, loader);
+        if (current == null || current.equals(cached.version()))
+            return cached;
+
+        Versioned<V> loaded = loader.apply(key);
+        cache.put(key, loaded);
+        return loaded;
+    }
+
+    private static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
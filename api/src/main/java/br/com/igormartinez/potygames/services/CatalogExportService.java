@@ -0,0 +1,130 @@
+package br.com.igormartinez.potygames.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import br.com.igormartinez.potygames.data.projection.CatalogExportRow;
+import br.com.igormartinez.potygames.enums.ExportFormat;
+import br.com.igormartinez.potygames.exceptions.UserUnauthorizedException;
+import br.com.igormartinez.potygames.repositories.ProductRepository;
+import br.com.igormartinez.potygames.security.SecurityContextManager;
+
+/**
+ * Full export of the catalog (products and their inventory items) for the partner marketplaces.
+ *
+ * The rows are written to the response as they are read from a database cursor, in a read-only transaction,
+ * so the memory used does not depend on the size of the catalog.
+ */
+@Service
+public class CatalogExportService {
+
+    private static final String CSV_HEADER =
+        "product,product_type,product_type_keyword,name,description,inventory_item,version,condition,price,quantity";
+
+    private final ProductRepository productRepository;
+    private final SecurityContextManager securityContextManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    public CatalogExportService(
+            @Value("${catalog.export.fetch-size:1000}") int fetchSize,
+            ProductRepository productRepository,
+            SecurityContextManager securityContextManager,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.securityContextManager = securityContextManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // The rows share the response writer, which is neither closed nor flushed by each row
+        this.jsonWriter = objectMapper.writerFor(CatalogExportRow.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Export the catalog, one product and inventory item by line.
+     * The permission is checked now, the catalog is read only when the body is written.
+     * @param format
+     * @return the body of the response
+     */
+    public StreamingResponseBody export(ExportFormat format) {
+        if (!securityContextManager.checkAdmin())
+            throw new UserUnauthorizedException();
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> productRepository.streamCatalog(fetchSize, row -> {
+                    try {
+                        write(writer, format, row);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }));
+            } catch (UncheckedIOException ex) {
+                // e.g. the client closed the connection, the cursor is already closed by the rollback
+                throw ex.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private void write(Writer writer, ExportFormat format, CatalogExportRow row) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            jsonWriter.writeValue(writer, row);
+            writer.write('\n');
+            return;
+        }
+
+        writer.write(String.join(",",
+            csvField(row.product()),
+            csvField(row.productType()),
+            csvField(row.productTypeKeyword()),
+            csvField(row.name()),
+            csvField(row.description()),
+            csvField(row.inventoryItem()),
+            csvField(row.version()),
+            csvField(row.condition()),
+            csvField(row.price()),
+            csvField(row.quantity())));
+        writer.write('\n');
+    }
+
+    /**
+     * Format a CSV field (RFC 4180): empty if null, quoted if it has a comma, quote or line break.
+     * @param value
+     * @return
+     */
+    private static String csvField(Object value) {
+        if (value == null)
+            return "";
+
+        String field = value.toString();
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0)
+            return field;
+        return "\"" + field.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.igormartinez.potygames.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.igormartinez.potygames.data.response.OrderResponseDTO;
+import br.com.igormartinez.potygames.enums.IdempotentOperation;
+import br.com.igormartinez.potygames.exceptions.IdempotencyKeyMismatchException;
+import br.com.igormartinez.potygames.exceptions.RequestValidationException;
+import br.com.igormartinez.potygames.exceptions.ServiceUnavailableException;
+import br.com.igormartinez.potygames.models.IdempotencyKey;
+import br.com.igormartinez.potygames.repositories.IdempotencyKeyRepository;
+import br.com.igormartinez.potygames.security.SecurityContextManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Idempotency of the order operations (Idempotency-Key header).
+ *
+ * The first successful result of a key is kept in a bounded, TTL-evicting cache and in the idempotency_keys table,
+ * inserted in the same transaction of the operation. A retry with the same key returns the stored result without
+ * executing the operation again, and a concurrent duplicate waits for the result in flight.
+ * A failed operation stores nothing, so it can be retried with the same key.
+ *
+ * A fingerprint of the request (operation, target order and body) is kept with the key, and a key reused
+ * with a different request is refused with 422, as in the IETF Idempotency-Key draft.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final SecurityContextManager securityContextManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, InFlight> results;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Counter replayedCounter;
+
+    public IdempotencyService(
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.maximum-size:10000}") long maximumSize,
+            @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout,
+            IdempotencyKeyRepository repository,
+            SecurityContextManager securityContextManager,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.securityContextManager = securityContextManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.results = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .build();
+        this.replayedCounter = Counter.builder("idempotency.replayed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Execute the operation once for the given key and authenticated user.
+     * Without key, the operation is simply executed.
+     * @param idempotencyKey value of the Idempotency-Key header, may be null.
+     * @param operation
+     * @param idOrder the target order of the operation, null on creation.
+     * @param request the body of the request, may be null.
+     * @param action the operation, executed in the transaction that stores the key.
+     * @return the result of the first execution of the key.
+     * @throws RequestValidationException if the key is invalid or was used for another order.
+     * @throws IdempotencyKeyMismatchException if the key was used with a different request.
+     */
+    public OrderResponseDTO execute(String idempotencyKey, IdempotentOperation operation, Long idOrder,
+            Object request, Supplier<OrderResponseDTO> action) {
+        if (idempotencyKey == null)
+            return action.get();
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH)
+            throw new RequestValidationException("The Idempotency-Key must have between 1 and 255 characters.");
+
+        Long idUser = securityContextManager.getUser().id();
+        String cacheKey = idUser + ":" + operation + ":" + idempotencyKey;
+        String requestHash = fingerprint(operation, idOrder, request);
+
+        InFlight current = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight inFlight = results.asMap().putIfAbsent(cacheKey, current);
+        if (inFlight != null) {
+            if (!inFlight.requestHash().equals(requestHash))
+                throw new IdempotencyKeyMismatchException();
+            replayedCounter.increment();
+            return checkTarget(await(inFlight.future()), idOrder);
+        }
+
+        OrderResponseDTO result;
+        try {
+            result = repository
+                .findByIdUserAndOperationAndIdempotencyKey(idUser, operation, idempotencyKey)
+                .map(stored -> {
+                    checkRequestHash(stored, requestHash);
+                    replayedCounter.increment();
+                    return new OrderResponseDTO(stored.getIdOrder(), stored.getStatus());
+                })
+                .orElseGet(() -> executeAndStore(idUser, operation, idempotencyKey, requestHash, action));
+        } catch (RuntimeException ex) {
+            results.asMap().remove(cacheKey, current);
+            current.future().completeExceptionally(ex);
+            throw ex;
+        }
+
+        current.future().complete(result);
+        return checkTarget(result, idOrder);
+    }
+
+    /**
+     * Delete the keys older than the TTL.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:1h}")
+    public void deleteExpiredKeys() {
+        repository.deleteAllCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private OrderResponseDTO executeAndStore(Long idUser, IdempotentOperation operation, String idempotencyKey,
+            String requestHash, Supplier<OrderResponseDTO> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                OrderResponseDTO result = action.get();
+
+                IdempotencyKey key = new IdempotencyKey();
+                key.setIdUser(idUser);
+                key.setOperation(operation);
+                key.setIdempotencyKey(idempotencyKey);
+                key.setIdOrder(result.id());
+                key.setStatus(result.status());
+                key.setRequestHash(requestHash);
+                key.setCreatedAt(LocalDateTime.now());
+                repository.saveAndFlush(key);
+
+                return result;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance stored the same key first, its operation is the one that counts
+            return repository.findByIdUserAndOperationAndIdempotencyKey(idUser, operation, idempotencyKey)
+                .map(stored -> {
+                    checkRequestHash(stored, requestHash);
+                    return new OrderResponseDTO(stored.getIdOrder(), stored.getStatus());
+                })
+                .orElseThrow(() -> ex);
+        }
+    }
+
+    private OrderResponseDTO await(CompletableFuture<OrderResponseDTO> future) {
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new ServiceUnavailableException("The request with the same Idempotency-Key is still in progress, try again later.");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * SHA-256 of the operation, the target order and the JSON of the body of the request.
+     * @param operation
+     * @param idOrder
+     * @param request
+     * @return the hash in hexadecimal.
+     */
+    private String fingerprint(IdempotentOperation operation, Long idOrder, Object request) {
+        try {
+            String value = operation + ":" + idOrder + ":" + objectMapper.writeValueAsString(request);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // The keys stored before the fingerprint have no hash, only their target is checked
+    private static void checkRequestHash(IdempotencyKey stored, String requestHash) {
+        if (stored.getRequestHash() != null && !stored.getRequestHash().equals(requestHash))
+            throw new IdempotencyKeyMismatchException();
+    }
+
+    private static OrderResponseDTO checkTarget(OrderResponseDTO result, Long idOrder) {
+        if (idOrder != null && !idOrder.equals(result.id()))
+            throw new RequestValidationException("The Idempotency-Key was already used in a request for another order.");
+        return result;
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<OrderResponseDTO> future) {}
+}
@@ -1,12 +1,27 @@
 package br.com.igormartinez.potygames.services;
 
-import org.springframework.data.domain.Pageable;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.projection.Versioned;
 import br.com.igormartinez.potygames.data.request.InventoryItemCreateDTO;
+import br.com.igormartinez.potygames.data.request.InventoryItemFilterDTO;
 import br.com.igormartinez.potygames.data.request.InventoryItemUpdateDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
 import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemFacetsDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemSearchResultDTO;
+import br.com.igormartinez.potygames.data.response.SliceDTO;
+import br.com.igormartinez.potygames.enums.CountMode;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceNotFoundException;
 import br.com.igormartinez.potygames.exceptions.UserUnauthorizedException;
@@ -16,33 +31,161 @@ import br.com.igormartinez.potygames.models.Product;
 import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
 import br.com.igormartinez.potygames.repositories.ProductRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.utils.CursorToken;
 
 @Service
 public class InventoryItemService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Bounds of the price ranges of the search facets.
+     */
+    public static final List<BigDecimal> PRICE_BOUNDS = List.of(
+        new BigDecimal("10"), new BigDecimal("25"), new BigDecimal("50"), 
+        new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500"));
     
     private final InventoryItemRepository repository;
     private final ProductRepository productRepository;
     private final InventoryItemToInventoryItemDTOMapper mapper;
     private final SecurityContextManager securityContextManager;
+    private final InventoryReservationEngine reservationEngine;
+    private final CatalogCache catalogCache;
 
     public InventoryItemService(InventoryItemRepository repository, ProductRepository productRepository,
-        InventoryItemToInventoryItemDTOMapper mapper, SecurityContextManager securityContextManager) {
+        InventoryItemToInventoryItemDTOMapper mapper, SecurityContextManager securityContextManager,
+        InventoryReservationEngine reservationEngine, CatalogCache catalogCache) {
         this.repository = repository;
         this.productRepository = productRepository;
         this.mapper = mapper;
         this.securityContextManager = securityContextManager;
+        this.reservationEngine = reservationEngine;
+        this.catalogCache = catalogCache;
     }
 
     public Page<InventoryItemDTO> findAll(Pageable pageable) {
-        return repository.findAll(pageable).map(mapper);
+        return repository.findAllDTO(pageable);
+    }
+
+    /**
+     * Get a page of the inventory items, without count query.
+     * @param pageable
+     * @param count how the total is counted.
+     * @return
+     */
+    public SliceDTO<InventoryItemDTO> findSlice(Pageable pageable, CountMode count) {
+        return SliceDTO.of(repository.findSliceDTO(pageable), count, repository::estimateCount, repository::count);
+    }
+
+    /**
+     * Get a page of the inventory items, using the id as cursor (keyset pagination), without count query.
+     * @param after token of the previous page, null on the first page.
+     * @param size must be between 1 and MAX_PAGE_SIZE.
+     * @param direction order of the ids on the first page, the next pages follow the token.
+     * @return
+     */
+    public CursorSliceDTO<InventoryItemDTO> findAll(String after, int size, Direction direction) {
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new RequestValidationException("The size must be between 1 and " + MAX_PAGE_SIZE + ".");
+
+        CursorToken cursor = (after == null) 
+            ? new CursorToken(direction, direction.isDescending() ? Long.MAX_VALUE : 0L) 
+            : CursorToken.decode(after);
+
+        // One extra element tells if there is a next page
+        Pageable pageable = PageRequest.ofSize(size + 1);
+        List<InventoryItemDTO> content = cursor.direction().isDescending()
+            ? repository.findAllDTOByIdBefore(cursor.id(), pageable)
+            : repository.findAllDTOByIdAfter(cursor.id(), pageable);
+
+        if (content.size() <= size)
+            return new CursorSliceDTO<>(content, size, false, null);
+
+        content = content.subList(0, size);
+        String next = new CursorToken(cursor.direction(), content.get(size - 1).id()).encode();
+        return new CursorSliceDTO<>(content, size, true, next);
+    }
+
+    /**
+     * Search the inventory items by product type, product, condition, version and price range, using the id
+     * as cursor. The first page also brings the facet counts of all matching items.
+     * @param filter blank condition and version are not applied.
+     * @param after token of the previous page, null on the first page.
+     * @param size must be between 1 and MAX_PAGE_SIZE.
+     * @return
+     */
+    public InventoryItemSearchResultDTO search(InventoryItemFilterDTO filter, String after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new RequestValidationException("The size must be between 1 and " + MAX_PAGE_SIZE + ".");
+
+        if (filter.productType() != null && filter.productType() <= 0)
+            throw new RequestValidationException("The product-type must be a positive integer value.");
+
+        if (filter.product() != null && filter.product() <= 0)
+            throw new RequestValidationException("The product must be a positive integer value.");
+
+        if ((filter.minPrice() != null && filter.minPrice().signum() < 0) 
+                || (filter.maxPrice() != null && filter.maxPrice().signum() < 0))
+            throw new RequestValidationException("The prices must be zero or positive.");
+
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice().compareTo(filter.maxPrice()) > 0)
+            throw new RequestValidationException("The min-price must not be greater than the max-price.");
+
+        CursorToken cursor = (after == null) ? new CursorToken(Direction.ASC, 0L) : CursorToken.decode(after);
+        if (cursor.direction().isDescending())
+            throw new RequestValidationException("The after token is invalid.");
+
+        InventoryItemFilterDTO appliedFilter = new InventoryItemFilterDTO(
+            filter.productType(),
+            filter.product(),
+            (filter.version() == null || filter.version().isBlank()) ? null : filter.version(),
+            (filter.condition() == null || filter.condition().isBlank()) ? null : filter.condition(),
+            filter.minPrice(),
+            filter.maxPrice());
+
+        // One extra element tells if there is a next page
+        List<InventoryItemDTO> content = repository.search(appliedFilter, cursor.id(), size + 1);
+        InventoryItemFacetsDTO facets = (after == null) ? repository.countFacets(appliedFilter, PRICE_BOUNDS) : null;
+
+        if (content.size() <= size)
+            return new InventoryItemSearchResultDTO(new CursorSliceDTO<>(content, size, false, null), facets);
+
+        content = content.subList(0, size);
+        String next = new CursorToken(Direction.ASC, content.get(size - 1).id()).encode();
+        return new InventoryItemSearchResultDTO(new CursorSliceDTO<>(content, size, true, next), facets);
     }
 
     public InventoryItemDTO findById(Long id) {
+        return findById(id, null).value();
+    }
+
+    /**
+     * Get an inventory item and the version it was read with.
+     * @param id
+     * @param current current version of the inventory item, or null to accept any cached version.
+     * @return
+     */
+    public Versioned<InventoryItemDTO> findById(Long id, ResourceVersion current) {
+        if (id == null || id <= 0)
+            throw new RequestValidationException("The inventory-item-id must be a positive integer value.");
+
+        return catalogCache.getInventoryItem(id, current, key -> repository.findById(key)
+            .map(item -> new Versioned<>(
+                mapper.apply(item), 
+                new ResourceVersion(item.getRowVersion(), item.getUpdatedAt())))
+            .orElseThrow(() -> new ResourceNotFoundException("The inventory item was not found with the given ID.")));
+    }
+
+    /**
+     * Get the current version of an inventory item, without loading it.
+     * @param id
+     * @return
+     */
+    public ResourceVersion findVersionById(Long id) {
         if (id == null || id <= 0)
             throw new RequestValidationException("The inventory-item-id must be a positive integer value.");
 
-        return repository.findById(id)
-            .map(mapper)
+        return repository.findVersionById(id)
             .orElseThrow(() -> new ResourceNotFoundException("The inventory item was not found with the given ID."));
     }
 
@@ -63,6 +206,7 @@ public class InventoryItemService {
         return mapper.apply(repository.save(item));
     }
 
+    @Transactional
     public InventoryItemDTO update(Long id, InventoryItemUpdateDTO itemDTO) {
         if (id == null || id <= 0)
             throw new RequestValidationException("The inventory-item-id must be a positive integer value.");
@@ -79,12 +223,28 @@ public class InventoryItemService {
         Product product = productRepository.findById(itemDTO.product())
             .orElseThrow(() -> new ResourceNotFoundException("The product was not found with the given ID."));
 
+        String condition = itemDTO.condition().isBlank() ? null : itemDTO.condition();
+        catalogCache.evictInventoryItem(id);
+
+        if (reservationEngine.isEnabled()) {
+            // The engine owns the quantity: the row is updated without it, so a write-behind flush of the journal
+            // is never overwritten, and the new quantity is applied as a delta to the available quantity
+            repository.updateWithoutQuantity(id, product, itemDTO.version(), condition, itemDTO.price());
+
+            int available = reservationEngine.getAvailableQuantity(id);
+            int delta = itemDTO.quantity() - available;
+            if (delta != 0)
+                reservationEngine.adjust(Map.of(id, delta));
+
+            return new InventoryItemDTO(id, product.getId(), itemDTO.version(), condition, itemDTO.price(), 
+                available + delta);
+        }
+
         item.setProduct(product);
         item.setVersion(itemDTO.version());
-        item.setCondition(itemDTO.condition().isBlank() ? null : itemDTO.condition());
+        item.setCondition(condition);
         item.setPrice(itemDTO.price());
         item.setQuantity(itemDTO.quantity());
-
         return mapper.apply(repository.save(item));
     }
 
@@ -99,5 +259,7 @@ public class InventoryItemService {
             .orElseThrow(() -> new ResourceNotFoundException("The inventory item was not found with the given ID."));
         
         repository.delete(item);
+        reservationEngine.evict(id);
+        catalogCache.evictInventoryItem(id);
     }
 }
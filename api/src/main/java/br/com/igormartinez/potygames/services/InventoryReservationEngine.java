@@ -0,0 +1,242 @@
+package br.com.igormartinez.potygames.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.igormartinez.potygames.data.projection.InventoryItemStock;
+import br.com.igormartinez.potygames.models.InventoryItem;
+import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Optional in memory reservation engine of the inventory (inventory.reservation-engine.enabled).
+ *
+ * The available quantity of each touched inventory item is kept in an atomic counter, striped across shards,
+ * and it is the authoritative value while the engine is enabled. Reservations and releases are CAS operations
+ * on the counters, so concurrent checkouts of the same item do not serialize on its database row.
+ *
+ * Every change is also written to the reservation journal in the caller transaction. The journal is applied
+ * to inventory_items in periodic batches and on startup, so no committed change is lost on a crash.
+ * A counter is loaded once, as the stored quantity plus its pending journal deltas, and never reloaded,
+ * so the engine must be the only writer of the quantities and requires a single application instance.
+ */
+@Service
+public class InventoryReservationEngine {
+
+    private final InventoryItemRepository repository;
+    private final CatalogCache catalogCache;
+    private final boolean enabled;
+    private final Shard[] shards;
+    private final Counter rejectedCounter;
+    private final Counter flushedCounter;
+
+    public InventoryReservationEngine(
+            @Value("${inventory.reservation-engine.enabled:false}") boolean enabled,
+            @Value("${inventory.reservation-engine.shards:16}") int shards,
+            InventoryItemRepository repository,
+            CatalogCache catalogCache,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.repository = repository;
+        this.catalogCache = catalogCache;
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++)
+            this.shards[i] = new Shard();
+
+        this.rejectedCounter = Counter.builder("inventory.reservation.rejected")
+            .register(meterRegistry);
+        this.flushedCounter = Counter.builder("inventory.reservation.flushed")
+            .register(meterRegistry);
+        Gauge.builder("inventory.reservation.items", this, InventoryReservationEngine::loadedItems)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserve the quantities of many inventory items, all or nothing.
+     * If any line cannot be reserved, the other lines are given back and nothing is journaled.
+     * Inside a transaction, the reservation is given back if the transaction does not commit.
+     * @param quantities quantity to reserve by inventory item id
+     * @return the result of each requested line, in ascending id order
+     */
+    public List<InventoryItemStock> reserve(Map<Long, Integer> quantities) {
+        Map<Long, BigDecimal> prices = repository.findAllById(quantities.keySet())
+            .stream()
+            .collect(Collectors.toMap(InventoryItem::getId, InventoryItem::getPrice));
+
+        Map<Long, Integer> sortedQuantities = new TreeMap<>(quantities);
+        List<InventoryItemStock> stocks = new ArrayList<>();
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+
+        for (Map.Entry<Long, Integer> entry : sortedQuantities.entrySet()) {
+            Long id = entry.getKey();
+            BigDecimal price = prices.get(id);
+            boolean lineReserved = price != null && tryDecrement(counterOf(id), entry.getValue());
+            if (lineReserved)
+                reserved.put(id, entry.getValue());
+            stocks.add(new InventoryItemStock(id, price != null, lineReserved, price));
+        }
+
+        if (reserved.size() < sortedQuantities.size()) {
+            reserved.forEach((id, quantity) -> counterOf(id).addAndGet(quantity));
+            rejectedCounter.increment();
+            return stocks;
+        }
+
+        repository.insertJournal(negate(reserved));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED)
+                        reserved.forEach((id, quantity) -> counterOf(id).addAndGet(quantity));
+                }
+            });
+        }
+        return stocks;
+    }
+
+    /**
+     * Give back the quantities of many inventory items.
+     * Inside a transaction, the counters are only incremented after the commit.
+     * @param quantities quantity to give back by inventory item id
+     */
+    public void release(Map<Long, Integer> quantities) {
+        adjust(quantities);
+    }
+
+    /**
+     * Apply signed quantity deltas to many inventory items, e.g. a stock correction.
+     * Inside a transaction, the counters are only changed after the commit.
+     * @param deltas signed quantity by inventory item id
+     */
+    public void adjust(Map<Long, Integer> deltas) {
+        // The counters are loaded before the journal insert, so the delta cannot be counted twice
+        Map<Long, AtomicInteger> counters = deltas.keySet()
+            .stream()
+            .collect(Collectors.toMap(Function.identity(), this::counterOf));
+
+        repository.insertJournal(deltas);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deltas.forEach((id, delta) -> counters.get(id).addAndGet(delta));
+                }
+            });
+        } else {
+            deltas.forEach((id, delta) -> counters.get(id).addAndGet(delta));
+        }
+    }
+
+    /**
+     * Remove the counter of a deleted inventory item.
+     * @param id
+     */
+    public void evict(Long id) {
+        shardOf(id).counters.remove(id);
+    }
+
+    /**
+     * Get the available quantity in memory of an inventory item, loading it if needed.
+     * @param id
+     * @return the available quantity
+     */
+    public int getAvailableQuantity(Long id) {
+        return counterOf(id).get();
+    }
+
+    /**
+     * Apply the pending deltas of the journal to inventory_items (write-behind).
+     * The catalog cache of the flushed items is evicted, as it may hold the quantity before the flush.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation-engine.flush-interval:1s}")
+    public void flush() {
+        if (!enabled)
+            return;
+
+        Map<Long, Integer> applied = repository.applyJournal();
+        if (applied.isEmpty())
+            return;
+
+        catalogCache.evictInventoryItems(applied.keySet());
+        flushedCounter.increment(applied.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    /**
+     * Apply the journal left by a previous run before any reservation.
+     */
+    @PostConstruct
+    public void reconcile() {
+        flush();
+    }
+
+    private AtomicInteger counterOf(Long id) {
+        Shard shard = shardOf(id);
+        AtomicInteger counter = shard.counters.get(id);
+        if (counter != null)
+            return counter;
+
+        // Only the first access of an item takes the shard lock and goes to the database
+        synchronized (shard) {
+            counter = shard.counters.get(id);
+            if (counter == null) {
+                Integer available = repository.findAvailableQuantity(id);
+                counter = new AtomicInteger((available == null) ? 0 : available);
+                shard.counters.put(id, counter);
+            }
+            return counter;
+        }
+    }
+
+    private Shard shardOf(Long id) {
+        return shards[Math.floorMod(id.hashCode(), shards.length)];
+    }
+
+    private int loadedItems() {
+        int items = 0;
+        for (Shard shard : shards)
+            items += shard.counters.size();
+        return items;
+    }
+
+    private static boolean tryDecrement(AtomicInteger counter, int quantity) {
+        while (true) {
+            int available = counter.get();
+            if (available < quantity)
+                return false;
+            if (counter.compareAndSet(available, available - quantity))
+                return true;
+        }
+    }
+
+    private static Map<Long, Integer> negate(Map<Long, Integer> quantities) {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        quantities.forEach((id, quantity) -> deltas.put(id, -quantity));
+        return deltas;
+    }
+
+    private static class Shard {
+        private final Map<Long, AtomicInteger> counters = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,273 @@
+package br.com.igormartinez.potygames.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import br.com.igormartinez.potygames.data.projection.PendingOrder;
+import br.com.igormartinez.potygames.data.request.OrderItemResquestDTO;
+import br.com.igormartinez.potygames.data.request.OrderRequestDTO;
+import br.com.igormartinez.potygames.data.response.OrderResponseDTO;
+import br.com.igormartinez.potygames.exceptions.ServiceUnavailableException;
+import br.com.igormartinez.potygames.repositories.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous intake of orders.
+ *
+ * The order is persisted as PENDING and its id is put in a bounded queue. The queues are sharded by the lowest
+ * inventory item id of the order, and each shard has a single worker thread. This only spreads the orders over
+ * the workers: the orders with the same lowest item are reserved one after the other, but the other items of a
+ * multi-item order can be reserved at the same time by another shard, so the workers may still wait for the
+ * same rows. Each order is reserved in its own transaction, locking its rows in ascending id order.
+ * The worker drains its queue in micro-batches and processes the orders of the batch one by one; a failed order
+ * (e.g. a lock timeout or a deadlock) does not affect the others and is retried a bounded number of times,
+ * then it is REJECTED, so its status is final without waiting for a restart.
+ * When the queue of a shard is full the order is refused with a 503.
+ * The orders left PENDING by a previous run are queued again on startup.
+ */
+@Service
+public class OrderIntakeQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeQueue.class);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final Shard[] shards;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Counter rejectedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private volatile boolean running;
+    private volatile Thread recovery;
+
+    public OrderIntakeQueue(
+            @Value("${order.intake.shards:4}") int shards,
+            @Value("${order.intake.queue-capacity:1000}") int queueCapacity,
+            @Value("${order.intake.batch-size:50}") int batchSize,
+            @Value("${order.intake.max-attempts:3}") int maxAttempts,
+            @Value("${order.intake.retry-backoff:100ms}") Duration retryBackoff,
+            OrderService orderService,
+            OrderRepository orderRepository,
+            MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+
+        this.rejectedCounter = Counter.builder("order.intake.rejected")
+            .register(meterRegistry);
+        this.retriedCounter = Counter.builder("order.intake.retried")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.intake.failed")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("order.intake.batch")
+            .register(meterRegistry);
+
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            Shard shard = new Shard(queueCapacity);
+            this.shards[i] = shard;
+
+            Gauge.builder("order.intake.queue.depth", shard.queue, BlockingQueue::size)
+                .tag("shard", String.valueOf(i))
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Start the worker threads, one by shard.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (running)
+            return;
+
+        running = true;
+        for (int i = 0; i < shards.length; i++) {
+            Shard shard = shards[i];
+            Thread worker = new Thread(() -> work(shard), "order-intake-" + i);
+            worker.setDaemon(true);
+            shard.worker = worker;
+            worker.start();
+        }
+    }
+
+    /**
+     * Accept a new order, persisted as PENDING, to be processed by the worker of its shard.
+     * @param request must be not null and already validated.
+     * @return New order ID and its status (PENDING).
+     * @throws ServiceUnavailableException if the queue of the shard is full
+     */
+    public OrderResponseDTO submit(OrderRequestDTO request) {
+        Long shardKey = request.items()
+            .stream()
+            .map(OrderItemResquestDTO::idInventoryItem)
+            .min(Comparator.naturalOrder())
+            .orElseThrow();
+        Shard shard = shardOf(shardKey);
+
+        // The slot is taken before persisting, so an accepted order always fits in the queue
+        if (!shard.permits.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("The order queue is full, try again later.");
+        }
+
+        OrderResponseDTO response;
+        try {
+            response = orderService.createPendingOrder(request);
+        } catch (RuntimeException ex) {
+            shard.permits.release();
+            throw ex;
+        }
+
+        shard.queue.add(response.id());
+        return response;
+    }
+
+    /**
+     * Queue again the orders left PENDING by a previous run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingOrders() {
+        List<PendingOrder> pendingOrders = orderRepository.findAllPending();
+        if (pendingOrders.isEmpty())
+            return;
+
+        // The queues may be smaller than the backlog, so it waits for the workers in its own thread
+        recovery = new Thread(() -> {
+            try {
+                for (PendingOrder pendingOrder : pendingOrders) {
+                    Shard shard = shardOf(pendingOrder.idInventoryItem());
+                    shard.permits.acquire();
+                    shard.queue.add(pendingOrder.idOrder());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }, "order-intake-recovery");
+        recovery.setDaemon(true);
+        recovery.start();
+    }
+
+    /**
+     * Stop the worker threads and wait for the orders in process, up to SHUTDOWN_TIMEOUT_MILLIS.
+     * The orders still queued stay PENDING and are queued again on the next startup.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!running)
+            return;
+
+        running = false;
+        if (recovery != null)
+            recovery.interrupt();
+        for (Shard shard : shards)
+            shard.worker.interrupt();
+
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MILLIS;
+        try {
+            for (Shard shard : shards)
+                shard.worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work(Shard shard) {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long id = shard.queue.poll(1, TimeUnit.SECONDS);
+                if (id == null)
+                    continue;
+
+                batch.add(id);
+                shard.queue.drainTo(batch, batchSize - 1);
+                shard.permits.release(batch.size());
+
+                batchTimer.recordCallable(() -> {
+                    for (Long idOrder : batch)
+                        process(idOrder);
+                    return null;
+                });
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                logger.error("Failed to process the pending orders {}", batch, ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Process an order, retrying it up to maxAttempts times with a growing backoff.
+     * After the last attempt the order is REJECTED.
+     */
+    private void process(Long id) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                orderService.processPendingOrder(id);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= maxAttempts) {
+                    failedCounter.increment();
+                    logger.error("Failed to process the pending order {} after {} attempts", id, attempt, ex);
+                    reject(id);
+                    return;
+                }
+                retriedCounter.increment();
+                logger.warn("Failed to process the pending order {}, attempt {} of {}", id, attempt, maxAttempts, ex);
+                Thread.sleep(retryBackoff.multipliedBy(attempt).toMillis());
+            }
+        }
+    }
+
+    private void reject(Long id) {
+        try {
+            orderService.rejectPendingOrder(id);
+        } catch (RuntimeException ex) {
+            // e.g. the database is down, the order stays PENDING and is queued again on the next startup
+            logger.error("Failed to reject the pending order {}", id, ex);
+        }
+    }
+
+    private Shard shardOf(Long idInventoryItem) {
+        return shards[Math.floorMod(idInventoryItem.hashCode(), shards.length)];
+    }
+
+    private static class Shard {
+        private final BlockingQueue<Long> queue;
+        private final Semaphore permits;
+        private Thread worker;
+
+        Shard(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.permits = new Semaphore(capacity);
+        }
+    }
+}
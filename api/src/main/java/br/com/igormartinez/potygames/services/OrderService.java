@@ -2,15 +2,27 @@ package br.com.igormartinez.potygames.services;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import br.com.igormartinez.potygames.data.projection.InventoryItemStock;
+import br.com.igormartinez.potygames.data.request.CheckoutRequestDTO;
 import br.com.igormartinez.potygames.data.request.OrderItemResquestDTO;
 import br.com.igormartinez.potygames.data.request.OrderRequestDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
 import br.com.igormartinez.potygames.data.response.OrderDetailResponseDTO;
 import br.com.igormartinez.potygames.data.response.OrderResponseDTO;
+import br.com.igormartinez.potygames.data.security.AuthenticatedUser;
 import br.com.igormartinez.potygames.enums.OrderStatus;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceInsufficientException;
@@ -21,57 +33,138 @@ import br.com.igormartinez.potygames.mappers.OrderEntityToDetailDTOMapper;
 import br.com.igormartinez.potygames.models.InventoryItem;
 import br.com.igormartinez.potygames.models.Order;
 import br.com.igormartinez.potygames.models.OrderAddress;
+import br.com.igormartinez.potygames.models.OrderDocument;
 import br.com.igormartinez.potygames.models.OrderItem;
-import br.com.igormartinez.potygames.models.User;
 import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
+import br.com.igormartinez.potygames.repositories.OrderDocumentRepository;
+import br.com.igormartinez.potygames.repositories.OrderItemRepository;
 import br.com.igormartinez.potygames.repositories.OrderRepository;
+import br.com.igormartinez.potygames.repositories.ShoppingCartItemRepository;
+import br.com.igormartinez.potygames.repositories.UserRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.utils.CursorToken;
 
 @Service
 public class OrderService {
+
+    public static final int MAX_PAGE_SIZE = 100;
     
     private final OrderRepository orderRepository;
     private final InventoryItemRepository inventoryItemRepository;
+    private final UserRepository userRepository;
     private final OrderAddressRequestDTOToEntityMapper addressMapper;
     private final OrderEntityToDetailDTOMapper orderMapper;
     private final SecurityContextManager securityContextManager;
+    private final InventoryReservationEngine reservationEngine;
+    private final OrderDocumentRepository orderDocumentRepository;
+    private final ShoppingCartItemRepository shoppingCartItemRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final CatalogCache catalogCache;
 
     public OrderService(OrderRepository orderRepository, InventoryItemRepository inventoryItemRepository,
-            OrderAddressRequestDTOToEntityMapper addressMapper, OrderEntityToDetailDTOMapper orderMapper,
-            SecurityContextManager securityContextManager) {
+            UserRepository userRepository, OrderAddressRequestDTOToEntityMapper addressMapper, OrderEntityToDetailDTOMapper orderMapper,
+            SecurityContextManager securityContextManager, InventoryReservationEngine reservationEngine, 
+            OrderDocumentRepository orderDocumentRepository, ShoppingCartItemRepository shoppingCartItemRepository,
+            OrderItemRepository orderItemRepository, CatalogCache catalogCache) {
         this.orderRepository = orderRepository;
         this.inventoryItemRepository = inventoryItemRepository;
+        this.userRepository = userRepository;
         this.addressMapper = addressMapper;
         this.orderMapper = orderMapper;
         this.securityContextManager = securityContextManager;
+        this.reservationEngine = reservationEngine;
+        this.orderDocumentRepository = orderDocumentRepository;
+        this.shoppingCartItemRepository = shoppingCartItemRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.catalogCache = catalogCache;
     }
 
     /**
      * Get all orders from authenticated user.
+     * The orders are read from the order documents, in a single query.
      * @return List of all orders with detailed informations.
      */
     public List<OrderDetailResponseDTO> findAllByUser() {
-        User user = securityContextManager.getUser();
+        AuthenticatedUser user = securityContextManager.getUser();
 
-        return orderRepository.findAllByUserId(user.getId())
+        return orderDocumentRepository.findAllByIdUser(user.id())
             .stream()
-            .map(orderMapper)
+            .map(OrderDocument::getDocument)
             .toList();
     }
 
+    /**
+     * Get a page of the orders from authenticated user, using the order id as cursor (keyset pagination).
+     * The page is read from the order documents, in a single query.
+     * @param after token of the previous page, null on the first page.
+     * @param size must be between 1 and MAX_PAGE_SIZE.
+     * @param direction order of the ids on the first page, the next pages follow the token.
+     * @return the orders of the page with detailed informations.
+     */
+    public CursorSliceDTO<OrderDetailResponseDTO> findAllByUser(String after, int size, Direction direction) {
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new RequestValidationException("The size must be between 1 and " + MAX_PAGE_SIZE + ".");
+
+        CursorToken cursor = (after == null) 
+            ? new CursorToken(direction, direction.isDescending() ? Long.MAX_VALUE : 0L) 
+            : CursorToken.decode(after);
+
+        AuthenticatedUser user = securityContextManager.getUser();
+
+        // One extra element tells if there is a next page
+        Pageable pageable = PageRequest.ofSize(size + 1);
+        List<OrderDetailResponseDTO> content = (cursor.direction().isDescending()
+                ? orderDocumentRepository.findAllByIdUserAndIdOrderBefore(user.id(), cursor.id(), pageable)
+                : orderDocumentRepository.findAllByIdUserAndIdOrderAfter(user.id(), cursor.id(), pageable))
+            .stream()
+            .map(OrderDocument::getDocument)
+            .toList();
+
+        if (content.size() <= size)
+            return new CursorSliceDTO<>(content, size, false, null);
+
+        content = content.subList(0, size);
+        String next = new CursorToken(cursor.direction(), content.get(size - 1).id()).encode();
+        return new CursorSliceDTO<>(content, size, true, next);
+    }
+
     /**
      * Get a order from provided id.
      * @param id must be not null and greater than zero.
      * @return A order with detailed informations.
      */
     public OrderDetailResponseDTO findById(Long id) {
+        OrderDocument document = orderDocumentRepository.findById(id).orElse(null);
+        if (document != null) {
+            if (!securityContextManager.checkSameUser(document.getIdUser()))
+                throw new UserUnauthorizedException();
+
+            return document.getDocument();
+        }
+
+        // Without document, the order is rebuilt from its tables
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("The order was not found with the given ID."));
 
         if (!securityContextManager.checkSameUser(order.getUser().getId()))
             throw new UserUnauthorizedException();
         
-        return orderMapper.apply(order);
+        return orderMapper.apply(order, orderItemRepository.findAllResponseByIdOrder(id));
+    }
+
+    /**
+     * Get the status of a order from provided id.
+     * @param id must be not null and greater than zero.
+     * @return Order ID and its status.
+     */
+    public OrderResponseDTO findStatusById(Long id) {
+        Order order = orderRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("The order was not found with the given ID."));
+
+        if (!securityContextManager.checkSameUser(order.getUser().getId()))
+            throw new UserUnauthorizedException();
+
+        return new OrderResponseDTO(order.getId(), order.getStatus().name());
     }
 
     /**
@@ -85,50 +178,81 @@ public class OrderService {
         List<OrderItem> orderItems = new ArrayList<>();
 
         BigDecimal totalPrice = BigDecimal.ZERO;
+
+        // All requested quantities are decremented in a single guarded statement, or in memory by the engine
+        // If any line fails, the exception rolls back the decremented ones
+        Map<Long, Integer> quantities = request.items()
+            .stream()
+            .collect(Collectors.toMap(
+                OrderItemResquestDTO::idInventoryItem, 
+                OrderItemResquestDTO::quantity,
+                Integer::sum,
+                LinkedHashMap::new));
+        Map<Long, InventoryItemStock> stocks = reserveStocks(quantities)
+            .stream()
+            .collect(Collectors.toMap(InventoryItemStock::idInventoryItem, Function.identity()));
+
+        if (stocks.values().stream().anyMatch(stock -> !stock.found()))
+            throw new ResourceNotFoundException("The inventory item was not found with the given ID.");
+
+        List<Long> insufficientItems = stocks.values()
+            .stream()
+            .filter(stock -> !stock.reserved())
+            .map(InventoryItemStock::idInventoryItem)
+            .sorted()
+            .toList();
+        if (!insufficientItems.isEmpty())
+            throw new ResourceInsufficientException(
+                "The order exceeded the quantity in inventory. Inventory items: " + insufficientItems + ".");
         
         for (OrderItemResquestDTO itemDTO : request.items()) {
-            
-            InventoryItem item = inventoryItemRepository.findById(itemDTO.idInventoryItem())
-                .orElseThrow(() -> new ResourceNotFoundException("The inventory item was not found with the given ID."));
-        
-            if (item.getQuantity() < itemDTO.quantity())
-                throw new ResourceInsufficientException("The order exceeded the quantity in inventory.");
+            InventoryItemStock stock = stocks.get(itemDTO.idInventoryItem());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
-            orderItem.setItem(item);
+            orderItem.setItem(inventoryItemRepository.getReferenceById(itemDTO.idInventoryItem()));
             orderItem.setQuantity(itemDTO.quantity());
-            orderItem.setUnitPrice(item.getPrice());
-            
-            // Save the avaliable quantity of the item
-            // If any error occur, a rollback will happen in item's quantity
-            item.setQuantity(item.getQuantity() - itemDTO.quantity());
-            inventoryItemRepository.save(item);
-
-            totalPrice = totalPrice.add(item.getPrice().multiply(BigDecimal.valueOf(itemDTO.quantity())));
+            orderItem.setUnitPrice(stock.price());
+
+            totalPrice = totalPrice.add(stock.price().multiply(BigDecimal.valueOf(itemDTO.quantity())));
             orderItems.add(orderItem);
         }
 
-        OrderAddress billingAddress = addressMapper.apply(request.billingAddress());
-        billingAddress.setOrder(order);
-        billingAddress.setBillingAddress(Boolean.TRUE);
-        billingAddress.setDeliveryAddress(Boolean.FALSE);
-
-        OrderAddress deliveryAddress = addressMapper.apply(request.deliveryAddress());
-        deliveryAddress.setOrder(order);
-        deliveryAddress.setBillingAddress(Boolean.FALSE);
-        deliveryAddress.setDeliveryAddress(Boolean.TRUE);
-
-        order.setUser(securityContextManager.getUser());
-        order.setOrderAddresses(List.of(billingAddress, deliveryAddress));
+        // Only the foreign key is needed, so a reference is used instead of loading the user
+        order.setUser(userRepository.getReferenceById(securityContextManager.getUser().id()));
+        order.setOrderAddresses(mapAddresses(order, request));
         order.setOrderItems(orderItems);
         order.setStatus(OrderStatus.CONFIRMED);
         order.setTotalPrice(totalPrice);
 
+        // Initializes the referenced items with their products in one query, for the document
+        inventoryItemRepository.findAllWithProductByIdIn(quantities.keySet());
+
         Order persistedOrder = orderRepository.save(order);
+        saveDocument(persistedOrder);
         return new OrderResponseDTO(persistedOrder.getId(), persistedOrder.getStatus().name());
     }
 
+    /**
+     * Convert the shopping cart of the authenticated user into a new order, in a single transaction.
+     * The cart is read and cleared in one statement, then the order is created as in createOrder.
+     * If the order fails, the rollback gives the items back to the cart.
+     * @param request must be not null and already validated.
+     * @return New order ID and its status.
+     */
+    @Transactional
+    public OrderResponseDTO checkout(CheckoutRequestDTO request) {
+        List<OrderItemResquestDTO> items = shoppingCartItemRepository
+            .deleteAllByUserIdReturning(securityContextManager.getUser().id())
+            .stream()
+            .map(line -> new OrderItemResquestDTO(line.idInventoryItem(), line.quantity()))
+            .toList();
+        if (items.isEmpty())
+            throw new RequestValidationException("The shopping cart is empty.");
+
+        return createOrder(new OrderRequestDTO(items, request.billingAddress(), request.deliveryAddress()));
+    }
+
     /**
      * Cancel a existing order.
      * @param id must be not null and greater than zero.
@@ -145,16 +269,172 @@ public class OrderService {
         if (order.getStatus() == OrderStatus.CANCELED)
             throw new RequestValidationException("The order is already cancelled.");
 
-        for (OrderItem orderItem : order.getOrderItems()) {
-            // Save the avaliable quantity of the item
-            // If any error occur, a rollback will happen in item's quantity
-            InventoryItem item = orderItem.getItem();
-            item.setQuantity(item.getQuantity() + orderItem.getQuantity());
-            inventoryItemRepository.save(item);
-        }
+        if (order.getStatus() == OrderStatus.PENDING)
+            throw new RequestValidationException("The order is still being processed.");
+
+        if (order.getStatus() == OrderStatus.REJECTED)
+            throw new RequestValidationException("The order was rejected.");
+
+        // Give back the quantities of all items in a single statement, or in memory by the engine
+        // If any error occur, a rollback will happen in item's quantity
+        if (reservationEngine.isEnabled())
+            reservationEngine.release(order.getOrderItems()
+                .stream()
+                .collect(Collectors.toMap(
+                    orderItem -> orderItem.getItem().getId(), 
+                    OrderItem::getQuantity, 
+                    Integer::sum)));
+        else
+            inventoryItemRepository.restockByIdOrder(order.getId());
+        catalogCache.evictInventoryItems(order.getOrderItems()
+            .stream()
+            .map(orderItem -> orderItem.getItem().getId())
+            .toList());
 
         order.setStatus(OrderStatus.CANCELED);
         Order persistedOrder = orderRepository.save(order);
+        orderDocumentRepository.updateStatus(persistedOrder.getId(), persistedOrder.getStatus().name());
         return new OrderResponseDTO(persistedOrder.getId(), persistedOrder.getStatus().name());
     }
+
+    /**
+     * Accept a new order to be processed asynchronously. Only the order, its items and addresses are 
+     * persisted, in PENDING status; the stock is reserved later by processPendingOrder.
+     * @param request must be not null and already validated.
+     * @return New order ID and its status (PENDING).
+     */
+    @Transactional
+    public OrderResponseDTO createPendingOrder(OrderRequestDTO request) {
+        Order order = new Order();
+
+        Map<Long, InventoryItem> inventoryItems = inventoryItemRepository.findAllWithProductByIdIn(
+                request.items().stream().map(OrderItemResquestDTO::idInventoryItem).toList())
+            .stream()
+            .collect(Collectors.toMap(InventoryItem::getId, Function.identity()));
+        if (inventoryItems.size() < request.items().size())
+            throw new ResourceNotFoundException("The inventory item was not found with the given ID.");
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (OrderItemResquestDTO itemDTO : request.items()) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setItem(inventoryItems.get(itemDTO.idInventoryItem()));
+            orderItem.setQuantity(itemDTO.quantity());
+            orderItems.add(orderItem);
+        }
+
+        order.setUser(userRepository.getReferenceById(securityContextManager.getUser().id()));
+        order.setOrderAddresses(mapAddresses(order, request));
+        order.setOrderItems(orderItems);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalPrice(BigDecimal.ZERO);
+
+        Order persistedOrder = orderRepository.save(order);
+        saveDocument(persistedOrder);
+        return new OrderResponseDTO(persistedOrder.getId(), persistedOrder.getStatus().name());
+    }
+
+    /**
+     * Process a PENDING order in its own transaction, so a failure only rolls back this order.
+     * The order has its stock reserved and is CONFIRMED, or is REJECTED (with its partial reservation given back)
+     * if any of its items has insufficient quantity. An order no longer PENDING is skipped.
+     * @param id of the order.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void processPendingOrder(Long id) {
+        Order order = orderRepository.findAllWithItemsByIdInAndStatus(List.of(id), OrderStatus.PENDING)
+            .stream()
+            .findFirst()
+            .orElse(null);
+        if (order == null)
+            return;
+
+        Map<Long, Integer> quantities = order.getOrderItems()
+            .stream()
+            .collect(Collectors.toMap(
+                orderItem -> orderItem.getItem().getId(), 
+                OrderItem::getQuantity, 
+                Integer::sum,
+                LinkedHashMap::new));
+        Map<Long, InventoryItemStock> stocks = reserveStocks(quantities)
+            .stream()
+            .collect(Collectors.toMap(InventoryItemStock::idInventoryItem, Function.identity()));
+
+        if (stocks.values().stream().anyMatch(stock -> !stock.reserved())) {
+            // Only the guarded statement can leave a partial reservation, the engine is all or nothing
+            if (!reservationEngine.isEnabled()) {
+                Map<Long, Integer> reserved = stocks.values()
+                    .stream()
+                    .filter(InventoryItemStock::reserved)
+                    .collect(Collectors.toMap(InventoryItemStock::idInventoryItem, stock -> quantities.get(stock.idInventoryItem())));
+                inventoryItemRepository.incrementQuantities(reserved);
+            }
+            order.setStatus(OrderStatus.REJECTED);
+        } else {
+            BigDecimal totalPrice = BigDecimal.ZERO;
+            for (OrderItem orderItem : order.getOrderItems()) {
+                BigDecimal price = stocks.get(orderItem.getItem().getId()).price();
+                orderItem.setUnitPrice(price);
+                totalPrice = totalPrice.add(price.multiply(BigDecimal.valueOf(orderItem.getQuantity())));
+            }
+            order.setTotalPrice(totalPrice);
+            order.setStatus(OrderStatus.CONFIRMED);
+        }
+
+        // The document is rewritten with the final prices and status
+        orderRepository.fetchAddressesByIdIn(List.of(id));
+        OrderDocument document = orderDocumentRepository.findById(id).orElse(null);
+        if (document == null) {
+            saveDocument(order);
+            return;
+        }
+        document.setStatus(order.getStatus());
+        document.setDocument(orderMapper.apply(order));
+    }
+
+    /**
+     * Reject a PENDING order that could not be processed, in its own transaction, so its status is final.
+     * Nothing is given back, the failed attempts were rolled back. An order no longer PENDING is skipped.
+     * @param id of the order.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void rejectPendingOrder(Long id) {
+        Order order = orderRepository.findById(id).orElse(null);
+        if (order == null || order.getStatus() != OrderStatus.PENDING)
+            return;
+
+        order.setStatus(OrderStatus.REJECTED);
+        Order persistedOrder = orderRepository.save(order);
+        orderDocumentRepository.updateStatus(persistedOrder.getId(), persistedOrder.getStatus().name());
+    }
+
+    private void saveDocument(Order order) {
+        orderDocumentRepository.save(new OrderDocument(
+            order.getId(), 
+            order.getUser().getId(), 
+            order.getStatus(), 
+            orderMapper.apply(order)));
+    }
+
+    private List<InventoryItemStock> reserveStocks(Map<Long, Integer> quantities) {
+        // The cached items would show the quantities before the reservation
+        catalogCache.evictInventoryItems(quantities.keySet());
+        return reservationEngine.isEnabled()
+            ? reservationEngine.reserve(quantities)
+            : inventoryItemRepository.decrementQuantities(quantities);
+    }
+
+    private List<OrderAddress> mapAddresses(Order order, OrderRequestDTO request) {
+        OrderAddress billingAddress = addressMapper.apply(request.billingAddress());
+        billingAddress.setOrder(order);
+        billingAddress.setBillingAddress(Boolean.TRUE);
+        billingAddress.setDeliveryAddress(Boolean.FALSE);
+
+        OrderAddress deliveryAddress = addressMapper.apply(request.deliveryAddress());
+        deliveryAddress.setOrder(order);
+        deliveryAddress.setBillingAddress(Boolean.FALSE);
+        deliveryAddress.setDeliveryAddress(Boolean.TRUE);
+
+        return List.of(billingAddress, deliveryAddress);
+    }
 }
@@ -1,12 +1,22 @@
 package br.com.igormartinez.potygames.services;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
 
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.projection.Versioned;
 import br.com.igormartinez.potygames.data.request.ProductCreateDTO;
 import br.com.igormartinez.potygames.data.request.ProductUpdateDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
 import br.com.igormartinez.potygames.data.response.ProductDTO;
+import br.com.igormartinez.potygames.data.response.ProductSearchResultDTO;
+import br.com.igormartinez.potygames.data.response.SliceDTO;
+import br.com.igormartinez.potygames.enums.CountMode;
 import br.com.igormartinez.potygames.exceptions.DeleteAssociationConflictException;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceNotFoundException;
@@ -18,24 +28,33 @@ import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
 import br.com.igormartinez.potygames.repositories.ProductRepository;
 import br.com.igormartinez.potygames.repositories.ProductTypeRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.utils.CursorToken;
 
 @Service
 public class ProductService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_QUERY_LENGTH = 200;
     
     private final ProductRepository productRepository;
     private final ProductTypeRepository productTypeRepository;
     private final InventoryItemRepository inventoryItemRepository;
     private final ProductToProductDTOMapper productDTOMapper;
     private final SecurityContextManager securityContextManager;
+    private final CatalogCache catalogCache;
+    private final ProductTypeRegistry productTypeRegistry;
 
     public ProductService(ProductRepository productRepository, ProductTypeRepository productTypeRepository,
             InventoryItemRepository inventoryItemRepository, ProductToProductDTOMapper productDTOMapper,
-            SecurityContextManager securityContextManager) {
+            SecurityContextManager securityContextManager, CatalogCache catalogCache,
+            ProductTypeRegistry productTypeRegistry) {
         this.productRepository = productRepository;
         this.productTypeRepository = productTypeRepository;
         this.inventoryItemRepository = inventoryItemRepository;
         this.productDTOMapper = productDTOMapper;
         this.securityContextManager = securityContextManager;
+        this.catalogCache = catalogCache;
+        this.productTypeRegistry = productTypeRegistry;
     }
 
     public Page<ProductDTO> findAll(Pageable pageable) {
@@ -44,12 +63,98 @@ public class ProductService {
             .map(productDTOMapper);
     }
 
+    /**
+     * Get a page of the products, without count query.
+     * @param pageable
+     * @param count how the total is counted.
+     * @return
+     */
+    public SliceDTO<ProductDTO> findSlice(Pageable pageable, CountMode count) {
+        return SliceDTO.of(productRepository.findSliceDTO(pageable), count, 
+            productRepository::estimateCount, productRepository::count);
+    }
+
+    /**
+     * Search the products by name and description, ranked by relevance (keyset pagination).
+     * @param query must be not blank and have at most MAX_QUERY_LENGTH characters.
+     * @param rank rank of the last result of the previous page, null on the first page.
+     * @param cursor id of the last result of the previous page, null on the first page.
+     * @param size must be between 1 and MAX_PAGE_SIZE.
+     * @return List of the products of the page, from the most relevant.
+     */
+    public List<ProductSearchResultDTO> search(String query, Float rank, Long cursor, int size) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH)
+            throw new RequestValidationException("The query must have between 1 and " + MAX_QUERY_LENGTH + " characters.");
+
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new RequestValidationException("The size must be between 1 and " + MAX_PAGE_SIZE + ".");
+
+        if ((rank == null) != (cursor == null))
+            throw new RequestValidationException("The rank and the cursor must be provided together.");
+
+        return productRepository.search(query, rank, cursor, size);
+    }
+
+    /**
+     * Get a page of the products, using the id as cursor (keyset pagination), without count query.
+     * @param after token of the previous page, null on the first page.
+     * @param size must be between 1 and MAX_PAGE_SIZE.
+     * @param direction order of the ids on the first page, the next pages follow the token.
+     * @return
+     */
+    public CursorSliceDTO<ProductDTO> findAll(String after, int size, Direction direction) {
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new RequestValidationException("The size must be between 1 and " + MAX_PAGE_SIZE + ".");
+
+        CursorToken cursor = (after == null) 
+            ? new CursorToken(direction, direction.isDescending() ? Long.MAX_VALUE : 0L) 
+            : CursorToken.decode(after);
+
+        // One extra element tells if there is a next page
+        Pageable pageable = PageRequest.ofSize(size + 1);
+        List<ProductDTO> content = cursor.direction().isDescending()
+            ? productRepository.findAllDTOByIdBefore(cursor.id(), pageable)
+            : productRepository.findAllDTOByIdAfter(cursor.id(), pageable);
+
+        if (content.size() <= size)
+            return new CursorSliceDTO<>(content, size, false, null);
+
+        content = content.subList(0, size);
+        String next = new CursorToken(cursor.direction(), content.get(size - 1).id()).encode();
+        return new CursorSliceDTO<>(content, size, true, next);
+    }
+
     public ProductDTO findById(Long id) {
+        return findById(id, null).value();
+    }
+
+    /**
+     * Get a product and the version it was read with.
+     * @param id
+     * @param current current version of the product, or null to accept any cached version.
+     * @return
+     */
+    public Versioned<ProductDTO> findById(Long id, ResourceVersion current) {
         if (id == null || id <= 0)
             throw new RequestValidationException("The product-id must be a positive integer value.");
 
-        return productRepository.findById(id)
-            .map(productDTOMapper)
+        return catalogCache.getProduct(id, current, key -> productRepository.findById(key)
+            .map(product -> new Versioned<>(
+                productDTOMapper.apply(product), 
+                new ResourceVersion(product.getRowVersion(), product.getUpdatedAt())))
+            .orElseThrow(() -> new ResourceNotFoundException("The product was not found with the given ID.")));
+    }
+
+    /**
+     * Get the current version of a product, without loading it.
+     * @param id
+     * @return
+     */
+    public ResourceVersion findVersionById(Long id) {
+        if (id == null || id <= 0)
+            throw new RequestValidationException("The product-id must be a positive integer value.");
+
+        return productRepository.findVersionById(id)
             .orElseThrow(() -> new ResourceNotFoundException("The product was not found with the given ID."));
     }
 
@@ -57,8 +162,7 @@ public class ProductService {
         if(!securityContextManager.checkAdmin())
             throw new UserUnauthorizedException();
 
-        ProductType type = productTypeRepository.findById(productDTO.idProductType())
-            .orElseThrow(() -> new ResourceNotFoundException("The product type was not found with the given ID."));
+        ProductType type = getProductTypeReference(productDTO.idProductType());
 
         Product product = new Product();
         product.setType(type);
@@ -78,8 +182,7 @@ public class ProductService {
         if(!securityContextManager.checkAdmin())
             throw new UserUnauthorizedException();
 
-        ProductType type = productTypeRepository.findById(productDTO.idProductType())
-            .orElseThrow(() -> new ResourceNotFoundException("The product type was not found with the given ID."));
+        ProductType type = getProductTypeReference(productDTO.idProductType());
 
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("The product was not found with the given ID."));
@@ -88,7 +191,9 @@ public class ProductService {
         product.setName(productDTO.name());
         product.setDescription(productDTO.description());
 
-        return productDTOMapper.apply(productRepository.save(product));
+        ProductDTO updatedProduct = productDTOMapper.apply(productRepository.save(product));
+        catalogCache.evictProduct(id);
+        return updatedProduct;
     }
 
     public void delete(Long id) {
@@ -106,5 +211,14 @@ public class ProductService {
             throw new DeleteAssociationConflictException("The product cannot be removed because it is associated with inventory items.");
 
         productRepository.delete(product);
+        catalogCache.evictProduct(id);
+    }
+
+    private ProductType getProductTypeReference(Long idProductType) {
+        // The type is checked in the registry, so only its foreign key is written, without selecting it
+        if (!productTypeRegistry.contains(idProductType) && !productTypeRepository.existsById(idProductType))
+            throw new ResourceNotFoundException("The product type was not found with the given ID.");
+
+        return productTypeRepository.getReferenceById(idProductType);
     }
 }
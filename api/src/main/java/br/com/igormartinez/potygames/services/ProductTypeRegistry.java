@@ -0,0 +1,143 @@
+package br.com.igormartinez.potygames.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.projection.Versioned;
+import br.com.igormartinez.potygames.data.response.ProductTypeDTO;
+import br.com.igormartinez.potygames.mappers.ProductTypeToProductTypeDTOMapper;
+import br.com.igormartinez.potygames.models.ProductType;
+import br.com.igormartinez.potygames.repositories.ProductTypeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Always-resident in memory table of the product types.
+ *
+ * There are only a handful of types, so all of them are kept loaded, without eviction, and the products
+ * resolve their types here instead of joining or selecting product_types. The table is reloaded after the
+ * writes of the types and, to see the writes of other instances, when the version of product_types changes:
+ * checked periodically with a version-only query and by the conditional requests.
+ */
+@Service
+public class ProductTypeRegistry {
+
+    private final ProductTypeRepository repository;
+    private final ProductTypeToProductTypeDTOMapper mapper;
+    private final Counter reloadCounter;
+    private volatile Versioned<Map<Long, Versioned<ProductTypeDTO>>> productTypes;
+
+    public ProductTypeRegistry(ProductTypeRepository repository, ProductTypeToProductTypeDTOMapper mapper,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.reloadCounter = Counter.builder("catalog.product-types.reloads")
+            .register(meterRegistry);
+        Gauge.builder("catalog.product-types.size", this, ProductTypeRegistry::size)
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        getAll(null);
+    }
+
+    /**
+     * Get all product types by id, in the order of the repository, and the version of all of them.
+     * @param current current version of all product types, or null to accept the loaded version.
+     * @return unmodifiable map of the product types
+     */
+    public Versioned<Map<Long, Versioned<ProductTypeDTO>>> getAll(ResourceVersion current) {
+        Versioned<Map<Long, Versioned<ProductTypeDTO>>> loaded = productTypes;
+        if (loaded == null || (current != null && !current.equals(loaded.version())))
+            loaded = reload();
+        return loaded;
+    }
+
+    /**
+     * Get a product type of the loaded table.
+     * @param id
+     * @return the product type, or null if it is not loaded
+     */
+    public Versioned<ProductTypeDTO> get(Long id) {
+        return getAll(null).value().get(id);
+    }
+
+    public boolean contains(Long id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Discard the loaded table, e.g. after a write of a product type. The next read loads it again.
+     * Inside a transaction it is also discarded after its completion.
+     */
+    public void invalidate() {
+        discard();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    discard();
+                }
+            });
+        }
+    }
+
+    /**
+     * Reload the table if product_types was changed by another instance.
+     */
+    @Scheduled(fixedDelayString = "${catalog.product-types.refresh-interval:1m}")
+    public void refresh() {
+        Versioned<Map<Long, Versioned<ProductTypeDTO>>> loaded = productTypes;
+        if (loaded != null && !Objects.equals(loaded.version(), repository.findVersionOfAll()))
+            reload();
+    }
+
+    private synchronized Versioned<Map<Long, Versioned<ProductTypeDTO>>> reload() {
+        // The version is read first, so it is never newer than the types
+        ResourceVersion version = repository.findVersionOfAll();
+        Map<Long, Versioned<ProductTypeDTO>> loaded = repository.findAll()
+            .stream()
+            .map(this::toVersioned)
+            .collect(Collectors.collectingAndThen(
+                Collectors.toMap(
+                    productType -> productType.value().id(),
+                    Function.identity(),
+                    (a, b) -> a,
+                    LinkedHashMap::new),
+                Collections::unmodifiableMap));
+
+        productTypes = new Versioned<>(loaded, version);
+        reloadCounter.increment();
+        return productTypes;
+    }
+
+    // Synchronized with reload, so a reload in progress cannot bring back the discarded table
+    private synchronized void discard() {
+        productTypes = null;
+    }
+
+    private Versioned<ProductTypeDTO> toVersioned(ProductType productType) {
+        return new Versioned<>(
+            mapper.apply(productType),
+            new ResourceVersion(productType.getRowVersion(), productType.getUpdatedAt()));
+    }
+
+    private int size() {
+        Versioned<Map<Long, Versioned<ProductTypeDTO>>> loaded = productTypes;
+        return (loaded == null) ? 0 : loaded.value().size();
+    }
+}
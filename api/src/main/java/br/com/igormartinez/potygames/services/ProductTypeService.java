@@ -1,9 +1,12 @@
 package br.com.igormartinez.potygames.services;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
 
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.projection.Versioned;
 import br.com.igormartinez.potygames.data.request.ProductTypeCreateDTO;
 import br.com.igormartinez.potygames.data.request.ProductTypeUpdateDTO;
 import br.com.igormartinez.potygames.data.response.ProductTypeDTO;
@@ -24,28 +27,81 @@ public class ProductTypeService {
     private final ProductRepository productRepository;
     private final ProductTypeToProductTypeDTOMapper productTypeDTOMapper;
     private final SecurityContextManager securityContextManager;
+    private final ProductTypeRegistry productTypeRegistry;
 
     public ProductTypeService(ProductTypeRepository productTypeRepository, ProductRepository productRepository,
-            ProductTypeToProductTypeDTOMapper productTypeDTOMapper, SecurityContextManager securityContextManager) {
+            ProductTypeToProductTypeDTOMapper productTypeDTOMapper, SecurityContextManager securityContextManager,
+            ProductTypeRegistry productTypeRegistry) {
         this.productTypeRepository = productTypeRepository;
         this.productRepository = productRepository;
         this.productTypeDTOMapper = productTypeDTOMapper;
         this.securityContextManager = securityContextManager;
+        this.productTypeRegistry = productTypeRegistry;
     }
 
     public List<ProductTypeDTO> findAll() {
-        return productTypeRepository.findAll()
-            .stream()
-            .map(productTypeDTOMapper)
-            .toList();
+        return findAll(null).value();
+    }
+
+    /**
+     * Get all product types and the version of all of them.
+     * @param current current version of all product types, or null to accept any loaded version.
+     * @return
+     */
+    public Versioned<List<ProductTypeDTO>> findAll(ResourceVersion current) {
+        Versioned<Map<Long, Versioned<ProductTypeDTO>>> productTypes = productTypeRegistry.getAll(current);
+        return new Versioned<>(
+            productTypes.value().values().stream().map(Versioned::value).toList(), 
+            productTypes.version());
+    }
+
+    /**
+     * Get the current version of all product types, without loading them.
+     * @return
+     */
+    public ResourceVersion findVersionOfAll() {
+        return productTypeRepository.findVersionOfAll();
     }
 
     public ProductTypeDTO findById(Long id) {
+        return findById(id, null).value();
+    }
+
+    /**
+     * Get a product type and the version it was read with.
+     * @param id
+     * @param current current version of the product type, or null to accept any loaded version.
+     * @return
+     */
+    public Versioned<ProductTypeDTO> findById(Long id, ResourceVersion current) {
+        if (id == null || id <= 0)
+            throw new RequestValidationException("The product-type-id must be a positive integer value.");
+
+        Versioned<ProductTypeDTO> productType = productTypeRegistry.get(id);
+        if (productType != null && (current == null || current.equals(productType.version())))
+            return productType;
+
+        // The type was created or changed by another instance after the types were loaded
+        if (productType == null && !productTypeRepository.existsById(id))
+            throw new ResourceNotFoundException("The product type was not found with the given ID.");
+
+        productTypeRegistry.invalidate();
+        productType = productTypeRegistry.get(id);
+        if (productType == null)
+            throw new ResourceNotFoundException("The product type was not found with the given ID.");
+        return productType;
+    }
+
+    /**
+     * Get the current version of a product type, without loading it.
+     * @param id
+     * @return
+     */
+    public ResourceVersion findVersionById(Long id) {
         if (id == null || id <= 0)
             throw new RequestValidationException("The product-type-id must be a positive integer value.");
 
-        return productTypeRepository.findById(id)
-            .map(productTypeDTOMapper)
+        return productTypeRepository.findVersionById(id)
             .orElseThrow(() -> new ResourceNotFoundException("The product type was not found with the given ID."));
     }
 
@@ -57,7 +113,9 @@ public class ProductTypeService {
         productType.setKeyword(productTypeDTO.keyword());
         productType.setDescription(productTypeDTO.description());
 
-        return productTypeDTOMapper.apply(productTypeRepository.save(productType));
+        ProductTypeDTO createdProductType = productTypeDTOMapper.apply(productTypeRepository.save(productType));
+        productTypeRegistry.invalidate();
+        return createdProductType;
     }
 
     public ProductTypeDTO update(Long id, ProductTypeUpdateDTO productTypeDTO) {
@@ -76,7 +134,9 @@ public class ProductTypeService {
         productType.setKeyword(productTypeDTO.keyword());
         productType.setDescription(productTypeDTO.description());
 
-        return productTypeDTOMapper.apply(productTypeRepository.save(productType));
+        ProductTypeDTO updatedProductType = productTypeDTOMapper.apply(productTypeRepository.save(productType));
+        productTypeRegistry.invalidate();
+        return updatedProductType;
     }
 
     public void delete(Long id) {
@@ -93,5 +153,6 @@ public class ProductTypeService {
             throw new DeleteAssociationConflictException("The product type cannot be removed because it is associated with products.");
 
         productTypeRepository.delete(productType);
+        productTypeRegistry.invalidate();
     }
-} 
+}
@@ -1,40 +1,40 @@
 package br.com.igormartinez.potygames.services;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.igormartinez.potygames.data.projection.ShoppingCartItemInsert;
+import br.com.igormartinez.potygames.data.projection.ShoppingCartItemState;
+import br.com.igormartinez.potygames.data.request.ShoppingCartBatchRequestDTO;
 import br.com.igormartinez.potygames.data.request.ShoppingCartItemRequestDTO;
+import br.com.igormartinez.potygames.data.request.ShoppingCartOperationRequestDTO;
 import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
+import br.com.igormartinez.potygames.data.response.ShoppingCartOperationResponseDTO;
+import br.com.igormartinez.potygames.enums.ShoppingCartOperationType;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceAlreadyExistsException;
 import br.com.igormartinez.potygames.exceptions.ResourceNotFoundException;
 import br.com.igormartinez.potygames.exceptions.UserUnauthorizedException;
-import br.com.igormartinez.potygames.mappers.ShoppingCartItemEntityToDTOMapper;
-import br.com.igormartinez.potygames.models.InventoryItem;
 import br.com.igormartinez.potygames.models.ShoppingCartItem;
-import br.com.igormartinez.potygames.models.User;
-import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
 import br.com.igormartinez.potygames.repositories.ShoppingCartItemRepository;
-import br.com.igormartinez.potygames.repositories.UserRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
 
 @Service
 public class ShoppingCartService {
     private final ShoppingCartItemRepository repository;
-    private final InventoryItemRepository itemRepository;
-    private final UserRepository userRepository;
     private final SecurityContextManager securityContextManager;
-    private final ShoppingCartItemEntityToDTOMapper mapper;
 
-    public ShoppingCartService(ShoppingCartItemRepository repository, InventoryItemRepository itemRepository,
-            UserRepository userRepository, SecurityContextManager securityContextManager,
-            ShoppingCartItemEntityToDTOMapper mapper) {
+    public ShoppingCartService(ShoppingCartItemRepository repository, SecurityContextManager securityContextManager) {
         this.repository = repository;
-        this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
         this.securityContextManager = securityContextManager;
-        this.mapper = mapper;
     }
 
     /**
@@ -46,10 +46,7 @@ public class ShoppingCartService {
         if (!securityContextManager.checkSameUserOrAdmin(idUser))
             throw new UserUnauthorizedException();
 
-        return repository.findAllByUserId(idUser)
-            .stream()
-            .map(mapper)
-            .toList();
+        return repository.findAllResponseByUserId(idUser);
     }
 
     /**
@@ -62,21 +59,19 @@ public class ShoppingCartService {
         if (!securityContextManager.checkSameUserOrAdmin(idUser))
             throw new UserUnauthorizedException();
 
-        User user = userRepository.findById(idUser)
-            .orElseThrow(() -> new ResourceNotFoundException("The user was not found with the given ID."));
+        // Single statement: the unique user/item constraint replaces the exists check
+        ShoppingCartItemInsert insert = repository.insertItem(idUser, itemDTO.idInventoryItem(), itemDTO.quantity());
+
+        if (!insert.userFound())
+            throw new ResourceNotFoundException("The user was not found with the given ID.");
 
-        InventoryItem item = itemRepository.findById(itemDTO.idInventoryItem())
-            .orElseThrow(() -> new ResourceNotFoundException("The inventory item was not found with the given ID."));
+        if (!insert.itemFound())
+            throw new ResourceNotFoundException("The inventory item was not found with the given ID.");
             
-        if (repository.existsByUserIdAndItemId(idUser, itemDTO.idInventoryItem()))
+        if (insert.item() == null)
             throw new ResourceAlreadyExistsException("The inventory item was already add to the cart.");
-        
-        ShoppingCartItem shoppingCartItem = new ShoppingCartItem();
-        shoppingCartItem.setUser(user);
-        shoppingCartItem.setItem(item);
-        shoppingCartItem.setQuantity(itemDTO.quantity());
 
-        return mapper.apply(repository.save(shoppingCartItem));
+        return insert.item();
     }
 
     /**
@@ -95,12 +90,8 @@ public class ShoppingCartService {
         if (!securityContextManager.checkSameUserOrAdmin(idUser))
             throw new UserUnauthorizedException();
 
-        ShoppingCartItem shoppingCartItem = repository.findByUserIdAndItemId(idUser, idInventoryItem)
+        return repository.updateItemQuantity(idUser, idInventoryItem, itemDTO.quantity())
             .orElseThrow(() -> new ResourceNotFoundException("The inventory item was not added to the cart."));
-
-        shoppingCartItem.setQuantity(itemDTO.quantity());
-
-        return mapper.apply(repository.save(shoppingCartItem));
     }
 
     /**
@@ -117,4 +108,98 @@ public class ShoppingCartService {
 
         repository.delete(shoppingCartItem);
     }
+
+    /**
+     * Apply many add, update and remove operations in user's shopping cart, in a single transaction.
+     * Each operation is evaluated on its own: the valid ones are applied and the others are reported
+     * with the status they would have as a single request.
+     * @param idUser must be not null and greater than zero.
+     * @param batchDTO must be already validated.
+     * @return the result of each operation, in the request order
+     */
+    @Transactional
+    public List<ShoppingCartOperationResponseDTO> applyOperations(Long idUser, ShoppingCartBatchRequestDTO batchDTO) {
+        if (!securityContextManager.checkSameUserOrAdmin(idUser))
+            throw new UserUnauthorizedException();
+
+        for (ShoppingCartOperationRequestDTO operation : batchDTO.operations())
+            if (operation.type() != ShoppingCartOperationType.REMOVE && operation.quantity() == null)
+                throw new RequestValidationException("The quantity must be provided to add or update an item.");
+
+        // One query validates all inventory items and locks the ones already in the cart
+        Map<Long, ShoppingCartItemState> states = repository.findAllStateForUpdate(idUser, 
+                batchDTO.operations().stream().map(ShoppingCartOperationRequestDTO::idInventoryItem).toList())
+            .stream()
+            .collect(Collectors.toMap(ShoppingCartItemState::idInventoryItem, Function.identity()));
+
+        if (states.values().stream().anyMatch(state -> !state.userFound()))
+            throw new ResourceNotFoundException("The user was not found with the given ID.");
+
+        Map<Long, Integer> inserts = new LinkedHashMap<>();
+        Map<Long, Integer> updates = new LinkedHashMap<>();
+        List<Long> deletes = new ArrayList<>();
+        List<ShoppingCartOperationResponseDTO> results = new ArrayList<>();
+
+        for (ShoppingCartOperationRequestDTO operation : batchDTO.operations()) {
+            ShoppingCartItemState state = states.get(operation.idInventoryItem());
+
+            if (!state.itemFound()) {
+                results.add(result(operation, HttpStatus.NOT_FOUND, "The inventory item was not found with the given ID.", null));
+                continue;
+            }
+
+            switch (operation.type()) {
+                case ADD -> {
+                    if (state.inCart()) {
+                        results.add(result(operation, HttpStatus.CONFLICT, "The inventory item was already add to the cart.", null));
+                    } else {
+                        inserts.put(operation.idInventoryItem(), operation.quantity());
+                        results.add(result(operation, HttpStatus.OK, null, withQuantity(state.item(), operation.quantity())));
+                    }
+                }
+                case UPDATE -> {
+                    if (!state.inCart()) {
+                        results.add(result(operation, HttpStatus.NOT_FOUND, "The inventory item was not added to the cart.", null));
+                    } else {
+                        updates.put(operation.idInventoryItem(), operation.quantity());
+                        results.add(result(operation, HttpStatus.OK, null, withQuantity(state.item(), operation.quantity())));
+                    }
+                }
+                case REMOVE -> {
+                    if (!state.inCart()) {
+                        results.add(result(operation, HttpStatus.NOT_FOUND, "The inventory item was not added to the cart.", null));
+                    } else {
+                        deletes.add(operation.idInventoryItem());
+                        results.add(result(operation, HttpStatus.NO_CONTENT, null, null));
+                    }
+                }
+            }
+        }
+
+        repository.insertItems(idUser, inserts);
+        repository.updateItemQuantities(idUser, updates);
+        repository.deleteItems(idUser, deletes);
+
+        return results;
+    }
+
+    private static ShoppingCartOperationResponseDTO result(ShoppingCartOperationRequestDTO operation, HttpStatus status,
+            String message, ShoppingCartItemResponseDTO item) {
+        return new ShoppingCartOperationResponseDTO(
+            operation.type().name(), 
+            operation.idInventoryItem(), 
+            status.value(), 
+            message, 
+            item);
+    }
+
+    private static ShoppingCartItemResponseDTO withQuantity(ShoppingCartItemResponseDTO item, Integer quantity) {
+        return new ShoppingCartItemResponseDTO(
+            item.idInventoryItem(), 
+            item.name(), 
+            item.version(), 
+            item.condition(), 
+            item.price(), 
+            quantity);
+    }
 }
@@ -0,0 +1,62 @@
+package br.com.igormartinez.potygames.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.igormartinez.potygames.repositories.ShoppingCartItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Removal of the abandoned shopping carts.
+ *
+ * A cart is abandoned when none of its items changed within the TTL. Its items are deleted in bounded
+ * batches, each one in its own statement, skipping the rows locked by a concurrent write.
+ */
+@Service
+public class ShoppingCartSweeper {
+
+    private final ShoppingCartItemRepository repository;
+    private final Duration ttl;
+    private final int batchSize;
+    private final Counter sweptCounter;
+    private final Timer sweepTimer;
+
+    public ShoppingCartSweeper(
+            @Value("${shopping-cart.sweeper.ttl:30d}") Duration ttl,
+            @Value("${shopping-cart.sweeper.batch-size:500}") int batchSize,
+            ShoppingCartItemRepository repository,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.sweptCounter = Counter.builder("shopping-cart.sweeper.swept")
+            .register(meterRegistry);
+        this.sweepTimer = Timer.builder("shopping-cart.sweeper.duration")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Delete the items of the carts idle for longer than the TTL.
+     * @return the number of deleted items
+     */
+    @Scheduled(fixedDelayString = "${shopping-cart.sweeper.interval:1h}")
+    public int sweep() {
+        return sweepTimer.record(() -> {
+            LocalDateTime idleBefore = LocalDateTime.now().minus(ttl);
+            int swept = 0;
+            int deleted;
+            do {
+                deleted = repository.deleteIdleBatch(idleBefore, batchSize);
+                swept += deleted;
+                sweptCounter.increment(deleted);
+            } while (deleted == batchSize);
+            return swept;
+        });
+    }
+}
@@ -17,6 +17,7 @@ import br.com.igormartinez.potygames.mappers.UserToUserDTOMapper;
 import br.com.igormartinez.potygames.models.User;
 import br.com.igormartinez.potygames.repositories.UserRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.security.UserPrincipalCache;
 
 @Service
 public class UserService implements UserDetailsService {
@@ -24,14 +25,17 @@ public class UserService implements UserDetailsService {
     private final UserRepository repository;
     private final UserToUserDTOMapper userDTOMapper;
     private final SecurityContextManager securityContextManager;
+    private final UserPrincipalCache principalCache;
 
     public UserService(
             UserRepository repository, 
             UserToUserDTOMapper userDTOMapper,
-            SecurityContextManager securityContextManager) {
+            SecurityContextManager securityContextManager,
+            UserPrincipalCache principalCache) {
         this.repository = repository;
         this.userDTOMapper = userDTOMapper;
         this.securityContextManager = securityContextManager;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -87,6 +91,7 @@ public class UserService implements UserDetailsService {
             : userDTO.phoneNumber());
 
         User updatedUser = repository.save(user);
+        principalCache.evict(updatedUser.getEmail());
         return userDTOMapper.apply(updatedUser);
     }
 
@@ -101,5 +106,6 @@ public class UserService implements UserDetailsService {
             throw new ResourceNotFoundException("The user was not found with the given ID.");
         
         repository.deleteById(id);
+        principalCache.evict(id);
     }
 }
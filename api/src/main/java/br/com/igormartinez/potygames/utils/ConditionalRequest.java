@@ -0,0 +1,50 @@
+package br.com.igormartinez.potygames.utils;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.projection.Versioned;
+
+/**
+ * Conditional GET (If-None-Match, If-Modified-Since) of a versioned resource.
+ *
+ * A conditional request gets the current version first, with a version-only query, and is answered with 304
+ * without loading the resource when the client already has it. The response always carries the ETag and the
+ * Last-Modified of the returned body and asks the clients to revalidate it before each use.
+ */
+public final class ConditionalRequest {
+
+    private ConditionalRequest() {
+    }
+
+    /**
+     * @param request
+     * @param versionLoader gets the current version of the resource, used only by conditional requests.
+     * @param loader gets the resource in the given current version, or in any version if it is null.
+     * @return the resource, or null if the response is a 304
+     */
+    public static <T> T evaluate(ServletWebRequest request, Supplier<ResourceVersion> versionLoader,
+            Function<ResourceVersion, Versioned<T>> loader) {
+        if (request.getResponse() != null)
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+
+        ResourceVersion current = isConditional(request) ? versionLoader.get() : null;
+        if (current != null && request.checkNotModified(current.etag(), current.lastModified()))
+            return null;
+
+        Versioned<T> resource = loader.apply(current);
+        if (current == null)
+            request.checkNotModified(resource.version().etag(), resource.version().lastModified());
+        return resource.value();
+    }
+
+    private static boolean isConditional(ServletWebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+}
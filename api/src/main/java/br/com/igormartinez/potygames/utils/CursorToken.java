@@ -0,0 +1,40 @@
+package br.com.igormartinez.potygames.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort.Direction;
+
+import br.com.igormartinez.potygames.exceptions.RequestValidationException;
+
+/**
+ * Opaque token of keyset pagination: the sort direction and the id of the last element of a page.
+ * The client only passes it back to get the next page.
+ */
+public record CursorToken(Direction direction, Long id) {
+
+    public String encode() {
+        String value = (direction.isDescending() ? "d:" : "a:") + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token from {@link #encode()}.
+     * @param token
+     * @return
+     * @throws RequestValidationException if the token is invalid.
+     */
+    public static CursorToken decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            Direction direction = switch (value.substring(0, 2)) {
+                case "a:" -> Direction.ASC;
+                case "d:" -> Direction.DESC;
+                default -> throw new IllegalArgumentException();
+            };
+            return new CursorToken(direction, Long.valueOf(value.substring(2)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new RequestValidationException("The after token is invalid.");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+-- Read model of the orders: the detailed order as a single document, written in the order transaction.
+-- The items and addresses are a snapshot of the checkout, only the status changes afterwards
+CREATE TABLE order_documents (
+    id_order INTEGER NOT NULL,
+    id_user INTEGER NOT NULL,
+    status TEXT NOT NULL,
+    document JSONB NOT NULL,
+    PRIMARY KEY (id_order),
+    FOREIGN KEY (id_order) REFERENCES orders(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_order_documents_id_user_id_order ON order_documents (id_user, id_order);
+
+INSERT INTO order_documents (id_order, id_user, status, document)
+SELECT o.id, o.id_user, o.status, jsonb_build_object(
+    'id', o.id,
+    'status', o.status,
+    'totalPrice', o.total_price,
+    'items', (
+        SELECT jsonb_agg(jsonb_build_object(
+            'id', i.id,
+            'name', p.name,
+            'version', i.version,
+            'condition', i.condition,
+            'unitPrice', i.price,
+            'quantity', oi.quantity) ORDER BY oi.id)
+        FROM order_items oi 
+        JOIN inventory_items i ON i.id = oi.id_inventory_item 
+        JOIN products p ON p.id = i.id_product 
+        WHERE oi.id_order = o.id),
+    'billingAddress', (
+        SELECT jsonb_build_object(
+            'street', a.street,
+            'number', a.number,
+            'complement', a.complement,
+            'neighborhood', a.neighborhood,
+            'city', a.city,
+            'state', a.state,
+            'country', a.country,
+            'zipCode', a.zip_code)
+        FROM order_addresses a 
+        WHERE a.id_order = o.id AND a.billing_address 
+        ORDER BY a.id DESC 
+        LIMIT 1),
+    'deliveryAddress', (
+        SELECT jsonb_build_object(
+            'street', a.street,
+            'number', a.number,
+            'complement', a.complement,
+            'neighborhood', a.neighborhood,
+            'city', a.city,
+            'state', a.state,
+            'country', a.country,
+            'zipCode', a.zip_code)
+        FROM order_addresses a 
+        WHERE a.id_order = o.id AND a.delivery_address 
+        ORDER BY a.id DESC 
+        LIMIT 1))
+FROM orders o;
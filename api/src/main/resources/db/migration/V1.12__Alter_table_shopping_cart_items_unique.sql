@@ -0,0 +1,8 @@
+-- An inventory item can be only once in a user's cart. The duplicates left by concurrent adds are
+-- removed (the last one is kept) before the constraint, whose index also serves the lookups by user
+DELETE FROM shopping_cart_items c 
+USING shopping_cart_items d 
+WHERE c.id_user = d.id_user AND c.id_inventory_item = d.id_inventory_item AND c.id < d.id;
+
+ALTER TABLE shopping_cart_items 
+    ADD CONSTRAINT uk_shopping_cart_items_id_user_id_inventory_item UNIQUE (id_user, id_inventory_item);
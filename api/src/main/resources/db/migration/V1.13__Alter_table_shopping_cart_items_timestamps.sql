@@ -0,0 +1,6 @@
+-- The existing items get the migration time, so they are only swept one TTL after it
+ALTER TABLE shopping_cart_items 
+    ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT now(),
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE INDEX idx_shopping_cart_items_updated_at ON shopping_cart_items (updated_at);
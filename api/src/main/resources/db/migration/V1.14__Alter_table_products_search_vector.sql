@@ -0,0 +1,10 @@
+-- Full-text search of the products, in Portuguese and English. The name weighs more than the description
+ALTER TABLE products 
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese'::regconfig, coalesce(name, '')), 'A') || 
+        setweight(to_tsvector('english'::regconfig, coalesce(name, '')), 'A') || 
+        setweight(to_tsvector('portuguese'::regconfig, coalesce(description, '')), 'B') || 
+        setweight(to_tsvector('english'::regconfig, coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_products_search_vector ON products USING GIN (search_vector);
@@ -0,0 +1,37 @@
+-- The versions are kept by the database, so the bulk updates of the quantities also change them
+ALTER TABLE product_types 
+    ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+ALTER TABLE products 
+    ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+ALTER TABLE inventory_items 
+    ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE FUNCTION increment_row_version() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.row_version := OLD.row_version + 1;
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only an update that changes the row gets a new version
+CREATE TRIGGER trg_product_types_row_version BEFORE UPDATE ON product_types 
+    FOR EACH ROW 
+    WHEN ((OLD.key_word, OLD.description) IS DISTINCT FROM (NEW.key_word, NEW.description)) 
+    EXECUTE FUNCTION increment_row_version();
+
+CREATE TRIGGER trg_products_row_version BEFORE UPDATE ON products 
+    FOR EACH ROW 
+    WHEN ((OLD.type, OLD.name, OLD.description) IS DISTINCT FROM (NEW.type, NEW.name, NEW.description)) 
+    EXECUTE FUNCTION increment_row_version();
+
+CREATE TRIGGER trg_inventory_items_row_version BEFORE UPDATE ON inventory_items 
+    FOR EACH ROW 
+    WHEN ((OLD.id_product, OLD.version, OLD.condition, OLD.price, OLD.quantity) 
+        IS DISTINCT FROM (NEW.id_product, NEW.version, NEW.condition, NEW.price, NEW.quantity)) 
+    EXECUTE FUNCTION increment_row_version();
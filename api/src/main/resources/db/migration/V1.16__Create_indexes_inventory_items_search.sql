@@ -0,0 +1,5 @@
+-- Faceted search of the inventory: the items of a product, by condition and price range
+CREATE INDEX idx_inventory_items_product_condition_price ON inventory_items (id_product, condition, price);
+
+-- The search by product type finds the products of the type first
+CREATE INDEX idx_products_type ON products (type);
@@ -0,0 +1,3 @@
+-- Fingerprint of the request of the key, so a key reused with another request is refused.
+-- Null on the keys stored before, they expire with the TTL
+ALTER TABLE idempotency_keys ADD COLUMN request_hash TEXT;
@@ -0,0 +1,5 @@
+-- Pooled identifiers: Hibernate takes a block of 50 ids with a single nextval,
+-- so the inserts of an order, its items and addresses can be sent as JDBC batches
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_addresses_id_seq INCREMENT BY 50;
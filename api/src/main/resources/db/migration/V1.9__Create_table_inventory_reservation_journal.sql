@@ -0,0 +1,11 @@
+-- Write-behind journal of the in memory reservation engine.
+-- The rows are inserted in the order transaction and applied to inventory_items in batches,
+-- so the available quantity of an item is always quantity + SUM(delta) of its pending rows
+CREATE TABLE inventory_reservation_journal (
+    id BIGSERIAL,
+    id_inventory_item INTEGER NOT NULL,
+    delta INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id),
+    FOREIGN KEY (id_inventory_item) REFERENCES inventory_items(id) ON DELETE CASCADE
+);
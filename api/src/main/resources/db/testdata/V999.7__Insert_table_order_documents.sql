@@ -0,0 +1,10 @@
+INSERT INTO order_documents (id_order, id_user, status, document)
+VALUES
+(1, 2, 'CONFIRMED', '{"id": 1, "status": "CONFIRMED", "totalPrice": 29.99, 
+    "items": [{"id": 6, "name": "Samoa Joe - King of Television", "version": "Black", "condition": "New", "unitPrice": 29.99, "quantity": 1}], 
+    "billingAddress": {"street": "Brentwood", "number": "23825", "complement": "Alley", "neighborhood": "Phacelia racemosa (Kellogg) Brandegee", "city": "Paokmotong Utara", "state": "Lamprotornis nitens", "country": "Indonesia", "zipCode": "15447-382"}, 
+    "deliveryAddress": {"street": "Dakota", "number": "522", "complement": "Place", "neighborhood": "Asplenium platyneuron (L.) Britton, Sterns & Poggenb.", "city": "Lakhdenpokhya", "state": "Lycaon pictus", "country": "Russia", "zipCode": "86744-009"}}'),
+(2, 2, 'CANCELED', '{"id": 2, "status": "CANCELED", "totalPrice": 220.64, 
+    "items": [{"id": 5, "name": "Hikaru Shida - Shining Samurai Anime", "version": "Black", "condition": "New", "unitPrice": 29.99, "quantity": 1}, {"id": 1, "name": "Peaky Blinders: Birmingham Domain", "version": "CRU6WKLQA", "condition": "Sealed", "unitPrice": 190.65, "quantity": 1}], 
+    "billingAddress": {"street": "Dakota", "number": "522", "complement": "Place", "neighborhood": "Asplenium platyneuron (L.) Britton, Sterns & Poggenb.", "city": "Lakhdenpokhya", "state": "Lycaon pictus", "country": "Russia", "zipCode": "86744-009"}, 
+    "deliveryAddress": {"street": "Dakota", "number": "522", "complement": "Place", "neighborhood": "Asplenium platyneuron (L.) Britton, Sterns & Poggenb.", "city": "Lakhdenpokhya", "state": "Lycaon pictus", "country": "Russia", "zipCode": "86744-009"}}');
@@ -0,0 +1,140 @@
+package br.com.igormartinez.potygames.benchmarks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import br.com.igormartinez.potygames.mocks.MockUser;
+import br.com.igormartinez.potygames.models.User;
+import br.com.igormartinez.potygames.security.UserPrincipalCache;
+import br.com.igormartinez.potygames.security.jwt.JwtTokenFilter;
+import br.com.igormartinez.potygames.security.jwt.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Measures the authentication path of JwtTokenFilter (throughput and allocations per operation).
+ *
+ * The baseline reproduces the previous implementation: a new Algorithm and JWTVerifier built
+ * on every call and the token decoded twice (validation and authentication).
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.igormartinez.potygames.benchmarks.JwtTokenFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+
+    private static final String SECRET_KEY = "my-secret-key";
+
+    private JwtTokenProvider tokenProvider;
+    private JwtTokenFilter filter;
+    private UserPrincipalCache principalCache;
+    private UserDetailsService userDetailsService;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+    private String token;
+    private String encodedSecretKey;
+
+    @Setup
+    public void setup() {
+        User user = MockUser.mockEntity(2);
+        userDetailsService = username -> user;
+        principalCache = new UserPrincipalCache(Duration.ofMinutes(5), 1000, new SimpleMeterRegistry());
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(tokenProvider, "validInMilliseconds", 3600000L);
+        ReflectionTestUtils.setField(tokenProvider, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(tokenProvider, "principalCache", principalCache);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        filter = new JwtTokenFilter(tokenProvider);
+
+        encodedSecretKey = Base64.getEncoder().encodeToString(SECRET_KEY.getBytes());
+        Instant now = Instant.now();
+        token = JWT.create()
+            .withClaim("roles", List.of("ADMIN"))
+            .withIssuedAt(Date.from(now))
+            .withExpiresAt(Date.from(now.plus(1, ChronoUnit.DAYS)))
+            .withSubject(user.getEmail())
+            .sign(Algorithm.HMAC256(encodedSecretKey.getBytes()));
+
+        request = new MockHttpServletRequest("GET", "/api/v1/order");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> {};
+    }
+
+    @Benchmark
+    public void filterPath(Blackhole blackhole) throws Exception {
+        filter.doFilter(request, response, chain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void baselineDoubleDecode(Blackhole blackhole) {
+        String resolved = tokenProvider.resolveToken(request);
+
+        // validateToken
+        DecodedJWT validated = legacyDecode(resolved);
+        if (validated.getExpiresAt().before(new Date())) return;
+
+        // getAuthentication
+        DecodedJWT decodedJWT = legacyDecode(resolved);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(decodedJWT.getSubject());
+        blackhole.consume(userDetails);
+    }
+
+    private DecodedJWT legacyDecode(String token) {
+        Algorithm alg = Algorithm.HMAC256(encodedSecretKey.getBytes());
+        JWTVerifier verifier = JWT.require(alg).build();
+        return verifier.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JwtTokenFilterBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
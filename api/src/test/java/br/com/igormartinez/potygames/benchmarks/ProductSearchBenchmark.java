@@ -0,0 +1,147 @@
+package br.com.igormartinez.potygames.benchmarks;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.igormartinez.potygames.data.response.ProductSearchResultDTO;
+import br.com.igormartinez.potygames.repositories.ProductRepositoryCustomImpl;
+
+/**
+ * Measures the latency of ProductRepositoryCustomImpl.search over 100k generated products
+ * (p99 budget of 10 ms per page).
+ *
+ * The keyset predicate is on the computed ts_rank, so every page ranks and sorts all the
+ * matches of the query: a broad term (present in every product) costs the same on the
+ * first and on a deep page, and grows with the catalog, while a selective term stays cheap.
+ *
+ * Needs Docker (Testcontainers), so it does not run with the tests. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.igormartinez.potygames.benchmarks.ProductSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 50;
+    private static final double P99_BUDGET_MILLIS = 10.0;
+
+    // Each product has one of five names, "game" in every description and "edition" in half of them
+    private static final String SEED_PRODUCTS = """
+        INSERT INTO products (type, name, description)
+        SELECT ?,
+            (ARRAY['Dragon', 'Samurai', 'Wrestling', 'Blinders', 'Cassidy'])[1 + g % 5] || ' ' || g,
+            repeat('board game ', 1 + g % 3) ||
+                CASE WHEN g % 2 = 0 THEN 'deluxe edition ' ELSE 'classic box ' END || 'number ' || g
+        FROM generate_series(1, ?) g
+        """;
+
+    /**
+     * game: broad (every product), samurai: a fifth of the products, 4242: a single product.
+     */
+    @Param({"game", "samurai", "4242"})
+    private String query;
+
+    private PostgreSQLContainer<?> database;
+    private HikariDataSource dataSource;
+    private ProductRepositoryCustomImpl repository;
+    private ProductSearchResultDTO deepPageCursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new PostgreSQLContainer<>("postgres:15.3");
+        database.start();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(database.getJdbcUrl());
+        dataSource.setUsername(database.getUsername());
+        dataSource.setPassword(database.getPassword());
+
+        Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:/db/migration")
+            .load()
+            .migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Long type = jdbcTemplate.queryForObject(
+            "INSERT INTO product_types (key_word, description) VALUES ('BENCHMARK', 'Benchmark') RETURNING id",
+            Long.class);
+        jdbcTemplate.update(SEED_PRODUCTS, type, PRODUCTS);
+        jdbcTemplate.execute("ANALYZE products");
+
+        repository = new ProductRepositoryCustomImpl(jdbcTemplate);
+
+        // Walks to the last result before the deep page, as a client following the cursors
+        List<ProductSearchResultDTO> page = repository.search(query, null, null, PAGE_SIZE);
+        for (int i = 1; i < DEEP_PAGE && page.size() == PAGE_SIZE; i++) {
+            ProductSearchResultDTO last = page.get(page.size() - 1);
+            page = repository.search(query, last.rank(), last.id(), PAGE_SIZE);
+        }
+        deepPageCursor = page.isEmpty() ? null : page.get(page.size() - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+        database.stop();
+    }
+
+    @Benchmark
+    public List<ProductSearchResultDTO> firstPage() {
+        return repository.search(query, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ProductSearchResultDTO> deepPage() {
+        if (deepPageCursor == null)
+            return repository.search(query, null, null, PAGE_SIZE);
+
+        return repository.search(query, deepPageCursor.rank(), deepPageCursor.id(), PAGE_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ProductSearchBenchmark.class.getSimpleName())
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        for (RunResult result : results) {
+            double p99 = result.getPrimaryResult().getStatistics().getPercentile(99);
+            System.out.printf("%s query=%s p99=%.3f ms %s%n",
+                result.getParams().getBenchmark(),
+                result.getParams().getParam("query"),
+                p99,
+                p99 < P99_BUDGET_MILLIS ? "OK" : "OVER BUDGET");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.igormartinez.potygames.integrationtests.controllers;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.igormartinez.potygames.configs.TestConfigs;
+import br.com.igormartinez.potygames.data.projection.CatalogExportRow;
+import br.com.igormartinez.potygames.data.request.AccountCredentials;
+import br.com.igormartinez.potygames.data.response.APIErrorResponse;
+import br.com.igormartinez.potygames.data.security.Token;
+import br.com.igormartinez.potygames.integrationtests.testcontainers.AbstractIntegrationTest;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@TestMethodOrder(OrderAnnotation.class)
+public class CatalogControllerTest extends AbstractIntegrationTest {
+
+    private static RequestSpecification specification;
+
+    private static String signin(String email, String password) {
+        return given()
+            .basePath("/auth/signin")
+                .port(TestConfigs.SERVER_PORT)
+                .contentType(TestConfigs.CONTENT_TYPE_JSON)
+            .body(new AccountCredentials(email, password))
+                .when()
+            .post()
+                .then()
+                    .statusCode(HttpStatus.OK.value())
+                        .extract()
+                        .body()
+                            .as(Token.class)
+                                .getAccessToken();
+    }
+
+    @Test
+    @Order(0)
+    void testExportAsCustomer() {
+        String accessToken = signin(TestConfigs.USER_CUSTOMER_EMAIL, TestConfigs.USER_CUSTOMER_PASSWORD);
+
+        APIErrorResponse output =
+            given()
+                .basePath("/api/v1/catalog")
+                    .port(TestConfigs.SERVER_PORT)
+                    .header(TestConfigs.HEADER_PARAM_AUTHORIZATION, "Bearer " + accessToken)
+                .when()
+                    .get("/export")
+                .then()
+                    .statusCode(HttpStatus.UNAUTHORIZED.value())
+                        .extract()
+                            .body()
+                                .as(APIErrorResponse.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), output.status());
+        assertEquals("The user is not authorized to access this resource.", output.detail());
+    }
+
+    @Test
+    @Order(100)
+    void authenticationAsAdmin() {
+        String accessToken = signin(TestConfigs.USER_ADMIN_EMAIL, TestConfigs.USER_ADMIN_PASSWORD);
+
+        specification = new RequestSpecBuilder()
+            .addHeader(TestConfigs.HEADER_PARAM_AUTHORIZATION, "Bearer " + accessToken)
+            .setBasePath("/api/v1/catalog")
+            .setPort(TestConfigs.SERVER_PORT)
+            .build();
+    }
+
+    @Test
+    @Order(101)
+    void testExportAsNdjson() throws Exception {
+        String output =
+            given()
+                .spec(specification)
+                .queryParam("format", "ndjson")
+                .when()
+                    .get("/export")
+                .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .contentType("application/x-ndjson")
+                    .header("Content-Disposition", "attachment; filename=\"catalog.ndjson\"")
+                        .extract()
+                            .body()
+                                .asString();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<CatalogExportRow> rows = new ArrayList<>();
+        for (String line : output.split("\n"))
+            rows.add(objectMapper.readValue(line, CatalogExportRow.class));
+
+        // Every product of the test data, with or without inventory items
+        assertTrue(rows.size() >= 10);
+        for (int i = 1; i < rows.size(); i++)
+            assertTrue(rows.get(i - 1).product() <= rows.get(i).product());
+
+        CatalogExportRow item = rows.stream()
+            .filter(row -> Long.valueOf(2L).equals(row.inventoryItem()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(2L, item.product());
+        assertEquals(1L, item.productType());
+        assertEquals("board-game", item.productTypeKeyword());
+        assertEquals("Founders of Teotihuacan", item.name());
+        assertEquals("HLXKCCTW7", item.version());
+        assertEquals("Used", item.condition());
+    }
+
+    @Test
+    @Order(101)
+    void testExportAsCsv() {
+        String output =
+            given()
+                .spec(specification)
+                .queryParam("format", "csv")
+                .when()
+                    .get("/export")
+                .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .contentType("text/csv")
+                    .header("Content-Disposition", "attachment; filename=\"catalog.csv\"")
+                        .extract()
+                            .body()
+                                .asString();
+
+        String[] lines = output.split("\n");
+        assertEquals(
+            "product,product_type,product_type_keyword,name,description,inventory_item,version,condition,price,quantity",
+            lines[0]);
+        assertTrue(lines.length >= 11);
+        assertTrue(List.of(lines).stream().anyMatch(line -> line.startsWith("2,1,board-game,Founders of Teotihuacan,")
+            && line.contains(",2,HLXKCCTW7,Used,")));
+    }
+}
@@ -22,10 +22,14 @@ import br.com.igormartinez.potygames.data.request.AccountCredentials;
 import br.com.igormartinez.potygames.data.request.InventoryItemCreateDTO;
 import br.com.igormartinez.potygames.data.request.InventoryItemUpdateDTO;
 import br.com.igormartinez.potygames.data.response.APIErrorResponse;
+import br.com.igormartinez.potygames.data.response.FacetCountDTO;
 import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemSearchResultDTO;
+import br.com.igormartinez.potygames.data.response.PriceRangeCountDTO;
 import br.com.igormartinez.potygames.data.security.Token;
 import br.com.igormartinez.potygames.integrationtests.testcontainers.AbstractIntegrationTest;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.path.json.JsonPath;
 import io.restassured.specification.RequestSpecification;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
@@ -81,6 +85,110 @@ public class InventoryItemControllerTest extends AbstractIntegrationTest {
         assertEquals(2, outputPosition5.quantity());
     }
 
+    @Test
+    @Order(0)
+    void testFindSliceAsUnauthenticated() {
+        JsonPath output = 
+            given()
+				.basePath("/api/v1/inventory")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("size", 2)
+                    .queryParam("count", "exact")
+				.when()
+				    .get("/slice")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath();
+
+        List<InventoryItemDTO> content = output.getList("content", InventoryItemDTO.class);
+        assertEquals(2, content.size());
+        assertEquals(1L, content.get(0).id());
+        assertEquals(2L, content.get(1).id());
+        assertEquals(0, output.getInt("number"));
+        assertTrue(output.getBoolean("hasNext"));
+        assertEquals(6, output.getLong("totalElements"));
+        assertTrue(output.getBoolean("totalExact"));
+
+        output = 
+            given()
+				.basePath("/api/v1/inventory")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("size", 2)
+                    .queryParam("count", "none")
+				.when()
+				    .get("/slice")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath();
+
+        assertEquals(2, output.getList("content", InventoryItemDTO.class).size());
+        assertNull(output.get("totalElements"));
+    }
+
+    @Test
+    @Order(0)
+    void testFindSliceAsUnauthenticatedWithCountInvalid() {
+        APIErrorResponse output = 
+            given()
+				.basePath("/api/v1/inventory")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("count", "all")
+				.when()
+				    .get("/slice")
+				.then()
+					.statusCode(HttpStatus.BAD_REQUEST.value())
+						.extract()
+							.body()
+                                .as(APIErrorResponse.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), output.status());
+        assertEquals("The count must be none, approximate or exact.", output.detail());
+    }
+
+    @Test
+    @Order(0)
+    void testSearchAsUnauthenticated() {
+        InventoryItemSearchResultDTO output = 
+            given()
+				.basePath("/api/v1/inventory")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("product-type", 4)
+                    .queryParam("condition", "New")
+                    .queryParam("max-price", 50)
+                    .queryParam("size", 2)
+				.when()
+				    .get("/search")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .as(InventoryItemSearchResultDTO.class);
+
+        assertEquals(2, output.items().content().size());
+        assertEquals(3L, output.items().content().get(0).id());
+        assertEquals(4L, output.items().content().get(1).id());
+        assertTrue(output.items().hasNext());
+        assertNotNull(output.items().next());
+
+        assertEquals(List.of(new FacetCountDTO("New", 4L)), output.facets().conditions());
+        assertEquals(
+            List.of(new FacetCountDTO("Black", 2L), new FacetCountDTO("Orange", 1L), new FacetCountDTO("White", 1L)), 
+            output.facets().versions());
+        assertEquals(1, output.facets().prices().size());
+        PriceRangeCountDTO priceRange = output.facets().prices().get(0);
+        assertEquals(0, priceRange.min().compareTo(new BigDecimal("25")));
+        assertEquals(0, priceRange.max().compareTo(new BigDecimal("50")));
+        assertEquals(4L, priceRange.count());
+    }
+
     @Test
     @Order(0)
     void testFindByIdAsUnauthenticated() {
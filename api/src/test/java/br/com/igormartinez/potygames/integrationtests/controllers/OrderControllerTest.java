@@ -3,37 +3,46 @@ package br.com.igormartinez.potygames.integrationtests.controllers;
 import static io.restassured.RestAssured.given;
 import static org.junit.Assert.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 
 import br.com.igormartinez.potygames.configs.TestConfigs;
 import br.com.igormartinez.potygames.data.request.AccountCredentials;
+import br.com.igormartinez.potygames.data.request.CheckoutRequestDTO;
 import br.com.igormartinez.potygames.data.request.OrderAddressRequestDTO;
 import br.com.igormartinez.potygames.data.request.OrderItemResquestDTO;
 import br.com.igormartinez.potygames.data.request.OrderRequestDTO;
+import br.com.igormartinez.potygames.data.request.ShoppingCartItemRequestDTO;
 import br.com.igormartinez.potygames.data.request.UserRegistrationDTO;
 import br.com.igormartinez.potygames.data.response.APIErrorResponse;
 import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
 import br.com.igormartinez.potygames.data.response.OrderDetailResponseDTO;
 import br.com.igormartinez.potygames.data.response.OrderResponseDTO;
+import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
 import br.com.igormartinez.potygames.data.response.UserDTO;
 import br.com.igormartinez.potygames.data.security.Token;
 import br.com.igormartinez.potygames.integrationtests.testcontainers.AbstractIntegrationTest;
 import br.com.igormartinez.potygames.mocks.OrderMocker;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.path.json.JsonPath;
 import io.restassured.specification.RequestSpecification;
+import jakarta.persistence.EntityManagerFactory;
 
 /**
  * Test methodology:
@@ -62,6 +71,10 @@ public class OrderControllerTest extends AbstractIntegrationTest {
 	private static String CUSTOMER_PASSWORD = "securedpassword";
     private static String CUSTOMER_ACCESS_TOKEN;
     private static Long ORDER_ID; // testCreateAsAuthenticatedWithSuccess()
+    private static Long SECOND_ORDER_ID; // testCreateOrderAsAuthenticatedWithSuccessSecondTime()
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @BeforeAll
     void setup() {
@@ -423,7 +436,7 @@ public class OrderControllerTest extends AbstractIntegrationTest {
         assertEquals("about:blank", output.type());
         assertEquals("Conflict", output.title());
         assertEquals(HttpStatus.CONFLICT.value(), output.status());
-        assertEquals("The order exceeded the quantity in inventory.", output.detail());
+        assertEquals("The order exceeded the quantity in inventory. Inventory items: [5].", output.detail());
         assertEquals(BASE_PATH, output.instance());
 		assertNull(output.errors());
     }
@@ -481,8 +494,10 @@ public class OrderControllerTest extends AbstractIntegrationTest {
 						.extract()
 							.body()
                                 .as(OrderResponseDTO.class);
-        assertTrue(outputNewOrder.id() > 0);
+        assertTrue(outputNewOrder.id() > ORDER_ID);
         assertEquals("CONFIRMED", outputNewOrder.status());
+
+        SECOND_ORDER_ID = outputNewOrder.id();
     }
 
     @Test
@@ -737,7 +752,7 @@ public class OrderControllerTest extends AbstractIntegrationTest {
         OrderResponseDTO output =
             given()
                 .spec(specification)
-                    .pathParam("order-id", ORDER_ID+1)
+                    .pathParam("order-id", SECOND_ORDER_ID)
 				.when()
 				    .put("/{order-id}/cancel")
 				.then()
@@ -746,7 +761,7 @@ public class OrderControllerTest extends AbstractIntegrationTest {
 							.body()
                                 .as(OrderResponseDTO.class);
         
-        assertEquals(ORDER_ID+1, output.id());
+        assertEquals(SECOND_ORDER_ID, output.id());
         assertEquals("CANCELED", output.status());
     }
 
@@ -776,6 +791,17 @@ public class OrderControllerTest extends AbstractIntegrationTest {
     @Test
     @Order(140)
     void testFindAllAsAuthenticatedWithOrders() {
+        // A first request loads the principal of the token in its cache, so only the page is counted below
+        given()
+            .spec(specification)
+            .when()
+                .get()
+            .then()
+                .statusCode(HttpStatus.OK.value());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
         // Test findAll
         List<OrderDetailResponseDTO> output =
             given()
@@ -789,6 +815,10 @@ public class OrderControllerTest extends AbstractIntegrationTest {
                                 .getList(".", OrderDetailResponseDTO.class); 
         assertEquals(2, output.size());
 
+        // The orders are read from the order documents, whatever the number of orders and items
+        assertEquals(1, statistics.getPrepareStatementCount(), 
+            "Statements executed: " + statistics.getPrepareStatementCount());
+
         // Order position 0
         OrderDetailResponseDTO outputPosition0 = output.get(0);
         assertEquals(ORDER_ID, outputPosition0.id());
@@ -829,7 +859,7 @@ public class OrderControllerTest extends AbstractIntegrationTest {
 
         // Order position 1
         OrderDetailResponseDTO outputPosition1 = output.get(1);
-        assertEquals(ORDER_ID+1, outputPosition1.id());
+        assertEquals(SECOND_ORDER_ID, outputPosition1.id());
         assertEquals("CANCELED", outputPosition1.status());
         assertEquals(0, outputPosition1.totalPrice().compareTo(new BigDecimal("190.65")));
 
@@ -860,6 +890,122 @@ public class OrderControllerTest extends AbstractIntegrationTest {
         assertEquals("00000-001", outputPosition1.deliveryAddress().zipCode());
     }
 
+    @Test
+    @Order(141)
+    void testFindAllAsAuthenticatedWithCursor() {
+        JsonPath output =
+            given()
+                .spec(specification)
+                .queryParam("size", 1)
+                .queryParam("direction", "desc")
+                .when()
+                    .get("/scroll")
+                .then()
+                    .statusCode(HttpStatus.OK.value())
+                        .extract()
+                            .body()
+                                .jsonPath();
+
+        List<OrderDetailResponseDTO> content = output.getList("content", OrderDetailResponseDTO.class);
+        assertEquals(1, content.size());
+        assertEquals(SECOND_ORDER_ID, content.get(0).id());
+        assertTrue(output.getBoolean("hasNext"));
+
+        output =
+            given()
+                .spec(specification)
+                .queryParam("after", output.getString("next"))
+                .queryParam("size", 1)
+                .when()
+                    .get("/scroll")
+                .then()
+                    .statusCode(HttpStatus.OK.value())
+                        .extract()
+                            .body()
+                                .jsonPath();
+
+        content = output.getList("content", OrderDetailResponseDTO.class);
+        assertEquals(1, content.size());
+        assertEquals(ORDER_ID, content.get(0).id());
+        assertFalse(output.getBoolean("hasNext"));
+        assertNull(output.getString("next"));
+    }
+
+    @Test
+    @Order(150)
+    void testCheckoutAsAuthenticatedWithEmptyCart() {
+        CheckoutRequestDTO request = new CheckoutRequestDTO(
+            OrderMocker.mockAddressRequestDTO(1), OrderMocker.mockAddressRequestDTO(2));
+
+        APIErrorResponse output = 
+            given()
+                .spec(specification)
+                .body(request)
+                .when()
+                    .post("/checkout")
+                .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                        .extract()
+                            .as(APIErrorResponse.class);
+        
+        assertEquals("The shopping cart is empty.", output.detail());
+    }
+
+    @Test
+    @Order(160)
+    void testCheckoutAsAuthenticatedWithSuccess() {
+        given()
+            .basePath("/api/v1/user/" + CUSTOMER_ID + "/shopping-cart")
+                .port(TestConfigs.SERVER_PORT)
+                .contentType(TestConfigs.CONTENT_TYPE_JSON)
+                .header(TestConfigs.HEADER_PARAM_AUTHORIZATION, "Bearer " + CUSTOMER_ACCESS_TOKEN)
+                .body(new ShoppingCartItemRequestDTO(4L, 1))
+            .when()
+                .post()
+            .then()
+                .statusCode(HttpStatus.OK.value());
+
+        CheckoutRequestDTO request = new CheckoutRequestDTO(
+            OrderMocker.mockAddressRequestDTO(1), OrderMocker.mockAddressRequestDTO(2));
+
+        OrderResponseDTO output = 
+            given()
+                .spec(specification)
+                .body(request)
+                .when()
+                    .post("/checkout")
+                .then()
+                    .statusCode(HttpStatus.OK.value())
+                        .extract()
+                            .as(OrderResponseDTO.class);
+        assertTrue(output.id() > SECOND_ORDER_ID);
+        assertEquals("CONFIRMED", output.status());
+
+        // The cart was cleared with the checkout
+        List<ShoppingCartItemResponseDTO> cart = 
+            given()
+                .basePath("/api/v1/user/" + CUSTOMER_ID + "/shopping-cart")
+                    .port(TestConfigs.SERVER_PORT)
+                    .contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .header(TestConfigs.HEADER_PARAM_AUTHORIZATION, "Bearer " + CUSTOMER_ACCESS_TOKEN)
+                .when()
+                    .get()
+                .then()
+                    .statusCode(HttpStatus.OK.value())
+                        .extract()
+                            .jsonPath()
+                                .getList(".", ShoppingCartItemResponseDTO.class);
+        assertEquals(0, cart.size());
+
+        // Give back the item for the other tests
+        given()
+            .spec(specification)
+            .when()
+                .put("/{order-id}/cancel", output.id())
+            .then()
+                .statusCode(HttpStatus.OK.value());
+    }
+
     @Test
 	@Order(1000)
 	void removeUserTest() {
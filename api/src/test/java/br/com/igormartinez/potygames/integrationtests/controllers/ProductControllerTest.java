@@ -22,12 +22,14 @@ import br.com.igormartinez.potygames.data.request.ProductCreateDTO;
 import br.com.igormartinez.potygames.data.request.ProductUpdateDTO;
 import br.com.igormartinez.potygames.data.response.APIErrorResponse;
 import br.com.igormartinez.potygames.data.response.ProductDTO;
+import br.com.igormartinez.potygames.data.response.ProductSearchResultDTO;
 import br.com.igormartinez.potygames.data.security.Token;
 import br.com.igormartinez.potygames.integrationtests.testcontainers.AbstractIntegrationTest;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.filter.log.LogDetail;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.path.json.JsonPath;
 import io.restassured.specification.RequestSpecification;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
@@ -37,6 +39,7 @@ public class ProductControllerTest extends AbstractIntegrationTest {
     private static RequestSpecification specification;
 
     private static Long PRODUCT_ID;
+    private static String PRODUCT_ETAG;
 
     @Test
     @Order(0)
@@ -176,6 +179,159 @@ public class ProductControllerTest extends AbstractIntegrationTest {
 
     }
 
+    @Test
+    @Order(0)
+    void testFindSliceAsUnauthenticated() {
+        JsonPath output = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("size", 3)
+                    .queryParam("count", "exact")
+				.when()
+				    .get("/slice")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath();
+
+        List<ProductDTO> content = output.getList("content", ProductDTO.class);
+        assertEquals(3, content.size());
+        assertEquals(1L, content.get(0).id());
+        assertEquals(3L, content.get(2).id());
+        assertEquals(0, output.getInt("number"));
+        assertTrue(output.getBoolean("hasNext"));
+        assertEquals(9, output.getLong("totalElements"));
+        assertTrue(output.getBoolean("totalExact"));
+
+        output = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("size", 3)
+                    .queryParam("count", "none")
+				.when()
+				    .get("/slice")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath();
+
+        assertEquals(3, output.getList("content", ProductDTO.class).size());
+        assertNull(output.get("totalElements"));
+    }
+
+    @Test
+    @Order(0)
+    void testFindSliceAsUnauthenticatedWithCountInvalid() {
+        APIErrorResponse output = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("count", "all")
+				.when()
+				    .get("/slice")
+				.then()
+					.statusCode(HttpStatus.BAD_REQUEST.value())
+						.extract()
+							.body()
+                                .as(APIErrorResponse.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), output.status());
+        assertEquals("The count must be none, approximate or exact.", output.detail());
+    }
+
+    @Test
+    @Order(0)
+    void testFindAllByCursorAsUnauthenticated() {
+        JsonPath output = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("size", 3)
+				.when()
+				    .get("/scroll")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath();
+
+        List<ProductDTO> content = output.getList("content", ProductDTO.class);
+        assertEquals(3, content.size());
+        assertEquals(1L, content.get(0).id());
+        assertEquals(3L, content.get(2).id());
+        assertTrue(output.getBoolean("hasNext"));
+
+        List<ProductDTO> nextContent = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("size", 3)
+                    .queryParam("after", output.getString("next"))
+				.when()
+				    .get("/scroll")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath()
+                                    .getList("content", ProductDTO.class);
+
+        assertEquals(3, nextContent.size());
+        assertEquals(4L, nextContent.get(0).id());
+        assertEquals(6L, nextContent.get(2).id());
+    }
+
+    @Test
+    @Order(0)
+    void testSearchAsUnauthenticated() {
+        List<ProductSearchResultDTO> output = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("q", "crystal beasts")
+				.when()
+				    .get("/search")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath()
+                                    .getList("", ProductSearchResultDTO.class);
+
+        assertTrue(output.size() >= 1);
+        assertEquals(3L, output.get(0).id());
+        assertEquals("Structure Deck: Legend of the Crystal Beasts", output.get(0).name());
+
+        List<ProductSearchResultDTO> nextPage = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .queryParam("q", "crystal beasts")
+                    .queryParam("rank", output.get(output.size() - 1).rank())
+                    .queryParam("cursor", output.get(output.size() - 1).id())
+				.when()
+				    .get("/search")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath()
+                                    .getList("", ProductSearchResultDTO.class);
+
+        assertTrue(nextPage.stream().noneMatch(product -> product.id().equals(3L)));
+    }
+
     @Test
     @Order(0)
     void testFindByIdAsUnauthenticated() {
@@ -199,6 +355,41 @@ public class ProductControllerTest extends AbstractIntegrationTest {
         assertTrue(output.description().startsWith("Each Structure Deck: Legend"));
     }
 
+    @Test
+    @Order(0)
+    void testFindByIdAsUnauthenticatedWithIfNoneMatch() {
+        String etag = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .pathParam("product-id", 3)
+				.when()
+				    .get("/{product-id}")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.header("ETag");
+
+        String output = 
+            given()
+				.basePath("/api/v1/product")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+                    .header("If-None-Match", etag)
+                    .pathParam("product-id", 3)
+				.when()
+				    .get("/{product-id}")
+				.then()
+					.statusCode(HttpStatus.NOT_MODIFIED.value())
+                    .header("ETag", etag)
+						.extract()
+							.body()
+                                .asString();
+
+        assertTrue(output.isEmpty());
+    }
+
     @Test
     @Order(0)
     void testFindByIdAsUnauthenticatedWithParamIdInvalid() {
@@ -513,6 +704,21 @@ public class ProductControllerTest extends AbstractIntegrationTest {
         assertNull(output.errors());
     }
 
+    @Test
+    @Order(119)
+    void testFindByIdAsAdminBeforeUpdate() {
+        PRODUCT_ETAG =
+			given()
+				.spec(specification)
+                    .pathParam("product-id", PRODUCT_ID)
+				.when()
+					.get("/{product-id}")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.header("ETag");
+    }
+
     @Test
     @Order(120)
     void testUpdatAsAdmin() {
@@ -649,6 +855,26 @@ public class ProductControllerTest extends AbstractIntegrationTest {
         assertNull(output.errors());
     }
 
+    @Test
+    @Order(121)
+    void testFindByIdAsAdminWithIfNoneMatchAfterUpdate() {
+        ProductDTO output =
+			given()
+				.spec(specification)
+                    .header("If-None-Match", PRODUCT_ETAG)
+                    .pathParam("product-id", PRODUCT_ID)
+				.when()
+					.get("/{product-id}")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .as(ProductDTO.class);
+
+        assertEquals(PRODUCT_ID, output.id());
+        assertEquals("Product updated name 1", output.name());
+    }
+
     @Test
     @Order(130)
     void testDeleteAsAdminWithParamIdInvalid() {
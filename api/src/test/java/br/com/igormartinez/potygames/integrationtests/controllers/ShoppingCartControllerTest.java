@@ -17,12 +17,16 @@ import org.springframework.http.HttpStatus;
 
 import br.com.igormartinez.potygames.configs.TestConfigs;
 import br.com.igormartinez.potygames.data.request.AccountCredentials;
+import br.com.igormartinez.potygames.data.request.ShoppingCartBatchRequestDTO;
 import br.com.igormartinez.potygames.data.request.ShoppingCartItemRequestDTO;
+import br.com.igormartinez.potygames.data.request.ShoppingCartOperationRequestDTO;
 import br.com.igormartinez.potygames.data.request.UserRegistrationDTO;
 import br.com.igormartinez.potygames.data.response.APIErrorResponse;
 import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
+import br.com.igormartinez.potygames.data.response.ShoppingCartOperationResponseDTO;
 import br.com.igormartinez.potygames.data.response.UserDTO;
 import br.com.igormartinez.potygames.data.security.Token;
+import br.com.igormartinez.potygames.enums.ShoppingCartOperationType;
 import br.com.igormartinez.potygames.integrationtests.testcontainers.AbstractIntegrationTest;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.specification.RequestSpecification;
@@ -922,6 +926,45 @@ public class ShoppingCartControllerTest extends AbstractIntegrationTest {
 				.statusCode(HttpStatus.NO_CONTENT.value());
     }
 
+    @Test
+    @Order(240)
+    void testApplyOperationsAsAdmin() {
+        ShoppingCartBatchRequestDTO requestBody = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 1L, 2),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 9999L, 1),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.UPDATE, 2L, 1),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.REMOVE, 3L, null)));
+
+        List<ShoppingCartOperationResponseDTO> output = 
+            given()
+                .spec(specification)
+                    .pathParam("user-id", CUSTOMER_ID)
+                    .body(requestBody)
+				.when()
+				    .post("/{user-id}/shopping-cart/batch")
+				.then()
+					.statusCode(HttpStatus.OK.value())
+						.extract()
+							.body()
+                                .jsonPath()
+                                    .getList("", ShoppingCartOperationResponseDTO.class);
+
+        assertEquals(4, output.size());
+
+        assertEquals(200, output.get(0).status());
+        assertEquals("Peaky Blinders: Birmingham Domain", output.get(0).item().name());
+        assertEquals(2, output.get(0).item().quantity());
+
+        assertEquals(404, output.get(1).status());
+        assertEquals("The inventory item was not found with the given ID.", output.get(1).message());
+
+        assertEquals(404, output.get(2).status());
+        assertEquals("The inventory item was not added to the cart.", output.get(2).message());
+
+        assertEquals(404, output.get(3).status());
+        assertEquals("The inventory item was not added to the cart.", output.get(3).message());
+    }
+
     @Test
 	@Order(999)
 	void removeUserTest() {
@@ -7,6 +7,8 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import br.com.igormartinez.potygames.data.request.InventoryItemCreateDTO;
 import br.com.igormartinez.potygames.data.request.InventoryItemUpdateDTO;
@@ -88,6 +90,34 @@ public class InventoryItemMocker {
         return page;
     }
 
+    public static Page<InventoryItemDTO> mockDTOPage(int totalElements, Pageable pageable) {
+        int sizePage = pageable.getPageSize();
+        int numberPage = pageable.getPageNumber();
+
+        int startNumber = 1 + (sizePage * numberPage);
+        int endNumber = Math.min(totalElements, (numberPage + 1) * sizePage);
+        List<InventoryItemDTO> mockList = new ArrayList<>();
+        for (int i=startNumber; i<=endNumber; i++) {
+            mockList.add(mockDTOWithProduct(i));
+        }
+        
+        return new PageImpl<>(mockList, pageable, totalElements);
+    }
+
+    public static Slice<InventoryItemDTO> mockDTOSlice(int totalElements, Pageable pageable) {
+        int sizePage = pageable.getPageSize();
+        int numberPage = pageable.getPageNumber();
+
+        int startNumber = 1 + (sizePage * numberPage);
+        int endNumber = Math.min(totalElements, (numberPage + 1) * sizePage);
+        List<InventoryItemDTO> mockList = new ArrayList<>();
+        for (int i=startNumber; i<=endNumber; i++) {
+            mockList.add(mockDTOWithProduct(i));
+        }
+        
+        return new SliceImpl<>(mockList, pageable, endNumber < totalElements);
+    }
+
     public static InventoryItemDTO mockDTOWithProduct(int number) {
         return new InventoryItemDTO(
             Long.valueOf(number), 
@@ -6,6 +6,8 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import br.com.igormartinez.potygames.data.request.ProductCreateDTO;
 import br.com.igormartinez.potygames.data.request.ProductUpdateDTO;
@@ -103,4 +105,18 @@ public class ProductMocker {
         Page<Product> page = new PageImpl<>(mockList, pageable, totalElements);
         return page;
     }
+
+    public static Slice<ProductDTO> mockDTOSlice(int totalElements, Pageable pageable) {
+        int sizePage = pageable.getPageSize();
+        int numberPage = pageable.getPageNumber();
+
+        int startNumber = 1 + (sizePage * numberPage);
+        int endNumber = Math.min(totalElements, (numberPage + 1) * sizePage);
+        List<ProductDTO> mockList = new ArrayList<>();
+        for (int i=startNumber; i<=endNumber; i++) {
+            mockList.add(mockDTO(i));
+        }
+
+        return new SliceImpl<>(mockList, pageable, endNumber < totalElements);
+    }
 }
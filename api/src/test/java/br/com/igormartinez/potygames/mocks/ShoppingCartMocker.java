@@ -1,8 +1,10 @@
 package br.com.igormartinez.potygames.mocks;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
+import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
 import br.com.igormartinez.potygames.models.InventoryItem;
 import br.com.igormartinez.potygames.models.ShoppingCartItem;
 import br.com.igormartinez.potygames.models.User;
@@ -34,4 +36,22 @@ public class ShoppingCartMocker {
         }
         return list;
     }
+
+    public static ShoppingCartItemResponseDTO mockResponseDTO(int number) {
+        return new ShoppingCartItemResponseDTO(
+            Long.valueOf(number), 
+            "Product name " + number, 
+            "Version " + number, 
+            "Condition " + number, 
+            new BigDecimal(number + ".99"), 
+            number);
+    }
+
+    public static List<ShoppingCartItemResponseDTO> mockResponseDTOList(int number) {
+        List<ShoppingCartItemResponseDTO> list = new ArrayList<>();
+        for (int i=1; i<=number; i++) {
+            list.add(mockResponseDTO(i));
+        }
+        return list;
+    }
 }
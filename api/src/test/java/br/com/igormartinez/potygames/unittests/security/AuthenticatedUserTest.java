@@ -0,0 +1,60 @@
+package br.com.igormartinez.potygames.unittests.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.security.core.GrantedAuthority;
+
+import br.com.igormartinez.potygames.data.security.AuthenticatedUser;
+import br.com.igormartinez.potygames.enums.PermissionType;
+import br.com.igormartinez.potygames.mocks.MockUser;
+import br.com.igormartinez.potygames.models.User;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AuthenticatedUserTest {
+
+    @Test
+    void testFromWithAdmin() {
+        User user = MockUser.mockEntity(2);
+
+        AuthenticatedUser output = AuthenticatedUser.from(user);
+        assertEquals(2L, output.id());
+        assertEquals("user_mail2@test.com", output.email());
+        assertTrue(output.hasPermission(PermissionType.ADMIN));
+        assertFalse(output.hasPermission(PermissionType.CUSTOMER));
+    }
+
+    @Test
+    void testFromWithCustomer() {
+        User user = MockUser.mockEntity(1);
+
+        AuthenticatedUser output = AuthenticatedUser.from(user);
+        assertEquals(1L, output.id());
+        assertFalse(output.hasPermission(PermissionType.ADMIN));
+        assertTrue(output.hasPermission(PermissionType.CUSTOMER));
+    }
+
+    @Test
+    void testGetAuthorities() {
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "user_mail1@test.com",
+            PermissionType.ADMIN.getMask() | PermissionType.CUSTOMER.getMask());
+
+        List<String> output = principal.getAuthorities()
+            .stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList();
+        assertEquals(List.of("ADMIN", "CUSTOMER"), output);
+    }
+
+    @Test
+    void testGetAuthoritiesWithoutPermissions() {
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "user_mail1@test.com", 0);
+
+        assertTrue(principal.getAuthorities().isEmpty());
+    }
+}
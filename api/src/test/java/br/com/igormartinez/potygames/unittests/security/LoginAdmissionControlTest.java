@@ -0,0 +1,62 @@
+package br.com.igormartinez.potygames.unittests.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import br.com.igormartinez.potygames.exceptions.TooManyRequestsException;
+import br.com.igormartinez.potygames.security.LoginAdmissionControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LoginAdmissionControlTest {
+
+    private LoginAdmissionControl admissionControl;
+
+    @BeforeEach
+    void setup() {
+        admissionControl = new LoginAdmissionControl(
+            3, Duration.ofHours(1), 
+            5, Duration.ofHours(1), 
+            1000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testAdmitSigninExceedingAccountCapacity() {
+        for (int i = 0; i < 3; i++)
+            admissionControl.admitSignin("user@test.com", "10.0.0." + i);
+
+        Exception output = assertThrows(TooManyRequestsException.class, () -> {
+            admissionControl.admitSignin("USER@test.com ", "10.0.0.99");
+        });
+        String expectedMessage = "Too many attempts, try again later.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testAdmitSigninExceedingAddressCapacity() {
+        for (int i = 0; i < 5; i++)
+            admissionControl.admitSignin("user" + i + "@test.com", "10.0.0.1");
+
+        assertThrows(TooManyRequestsException.class, () -> {
+            admissionControl.admitSignin("other@test.com", "10.0.0.1");
+        });
+        assertDoesNotThrow(() -> admissionControl.admitSignin("other@test.com", "10.0.0.2"));
+    }
+
+    @Test
+    void testAdmitRefreshExceedingAddressCapacity() {
+        for (int i = 0; i < 5; i++)
+            admissionControl.admitRefresh("10.0.0.1");
+
+        assertThrows(TooManyRequestsException.class, () -> {
+            admissionControl.admitRefresh("10.0.0.1");
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.igormartinez.potygames.unittests.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import br.com.igormartinez.potygames.exceptions.ServiceUnavailableException;
+import br.com.igormartinez.potygames.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5), meterRegistry);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    // Submitted from another thread, since the caller blocks until the result
+    private void blockInPool() {
+        CompletableFuture.runAsync(() -> executor.encode(() -> {
+            release.await();
+            return "encoded";
+        }));
+    }
+
+    private void awaitGauges(double active, double queueDepth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge("password.hashing.active") != active || gauge("password.hashing.queue.depth") != queueDepth) {
+            assertTrue(System.nanoTime() < deadline, "The pool did not reach the expected state");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testGaugesRegistered() {
+        assertNotNull(meterRegistry.find("password.hashing.queue.depth").gauge());
+        assertNotNull(meterRegistry.find("password.hashing.active").gauge());
+        assertEquals(0.0, gauge("password.hashing.queue.depth"));
+        assertEquals(0.0, gauge("password.hashing.active"));
+    }
+
+    @Test
+    void testEncode() {
+        assertEquals("encoded", executor.encode(() -> "encoded"));
+        assertTrue(executor.matches(() -> Boolean.TRUE));
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testEncodeWithQueueFull() throws InterruptedException {
+        // The first task takes the only thread, the second one the only place in the queue
+        blockInPool();
+        awaitGauges(1, 0);
+        blockInPool();
+        awaitGauges(1, 1);
+
+        Exception output = assertThrows(ServiceUnavailableException.class, () -> {
+            executor.encode(() -> "encoded");
+        });
+        String expectedMessage = "The server is overloaded and cannot process the request now, try again later.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        awaitGauges(0, 0);
+    }
+
+    @Test
+    void testEncodeWithTimeout() throws InterruptedException {
+        executor.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(100), meterRegistry);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(ServiceUnavailableException.class, () -> {
+            executor.encode(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    interrupted.countDown();
+                }
+                return "encoded";
+            });
+        });
+
+        // The timed out task is cancelled, so it does not keep the thread
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        awaitGauges(0, 0);
+        assertEquals("encoded", executor.encode(() -> "encoded"));
+    }
+
+    @Test
+    void testEncodeWithTaskException() {
+        IllegalArgumentException exception = new IllegalArgumentException("Invalid password.");
+
+        Exception output = assertThrows(IllegalArgumentException.class, () -> {
+            executor.encode(() -> {
+                throw exception;
+            });
+        });
+        assertSame(exception, output);
+    }
+
+    @Test
+    void testMatchesWithTaskCheckedException() {
+        IOException exception = new IOException("Invalid hash.");
+
+        Exception output = assertThrows(IllegalStateException.class, () -> {
+            executor.matches(() -> {
+                throw exception;
+            });
+        });
+        assertSame(exception, output.getCause());
+    }
+}
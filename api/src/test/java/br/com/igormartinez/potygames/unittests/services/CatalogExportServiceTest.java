@@ -0,0 +1,127 @@
+package br.com.igormartinez.potygames.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.igormartinez.potygames.data.projection.CatalogExportRow;
+import br.com.igormartinez.potygames.enums.ExportFormat;
+import br.com.igormartinez.potygames.exceptions.UserUnauthorizedException;
+import br.com.igormartinez.potygames.repositories.ProductRepository;
+import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.services.CatalogExportService;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class CatalogExportServiceTest {
+
+    private static final List<CatalogExportRow> ROWS = List.of(
+        new CatalogExportRow(1L, 2L, "card-game", "Dawn of Majesty", "Booster Box, \"24 packs\"",
+            3L, "1st Edition", "Near Mint", new BigDecimal("49.90"), 5),
+        new CatalogExportRow(2L, 2L, "card-game", "Cyberstorm Access", null,
+            null, null, null, null, null));
+
+    private CatalogExportService service;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private SecurityContextManager securityContextManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        service = new CatalogExportService(
+            500,
+            productRepository,
+            securityContextManager,
+            transactionManager,
+            new ObjectMapper()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockCatalog() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            Consumer<CatalogExportRow> consumer = invocation.getArgument(1);
+            ROWS.forEach(consumer);
+            return null;
+        }).when(productRepository).streamCatalog(eq(500), any(Consumer.class));
+    }
+
+    private String write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        body.writeTo(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testExportWithoutPermission() {
+        when(securityContextManager.checkAdmin()).thenReturn(Boolean.FALSE);
+
+        Exception output = assertThrows(UserUnauthorizedException.class, () -> {
+            service.export(ExportFormat.NDJSON);
+        });
+        String expectedMessage = "The user is not authorized to access this resource.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+        verify(productRepository, never()).streamCatalog(any(Integer.class), any());
+    }
+
+    @Test
+    void testExportAsNdjson() throws IOException {
+        when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
+        mockCatalog();
+
+        String output = write(service.export(ExportFormat.NDJSON));
+        String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(output.endsWith("\n"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(ROWS.get(0), objectMapper.readValue(lines[0], CatalogExportRow.class));
+        assertEquals(ROWS.get(1), objectMapper.readValue(lines[1], CatalogExportRow.class));
+    }
+
+    @Test
+    void testExportAsCsv() throws IOException {
+        when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
+        mockCatalog();
+
+        String output = write(service.export(ExportFormat.CSV));
+        assertEquals(
+            "product,product_type,product_type_keyword,name,description,inventory_item,version,condition,price,quantity\n"
+                + "1,2,card-game,Dawn of Majesty,\"Booster Box, \"\"24 packs\"\"\",3,1st Edition,Near Mint,49.90,5\n"
+                + "2,2,card-game,Cyberstorm Access,,,,,,\n",
+            output);
+    }
+}
@@ -0,0 +1,273 @@
+package br.com.igormartinez.potygames.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.igormartinez.potygames.data.request.OrderItemResquestDTO;
+import br.com.igormartinez.potygames.data.request.OrderRequestDTO;
+import br.com.igormartinez.potygames.data.response.OrderResponseDTO;
+import br.com.igormartinez.potygames.data.security.AuthenticatedUser;
+import br.com.igormartinez.potygames.enums.IdempotentOperation;
+import br.com.igormartinez.potygames.exceptions.IdempotencyKeyMismatchException;
+import br.com.igormartinez.potygames.exceptions.RequestValidationException;
+import br.com.igormartinez.potygames.exceptions.ResourceInsufficientException;
+import br.com.igormartinez.potygames.mocks.MockUser;
+import br.com.igormartinez.potygames.models.IdempotencyKey;
+import br.com.igormartinez.potygames.repositories.IdempotencyKeyRepository;
+import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.services.IdempotencyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    private static final OrderRequestDTO REQUEST =
+        new OrderRequestDTO(List.of(new OrderItemResquestDTO(1L, 2)), null, null);
+    private static final OrderRequestDTO OTHER_REQUEST =
+        new OrderRequestDTO(List.of(new OrderItemResquestDTO(1L, 3)), null, null);
+
+    private IdempotencyService service;
+    private MockUser userMocker;
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    @Mock
+    private SecurityContextManager securityContextManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        userMocker = new MockUser();
+        service = new IdempotencyService(Duration.ofHours(24), 100, Duration.ofSeconds(5),
+            repository, securityContextManager, transactionManager, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testExecuteWithoutKey() {
+        AtomicInteger executions = new AtomicInteger();
+
+        OrderResponseDTO output = service.execute(null, IdempotentOperation.CREATE_ORDER, null, REQUEST, () -> {
+            executions.incrementAndGet();
+            return new OrderResponseDTO(1L, "PAYMENT_PENDING");
+        });
+        assertEquals(1L, output.id());
+        assertEquals(1, executions.get());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testExecuteWithInvalidKey() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.execute(" ", IdempotentOperation.CREATE_ORDER, null, REQUEST, () -> new OrderResponseDTO(1L, "PAYMENT_PENDING"));
+        });
+        assertEquals("The Idempotency-Key must have between 1 and 255 characters.", output.getMessage());
+
+        output = assertThrows(RequestValidationException.class, () -> {
+            service.execute("k".repeat(256), IdempotentOperation.CREATE_ORDER, null, REQUEST, () -> new OrderResponseDTO(1L, "PAYMENT_PENDING"));
+        });
+        assertEquals("The Idempotency-Key must have between 1 and 255 characters.", output.getMessage());
+    }
+
+    @Test
+    void testExecuteRetryReplaysResult() {
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CREATE_ORDER, "key-1"))
+            .thenReturn(Optional.empty());
+        AtomicInteger executions = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            OrderResponseDTO output = service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, REQUEST, () -> {
+                executions.incrementAndGet();
+                return new OrderResponseDTO(7L, "PAYMENT_PENDING");
+            });
+            assertEquals(7L, output.id());
+            assertEquals("PAYMENT_PENDING", output.status());
+        }
+
+        assertEquals(1, executions.get());
+        verify(repository, times(1)).saveAndFlush(any(IdempotencyKey.class));
+    }
+
+    @Test
+    void testExecuteReplaysStoredKey() {
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        IdempotencyKey stored = new IdempotencyKey();
+        stored.setIdOrder(7L);
+        stored.setStatus("CANCELED");
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CANCEL_ORDER, "key-1"))
+            .thenReturn(Optional.of(stored));
+
+        OrderResponseDTO output = service.execute("key-1", IdempotentOperation.CANCEL_ORDER, 7L, null, () -> {
+            throw new IllegalStateException("Must not be executed");
+        });
+        assertEquals(7L, output.id());
+        assertEquals("CANCELED", output.status());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testExecuteWithDifferentRequest() {
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CREATE_ORDER, "key-1"))
+            .thenReturn(Optional.empty());
+
+        service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, REQUEST,
+            () -> new OrderResponseDTO(7L, "PAYMENT_PENDING"));
+
+        Exception output = assertThrows(IdempotencyKeyMismatchException.class, () -> {
+            service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, OTHER_REQUEST, () -> {
+                throw new IllegalStateException("Must not be executed");
+            });
+        });
+        assertEquals("The Idempotency-Key was already used in a different request.", output.getMessage());
+        verify(repository, times(1)).saveAndFlush(any(IdempotencyKey.class));
+    }
+
+    @Test
+    void testExecuteWithDifferentRequestOfStoredKey() {
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CREATE_ORDER, "key-1"))
+            .thenReturn(Optional.empty());
+
+        service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, REQUEST,
+            () -> new OrderResponseDTO(7L, "PAYMENT_PENDING"));
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(repository).saveAndFlush(captor.capture());
+        IdempotencyKey stored = captor.getValue();
+        assertEquals(64, stored.getRequestHash().length());
+
+        // Another instance, without the result in its cache
+        setup();
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CREATE_ORDER, "key-1"))
+            .thenReturn(Optional.of(stored));
+
+        OrderResponseDTO output = service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, REQUEST, () -> {
+            throw new IllegalStateException("Must not be executed");
+        });
+        assertEquals(7L, output.id());
+
+        Exception exception = assertThrows(IdempotencyKeyMismatchException.class, () -> {
+            service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, OTHER_REQUEST, () -> {
+                throw new IllegalStateException("Must not be executed");
+            });
+        });
+        assertEquals("The Idempotency-Key was already used in a different request.", exception.getMessage());
+    }
+
+    @Test
+    void testExecuteWithKeyOfAnotherOrder() {
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CANCEL_ORDER, "key-1"))
+            .thenReturn(Optional.empty());
+
+        service.execute("key-1", IdempotentOperation.CANCEL_ORDER, 7L, null, () -> new OrderResponseDTO(7L, "CANCELED"));
+
+        Exception output = assertThrows(IdempotencyKeyMismatchException.class, () -> {
+            service.execute("key-1", IdempotentOperation.CANCEL_ORDER, 8L, null, () -> new OrderResponseDTO(8L, "CANCELED"));
+        });
+        assertEquals("The Idempotency-Key was already used in a different request.", output.getMessage());
+    }
+
+    @Test
+    void testExecuteWithStoredKeyWithoutHashOfAnotherOrder() {
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        IdempotencyKey stored = new IdempotencyKey();
+        stored.setIdOrder(7L);
+        stored.setStatus("CANCELED");
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CANCEL_ORDER, "key-1"))
+            .thenReturn(Optional.of(stored));
+
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.execute("key-1", IdempotentOperation.CANCEL_ORDER, 8L, null, () -> new OrderResponseDTO(8L, "CANCELED"));
+        });
+        assertEquals("The Idempotency-Key was already used in a request for another order.", output.getMessage());
+    }
+
+    @Test
+    void testExecuteFailureIsNotStored() {
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CREATE_ORDER, "key-1"))
+            .thenReturn(Optional.empty());
+
+        assertThrows(ResourceInsufficientException.class, () -> {
+            service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, REQUEST, () -> {
+                throw new ResourceInsufficientException("The order exceeded the quantity in inventory.");
+            });
+        });
+
+        // The same key can be used again after a failure
+        OrderResponseDTO output = service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, REQUEST,
+            () -> new OrderResponseDTO(7L, "PAYMENT_PENDING"));
+        assertEquals(7L, output.id());
+        verify(repository, times(1)).saveAndFlush(any(IdempotencyKey.class));
+    }
+
+    @Test
+    void testExecuteConcurrentDuplicatesRunOnce() throws Exception {
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(userMocker.mockUser(1)));
+        when(repository.findByIdUserAndOperationAndIdempotencyKey(1L, IdempotentOperation.CREATE_ORDER, "key-1"))
+            .thenReturn(Optional.empty());
+
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<OrderResponseDTO> first = executor.submit(() ->
+            service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, REQUEST, () -> {
+                executions.incrementAndGet();
+                executing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return new OrderResponseDTO(7L, "PAYMENT_PENDING");
+            }));
+
+        executing.await(5, TimeUnit.SECONDS);
+        Future<OrderResponseDTO> duplicate = executor.submit(() ->
+            service.execute("key-1", IdempotentOperation.CREATE_ORDER, null, REQUEST, () -> {
+                executions.incrementAndGet();
+                return new OrderResponseDTO(8L, "PAYMENT_PENDING");
+            }));
+        release.countDown();
+
+        assertEquals(7L, first.get(5, TimeUnit.SECONDS).id());
+        assertEquals(7L, duplicate.get(5, TimeUnit.SECONDS).id());
+        assertEquals(1, executions.get());
+        executor.shutdown();
+    }
+}
@@ -1,16 +1,21 @@
 package br.com.igormartinez.potygames.unittests.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -24,12 +29,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort;
 
 import br.com.igormartinez.potygames.data.request.InventoryItemCreateDTO;
+import br.com.igormartinez.potygames.data.request.InventoryItemFilterDTO;
 import br.com.igormartinez.potygames.data.request.InventoryItemUpdateDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
+import br.com.igormartinez.potygames.data.response.FacetCountDTO;
 import br.com.igormartinez.potygames.data.response.InventoryItemDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemFacetsDTO;
+import br.com.igormartinez.potygames.data.response.InventoryItemSearchResultDTO;
+import br.com.igormartinez.potygames.data.response.PriceRangeCountDTO;
+import br.com.igormartinez.potygames.data.response.SliceDTO;
+import br.com.igormartinez.potygames.enums.CountMode;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceNotFoundException;
 import br.com.igormartinez.potygames.exceptions.UserUnauthorizedException;
@@ -39,7 +53,11 @@ import br.com.igormartinez.potygames.models.InventoryItem;
 import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
 import br.com.igormartinez.potygames.repositories.ProductRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.services.CatalogCache;
 import br.com.igormartinez.potygames.services.InventoryItemService;
+import br.com.igormartinez.potygames.services.InventoryReservationEngine;
+import br.com.igormartinez.potygames.utils.CursorToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @TestInstance(Lifecycle.PER_CLASS)
 @ExtendWith(MockitoExtension.class)
@@ -56,22 +74,30 @@ public class InventoryItemServiceTest {
     @Mock
     private SecurityContextManager securityContextManager;
 
+    @Mock
+    private InventoryReservationEngine reservationEngine;
+
+    private CatalogCache catalogCache;
+
     @BeforeEach
     void setup() {
+        catalogCache = new CatalogCache(Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
         service = new InventoryItemService(
             repository,
             productRepository,
             new InventoryItemToInventoryItemDTOMapper(),
-            securityContextManager
+            securityContextManager,
+            reservationEngine,
+            catalogCache
         );
     }
 
     @Test
     void testFindAllWithProductsPage0() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Direction.ASC, "id"));
-        Page<InventoryItem> page = InventoryItemMocker.mockPage(94, pageable);
+        Page<InventoryItemDTO> page = InventoryItemMocker.mockDTOPage(94, pageable);
 
-        when(repository.findAll(pageable)).thenReturn(page);
+        when(repository.findAllDTO(pageable)).thenReturn(page);
 
         Page<InventoryItemDTO> outputPage = service.findAll(pageable);
         assertEquals(0, outputPage.getNumber());
@@ -111,9 +137,9 @@ public class InventoryItemServiceTest {
     @Test
     void testFindAllWithProductsPage9() {
         Pageable pageable = PageRequest.of(9, 10, Sort.by(Direction.ASC, "name"));
-        Page<InventoryItem> page = InventoryItemMocker.mockPage(94, pageable);
+        Page<InventoryItemDTO> page = InventoryItemMocker.mockDTOPage(94, pageable);
 
-        when(repository.findAll(pageable)).thenReturn(page);
+        when(repository.findAllDTO(pageable)).thenReturn(page);
 
         Page<InventoryItemDTO> outputPage = service.findAll(pageable);
         assertEquals(9, outputPage.getNumber());
@@ -142,6 +168,198 @@ public class InventoryItemServiceTest {
         assertEquals(94, outputPosition3.quantity());
     }
 
+    @Test
+    void testFindSliceWithProductsPage0() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Direction.ASC, "id"));
+        Slice<InventoryItemDTO> slice = InventoryItemMocker.mockDTOSlice(94, pageable);
+
+        when(repository.findSliceDTO(pageable)).thenReturn(slice);
+        when(repository.estimateCount()).thenReturn(97L);
+
+        SliceDTO<InventoryItemDTO> outputPage = service.findSlice(pageable, CountMode.APPROXIMATE);
+        assertEquals(0, outputPage.number());
+        assertEquals(10, outputPage.size());
+        assertEquals(97L, outputPage.totalElements());
+        assertFalse(outputPage.totalExact());
+
+        List<InventoryItemDTO> output = outputPage.content();
+        assertNotNull(output);
+        assertEquals(10, output.size());
+
+        InventoryItemDTO outputPosition0 = output.get(0);
+        assertEquals(1L, outputPosition0.id());
+        assertEquals(1L, outputPosition0.product());
+        assertEquals("Version 1", outputPosition0.version());
+        assertEquals("Condition 1", outputPosition0.condition());
+        assertEquals(new BigDecimal("1.99"), outputPosition0.price());
+        assertEquals(1, outputPosition0.quantity());
+
+        InventoryItemDTO outputPosition4 = output.get(4);
+        assertEquals(5L, outputPosition4.id());
+        assertEquals(5L, outputPosition4.product());
+        assertEquals("Version 5", outputPosition4.version());
+        assertEquals("Condition 5", outputPosition4.condition());
+        assertEquals(new BigDecimal("5.99"), outputPosition4.price());
+        assertEquals(5, outputPosition4.quantity());
+
+        InventoryItemDTO outputPosition9 = output.get(9);
+        assertEquals(10L, outputPosition9.id());
+        assertEquals(10L, outputPosition9.product());
+        assertEquals("Version 10", outputPosition9.version());
+        assertEquals("Condition 10", outputPosition9.condition());
+        assertEquals(new BigDecimal("10.99"), outputPosition9.price());
+        assertEquals(10, outputPosition9.quantity());
+    }
+
+    @Test
+    void testFindSliceWithProductsPage9() {
+        Pageable pageable = PageRequest.of(9, 10, Sort.by(Direction.ASC, "name"));
+        Slice<InventoryItemDTO> slice = InventoryItemMocker.mockDTOSlice(94, pageable);
+
+        when(repository.findSliceDTO(pageable)).thenReturn(slice);
+
+        SliceDTO<InventoryItemDTO> outputPage = service.findSlice(pageable, CountMode.EXACT);
+        assertEquals(9, outputPage.number());
+        assertEquals(10, outputPage.size());
+        assertEquals(94L, outputPage.totalElements());
+        assertTrue(outputPage.totalExact());
+
+        List<InventoryItemDTO> output = outputPage.content();
+        assertNotNull(output);
+        assertEquals(4, output.size());
+
+        InventoryItemDTO outputPosition0 = output.get(0);
+        assertEquals(91L, outputPosition0.id());
+        assertEquals(91L, outputPosition0.product());
+        assertEquals("Version 91", outputPosition0.version());
+        assertEquals("Condition 91", outputPosition0.condition());
+        assertEquals(new BigDecimal("91.99"), outputPosition0.price());
+        assertEquals(91, outputPosition0.quantity());
+
+        InventoryItemDTO outputPosition3 = output.get(3);
+        assertEquals(94L, outputPosition3.id());
+        assertEquals(94L, outputPosition3.product());
+        assertEquals("Version 94", outputPosition3.version());
+        assertEquals("Condition 94", outputPosition3.condition());
+        assertEquals(new BigDecimal("94.99"), outputPosition3.price());
+        assertEquals(94, outputPosition3.quantity());
+    }
+
+    @Test
+    void testFindAllByCursorWithSizeInvalid() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.findAll(null, 0, Direction.ASC);
+        });
+        String expectedMessage = "The size must be between 1 and 100.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testFindAllByCursorWithTokenInvalid() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.findAll("not-a-token", 10, Direction.ASC);
+        });
+        String expectedMessage = "The after token is invalid.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testFindAllByCursorFirstPageAndNextPage() {
+        when(repository.findAllDTOByIdBefore(Long.MAX_VALUE, PageRequest.ofSize(3)))
+            .thenReturn(List.of(InventoryItemMocker.mockDTOWithProduct(10), InventoryItemMocker.mockDTOWithProduct(9), InventoryItemMocker.mockDTOWithProduct(8)));
+
+        CursorSliceDTO<InventoryItemDTO> output = service.findAll(null, 2, Direction.DESC);
+        assertEquals(2, output.content().size());
+        assertEquals(10L, output.content().get(0).id());
+        assertEquals(9L, output.content().get(1).id());
+        assertTrue(output.hasNext());
+        assertEquals(new CursorToken(Direction.DESC, 9L), CursorToken.decode(output.next()));
+
+        when(repository.findAllDTOByIdBefore(9L, PageRequest.ofSize(3)))
+            .thenReturn(List.of(InventoryItemMocker.mockDTOWithProduct(8)));
+
+        // The token keeps the direction of the first page
+        CursorSliceDTO<InventoryItemDTO> nextOutput = service.findAll(output.next(), 2, Direction.ASC);
+        assertEquals(1, nextOutput.content().size());
+        assertEquals(8L, nextOutput.content().get(0).id());
+        assertFalse(nextOutput.hasNext());
+        assertNull(nextOutput.next());
+    }
+
+    @Test
+    void testSearchWithSizeInvalid() {
+        InventoryItemFilterDTO filter = new InventoryItemFilterDTO(null, null, null, null, null, null);
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.search(filter, null, 101);
+        });
+        String expectedMessage = "The size must be between 1 and 100.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testSearchWithProductTypeInvalid() {
+        InventoryItemFilterDTO filter = new InventoryItemFilterDTO(0L, null, null, null, null, null);
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.search(filter, null, 10);
+        });
+        String expectedMessage = "The product-type must be a positive integer value.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testSearchWithPriceRangeInvalid() {
+        InventoryItemFilterDTO filter = new InventoryItemFilterDTO(null, null, null, null, new BigDecimal("50"), new BigDecimal("10"));
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.search(filter, null, 10);
+        });
+        String expectedMessage = "The min-price must not be greater than the max-price.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testSearchWithDescendingToken() {
+        InventoryItemFilterDTO filter = new InventoryItemFilterDTO(null, null, null, null, null, null);
+        String after = new CursorToken(Direction.DESC, 9L).encode();
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.search(filter, after, 10);
+        });
+        String expectedMessage = "The after token is invalid.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testSearchFirstPageAndNextPage() {
+        InventoryItemFilterDTO filter = new InventoryItemFilterDTO(1L, null, "1st Edition", " ", null, new BigDecimal("50"));
+        InventoryItemFilterDTO appliedFilter = new InventoryItemFilterDTO(1L, null, "1st Edition", null, null, new BigDecimal("50"));
+        InventoryItemFacetsDTO facets = new InventoryItemFacetsDTO(
+            List.of(new FacetCountDTO("Near Mint", 2L), new FacetCountDTO(null, 1L)),
+            List.of(new FacetCountDTO("1st Edition", 3L)),
+            List.of(new PriceRangeCountDTO(new BigDecimal("25"), new BigDecimal("50"), 3L)));
+        when(repository.search(appliedFilter, 0L, 3))
+            .thenReturn(List.of(InventoryItemMocker.mockDTOWithProduct(1), InventoryItemMocker.mockDTOWithProduct(2), InventoryItemMocker.mockDTOWithProduct(3)));
+        when(repository.countFacets(appliedFilter, InventoryItemService.PRICE_BOUNDS)).thenReturn(facets);
+
+        InventoryItemSearchResultDTO output = service.search(filter, null, 2);
+        assertEquals(2, output.items().content().size());
+        assertEquals(1L, output.items().content().get(0).id());
+        assertEquals(2L, output.items().content().get(1).id());
+        assertTrue(output.items().hasNext());
+        assertEquals(new CursorToken(Direction.ASC, 2L), CursorToken.decode(output.items().next()));
+        assertEquals(facets, output.facets());
+
+        when(repository.search(appliedFilter, 2L, 3))
+            .thenReturn(List.of(InventoryItemMocker.mockDTOWithProduct(3)));
+
+        // The facets are counted only on the first page
+        InventoryItemSearchResultDTO nextOutput = service.search(filter, output.items().next(), 2);
+        assertEquals(1, nextOutput.items().content().size());
+        assertEquals(3L, nextOutput.items().content().get(0).id());
+        assertFalse(nextOutput.items().hasNext());
+        assertNull(nextOutput.items().next());
+        assertNull(nextOutput.facets());
+        verify(repository, times(1)).countFacets(any(), any());
+    }
+
     @Test
     void testFindByIdWithParamIdNull() {
         Exception output = assertThrows(RequestValidationException.class, () -> {
@@ -184,6 +402,19 @@ public class InventoryItemServiceTest {
         assertEquals(1, output.quantity());
     }
 
+    @Test
+    void testFindByIdFromCache() {
+        InventoryItem item = InventoryItemMocker.mockEntity(1);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(item));
+
+        service.findById(1L);
+        InventoryItemDTO output = service.findById(1L);
+        assertEquals(1L, output.id());
+        assertEquals(1, output.quantity());
+        verify(repository, times(1)).findById(1L);
+    }
+
     @Test
     void testFindByIdWithItemNotFound() {
         when(repository.findById(1L)).thenReturn(Optional.ofNullable(null));
@@ -343,6 +574,61 @@ public class InventoryItemServiceTest {
         assertEquals(5, capturedObject.getQuantity());
     }
 
+    @Test
+    void testUpdateWithPermissionAndReservationEngine() {
+        InventoryItemUpdateDTO itemDTO = new InventoryItemUpdateDTO(
+            1L, 1L, "Version updated", "Condition updated", 
+            new BigDecimal("55.1"), 5);
+        InventoryItem item = InventoryItemMocker.mockEntity(1);
+        Integer storedQuantity = item.getQuantity();
+        InventoryItem itemUpdated = InventoryItemMocker.mockEntity(itemDTO);
+
+        when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
+        when(repository.findById(itemDTO.id())).thenReturn(Optional.of(item));
+        when(productRepository.findById(itemDTO.product())).thenReturn(Optional.of(itemUpdated.getProduct()));
+        when(reservationEngine.isEnabled()).thenReturn(Boolean.TRUE);
+        // Reservations not yet flushed to the row
+        when(reservationEngine.getAvailableQuantity(1L)).thenReturn(2);
+
+        InventoryItemDTO output = service.update(1L, itemDTO);
+        assertEquals(1L, output.id());
+        assertEquals(1L, output.product());
+        assertEquals("Version updated", output.version());
+        assertEquals("Condition updated", output.condition());
+        assertEquals(0, output.price().compareTo(new BigDecimal("55.10")));
+        assertEquals(5, output.quantity());
+
+        // The delta is applied to the quantity of the engine, and the quantity of the row is never written
+        verify(reservationEngine).adjust(Map.of(1L, 3));
+        verify(repository).updateWithoutQuantity(1L, itemUpdated.getProduct(), "Version updated", 
+            "Condition updated", new BigDecimal("55.1"));
+        verify(repository, never()).save(any());
+        assertEquals(storedQuantity, item.getQuantity());
+    }
+
+    @Test
+    void testUpdateWithPermissionAndReservationEngineWithoutQuantityChange() {
+        InventoryItemUpdateDTO itemDTO = new InventoryItemUpdateDTO(
+            1L, 1L, "Version updated", " ", 
+            new BigDecimal("55.1"), 5);
+        InventoryItem item = InventoryItemMocker.mockEntity(1);
+        InventoryItem itemUpdated = InventoryItemMocker.mockEntity(itemDTO);
+
+        when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
+        when(repository.findById(itemDTO.id())).thenReturn(Optional.of(item));
+        when(productRepository.findById(itemDTO.product())).thenReturn(Optional.of(itemUpdated.getProduct()));
+        when(reservationEngine.isEnabled()).thenReturn(Boolean.TRUE);
+        when(reservationEngine.getAvailableQuantity(1L)).thenReturn(5);
+
+        InventoryItemDTO output = service.update(1L, itemDTO);
+        assertNull(output.condition());
+        assertEquals(5, output.quantity());
+
+        verify(reservationEngine, never()).adjust(any());
+        verify(repository).updateWithoutQuantity(1L, itemUpdated.getProduct(), "Version updated", 
+            null, new BigDecimal("55.1"));
+    }
+
     @Test
     void testUpdateWithItemNotFound() {
         InventoryItemUpdateDTO itemDTO = InventoryItemMocker.mockUpdateDTO(1);
@@ -0,0 +1,224 @@
+package br.com.igormartinez.potygames.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.igormartinez.potygames.data.projection.InventoryItemStock;
+import br.com.igormartinez.potygames.mocks.InventoryItemMocker;
+import br.com.igormartinez.potygames.models.InventoryItem;
+import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
+import br.com.igormartinez.potygames.services.CatalogCache;
+import br.com.igormartinez.potygames.services.InventoryReservationEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class InventoryReservationEngineTest {
+
+    private InventoryReservationEngine engine;
+
+    @Mock
+    private InventoryItemRepository repository;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    void setup() {
+        engine = new InventoryReservationEngine(true, 4, repository, catalogCache, new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockItems(Map<Long, Integer> availableQuantities) {
+        when(repository.findAllById(any())).thenAnswer(invocation -> {
+            List<InventoryItem> items = new ArrayList<>();
+            for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+                if (availableQuantities.containsKey(id))
+                    items.add(InventoryItemMocker.mockEntity(id.intValue()));
+            }
+            return items;
+        });
+        when(repository.findAvailableQuantity(anyLong()))
+            .thenAnswer(invocation -> availableQuantities.get(invocation.getArgument(0, Long.class)));
+    }
+
+    @Test
+    void testReserveWithSuccess() {
+        mockItems(Map.of(1L, 10, 2L, 5));
+
+        List<InventoryItemStock> output = engine.reserve(Map.of(2L, 5, 1L, 3));
+        assertEquals(2, output.size());
+        assertEquals(1L, output.get(0).idInventoryItem());
+        assertTrue(output.get(0).reserved());
+        assertEquals(2L, output.get(1).idInventoryItem());
+        assertTrue(output.get(1).reserved());
+
+        assertEquals(7, engine.getAvailableQuantity(1L));
+        assertEquals(0, engine.getAvailableQuantity(2L));
+        verify(repository, times(1)).insertJournal(Map.of(1L, -3, 2L, -5));
+    }
+
+    @Test
+    void testReserveWithInsufficientQuantity() {
+        mockItems(Map.of(1L, 10, 2L, 5));
+
+        List<InventoryItemStock> output = engine.reserve(Map.of(1L, 3, 2L, 6));
+        assertTrue(output.get(0).reserved());
+        assertFalse(output.get(1).reserved());
+
+        // The reserved line is given back and nothing is journaled
+        assertEquals(10, engine.getAvailableQuantity(1L));
+        assertEquals(5, engine.getAvailableQuantity(2L));
+        verify(repository, never()).insertJournal(any());
+    }
+
+    @Test
+    void testReserveWithItemNotFound() {
+        mockItems(Map.of(1L, 10));
+
+        List<InventoryItemStock> output = engine.reserve(Map.of(1L, 3, 9999L, 1));
+        assertTrue(output.get(0).found());
+        assertFalse(output.get(1).found());
+        assertFalse(output.get(1).reserved());
+
+        assertEquals(10, engine.getAvailableQuantity(1L));
+        verify(repository, never()).insertJournal(any());
+    }
+
+    @Test
+    void testRelease() {
+        mockItems(Map.of(1L, 10));
+
+        engine.reserve(Map.of(1L, 4));
+        engine.release(Map.of(1L, 4));
+
+        assertEquals(10, engine.getAvailableQuantity(1L));
+        verify(repository, times(1)).insertJournal(Map.of(1L, 4));
+    }
+
+    @Test
+    void testFlushEvictsTheFlushedItemsFromTheCatalogCache() {
+        when(repository.applyJournal()).thenReturn(Map.of(1L, 2, 3L, 1));
+
+        engine.flush();
+        verify(catalogCache, times(1)).evictInventoryItems(Set.of(1L, 3L));
+    }
+
+    @Test
+    void testFlushWithEmptyJournal() {
+        when(repository.applyJournal()).thenReturn(Map.of());
+
+        engine.flush();
+        verify(catalogCache, never()).evictInventoryItems(any());
+    }
+
+    @Test
+    void testFlushWithEngineDisabled() {
+        InventoryReservationEngine disabledEngine = 
+            new InventoryReservationEngine(false, 4, repository, catalogCache, new SimpleMeterRegistry());
+
+        disabledEngine.flush();
+        verify(repository, never()).applyJournal();
+        verify(catalogCache, never()).evictInventoryItems(any());
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        long[] ids = { 1L, 2L, 3L };
+        int[] initialQuantities = { 100, 37, 1 };
+        mockItems(Map.of(1L, 100, 2L, 37, 3L, 1));
+
+        int threads = 16;
+        int attemptsPerThread = 2000;
+        AtomicIntegerArray reserved = new AtomicIntegerArray(ids.length);
+        AtomicIntegerArray released = new AtomicIntegerArray(ids.length);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    // Orders of one or two lines over the same hot items
+                    int first = random.nextInt(ids.length);
+                    int second = random.nextInt(ids.length);
+                    int firstQuantity = random.nextInt(1, 4);
+                    int secondQuantity = random.nextInt(1, 4);
+                    Map<Long, Integer> quantities = (first == second)
+                        ? Map.of(ids[first], firstQuantity)
+                        : Map.of(ids[first], firstQuantity, ids[second], secondQuantity);
+
+                    boolean success = engine.reserve(quantities)
+                        .stream()
+                        .allMatch(InventoryItemStock::reserved);
+                    if (!success)
+                        continue;
+
+                    for (int i = 0; i < ids.length; i++) {
+                        Integer quantity = quantities.get(ids[i]);
+                        if (quantity != null)
+                            reserved.addAndGet(i, quantity);
+                    }
+
+                    // Some orders are canceled
+                    if (random.nextInt(10) == 0) {
+                        engine.release(quantities);
+                        for (int i = 0; i < ids.length; i++) {
+                            Integer quantity = quantities.get(ids[i]);
+                            if (quantity != null)
+                                released.addAndGet(i, quantity);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+
+        for (int i = 0; i < ids.length; i++) {
+            int sold = reserved.get(i) - released.get(i);
+            int available = engine.getAvailableQuantity(ids[i]);
+            assertTrue(sold <= initialQuantities[i], "Oversell of the inventory item " + ids[i]);
+            assertTrue(available >= 0);
+            assertEquals(initialQuantities[i], sold + available);
+        }
+
+        // The counters are loaded only once, whatever the contention
+        verify(repository, times(1)).findAvailableQuantity(1L);
+        verify(repository, times(1)).findAvailableQuantity(2L);
+        verify(repository, times(1)).findAvailableQuantity(3L);
+    }
+}
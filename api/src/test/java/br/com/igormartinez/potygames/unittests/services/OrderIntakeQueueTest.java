@@ -0,0 +1,172 @@
+package br.com.igormartinez.potygames.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import br.com.igormartinez.potygames.data.request.OrderItemResquestDTO;
+import br.com.igormartinez.potygames.data.request.OrderRequestDTO;
+import br.com.igormartinez.potygames.data.response.OrderResponseDTO;
+import br.com.igormartinez.potygames.exceptions.ServiceUnavailableException;
+import br.com.igormartinez.potygames.mocks.OrderMocker;
+import br.com.igormartinez.potygames.repositories.OrderRepository;
+import br.com.igormartinez.potygames.services.OrderIntakeQueue;
+import br.com.igormartinez.potygames.services.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class OrderIntakeQueueTest {
+
+    private OrderIntakeQueue intakeQueue;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @AfterEach
+    void teardown() {
+        if (intakeQueue != null)
+            intakeQueue.shutdown();
+    }
+
+    @Test
+    void testSubmitProcessedByWorker() {
+        OrderRequestDTO request = OrderMocker.mockRequestDTO(List.of(new OrderItemResquestDTO(2L, 1)), null, null);
+        when(orderService.createPendingOrder(request)).thenReturn(new OrderResponseDTO(10L, "PENDING"));
+
+        intakeQueue = new OrderIntakeQueue(2, 10, 50, 3, Duration.ofMillis(10), orderService, orderRepository, new SimpleMeterRegistry());
+        intakeQueue.start();
+
+        OrderResponseDTO output = intakeQueue.submit(request);
+        assertEquals(10L, output.id());
+        assertEquals("PENDING", output.status());
+
+        verify(orderService, timeout(5000)).processPendingOrder(10L);
+    }
+
+    @Test
+    void testSubmitWithQueueFull() throws Exception {
+        OrderRequestDTO request = OrderMocker.mockRequestDTO(List.of(new OrderItemResquestDTO(2L, 1)), null, null);
+        when(orderService.createPendingOrder(request))
+            .thenReturn(new OrderResponseDTO(10L, "PENDING"))
+            .thenReturn(new OrderResponseDTO(11L, "PENDING"));
+
+        // The worker holds the first batch until the end of the test
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            processing.countDown();
+            release.await();
+            return null;
+        }).when(orderService).processPendingOrder(any());
+
+        intakeQueue = new OrderIntakeQueue(1, 1, 50, 3, Duration.ofMillis(10), orderService, orderRepository, new SimpleMeterRegistry());
+        intakeQueue.start();
+
+        intakeQueue.submit(request);
+        assertTrue(processing.await(5, TimeUnit.SECONDS));
+        intakeQueue.submit(request);
+
+        Exception output = assertThrows(ServiceUnavailableException.class, () -> {
+            intakeQueue.submit(request);
+        });
+        assertEquals("The order queue is full, try again later.", output.getMessage());
+
+        release.countDown();
+    }
+
+    @Test
+    void testSubmitRetriedAfterFailure() {
+        OrderRequestDTO request = OrderMocker.mockRequestDTO(List.of(new OrderItemResquestDTO(2L, 1)), null, null);
+        when(orderService.createPendingOrder(request)).thenReturn(new OrderResponseDTO(10L, "PENDING"));
+        doThrow(new CannotAcquireLockException("deadlock detected"))
+            .doNothing()
+            .when(orderService).processPendingOrder(10L);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        intakeQueue = new OrderIntakeQueue(1, 10, 50, 3, Duration.ofMillis(10), orderService, orderRepository, meterRegistry);
+        intakeQueue.start();
+        intakeQueue.submit(request);
+
+        verify(orderService, timeout(5000).times(2)).processPendingOrder(10L);
+        assertEquals(1, meterRegistry.get("order.intake.retried").counter().count());
+        assertEquals(0, meterRegistry.get("order.intake.failed").counter().count());
+    }
+
+    @Test
+    void testSubmitWithFailureNotAffectingOtherOrders() throws Exception {
+        OrderRequestDTO request = OrderMocker.mockRequestDTO(List.of(new OrderItemResquestDTO(2L, 1)), null, null);
+        when(orderService.createPendingOrder(request))
+            .thenReturn(new OrderResponseDTO(10L, "PENDING"))
+            .thenReturn(new OrderResponseDTO(11L, "PENDING"));
+        doThrow(new IllegalStateException("failure")).when(orderService).processPendingOrder(10L);
+        CountDownLatch processed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            processed.countDown();
+            return null;
+        }).when(orderService).processPendingOrder(11L);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        intakeQueue = new OrderIntakeQueue(1, 10, 50, 3, Duration.ofMillis(10), orderService, orderRepository, meterRegistry);
+        intakeQueue.start();
+        intakeQueue.submit(request);
+        intakeQueue.submit(request);
+
+        // The retries are bounded and the next order is still processed
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        verify(orderService, times(3)).processPendingOrder(10L);
+        assertEquals(2, meterRegistry.get("order.intake.retried").counter().count());
+        assertEquals(1, meterRegistry.get("order.intake.failed").counter().count());
+
+        // The order that failed every attempt is not left PENDING
+        verify(orderService, timeout(5000)).rejectPendingOrder(10L);
+        verify(orderService, never()).rejectPendingOrder(11L);
+    }
+
+    @Test
+    void testStartAndShutdownWorkers() {
+        intakeQueue = new OrderIntakeQueue(2, 10, 50, 3, Duration.ofMillis(10), orderService, orderRepository, new SimpleMeterRegistry());
+        assertEquals(0, workers().size());
+
+        intakeQueue.start();
+        assertEquals(2, workers().size());
+        assertTrue(workers().stream().allMatch(Thread::isDaemon));
+
+        // The workers are stopped and joined, no thread is left after the context is closed
+        intakeQueue.shutdown();
+        assertEquals(0, workers().size());
+    }
+
+    private static List<Thread> workers() {
+        return Thread.getAllStackTraces()
+            .keySet()
+            .stream()
+            .filter(thread -> thread.getName().startsWith("order-intake-") && thread.isAlive())
+            .toList();
+    }
+}
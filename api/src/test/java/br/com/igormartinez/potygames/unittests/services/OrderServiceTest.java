@@ -7,13 +7,16 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -23,12 +26,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
 
+import br.com.igormartinez.potygames.data.projection.InventoryItemStock;
+import br.com.igormartinez.potygames.data.projection.ShoppingCartLine;
+import br.com.igormartinez.potygames.data.request.CheckoutRequestDTO;
 import br.com.igormartinez.potygames.data.request.OrderAddressRequestDTO;
 import br.com.igormartinez.potygames.data.request.OrderItemResquestDTO;
 import br.com.igormartinez.potygames.data.request.OrderRequestDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
 import br.com.igormartinez.potygames.data.response.OrderDetailResponseDTO;
+import br.com.igormartinez.potygames.data.response.OrderItemResponseDTO;
 import br.com.igormartinez.potygames.data.response.OrderResponseDTO;
+import br.com.igormartinez.potygames.data.security.AuthenticatedUser;
 import br.com.igormartinez.potygames.enums.OrderStatus;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceInsufficientException;
@@ -42,12 +53,21 @@ import br.com.igormartinez.potygames.mocks.OrderMocker;
 import br.com.igormartinez.potygames.models.InventoryItem;
 import br.com.igormartinez.potygames.models.Order;
 import br.com.igormartinez.potygames.models.OrderAddress;
+import br.com.igormartinez.potygames.models.OrderDocument;
 import br.com.igormartinez.potygames.models.OrderItem;
 import br.com.igormartinez.potygames.models.User;
 import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
+import br.com.igormartinez.potygames.repositories.OrderDocumentRepository;
+import br.com.igormartinez.potygames.repositories.OrderItemRepository;
 import br.com.igormartinez.potygames.repositories.OrderRepository;
+import br.com.igormartinez.potygames.repositories.ShoppingCartItemRepository;
+import br.com.igormartinez.potygames.repositories.UserRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.services.CatalogCache;
+import br.com.igormartinez.potygames.services.InventoryReservationEngine;
 import br.com.igormartinez.potygames.services.OrderService;
+import br.com.igormartinez.potygames.utils.CursorToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @ExtendWith(MockitoExtension.class)
@@ -61,17 +81,49 @@ public class OrderServiceTest {
     @Mock
     private InventoryItemRepository inventoryItemRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private SecurityContextManager securityContextManager;
 
+    @Mock
+    private InventoryReservationEngine reservationEngine;
+
+    @Mock
+    private OrderDocumentRepository orderDocumentRepository;
+
+    @Mock
+    private ShoppingCartItemRepository shoppingCartItemRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    private CatalogCache catalogCache;
+
     @BeforeEach
     void setup() {
+        catalogCache = new CatalogCache(Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
         service = new OrderService(
             orderRepository, 
             inventoryItemRepository, 
+            userRepository, 
             new OrderAddressRequestDTOToEntityMapper(), 
             new OrderEntityToDetailDTOMapper(), 
-            securityContextManager);
+            securityContextManager,
+            reservationEngine,
+            orderDocumentRepository,
+            shoppingCartItemRepository,
+            orderItemRepository,
+            catalogCache);
+    }
+
+    private List<OrderDocument> mockDocuments(List<Order> orders) {
+        OrderEntityToDetailDTOMapper mapper = new OrderEntityToDetailDTOMapper();
+        return orders
+            .stream()
+            .map(order -> new OrderDocument(order.getId(), order.getUser().getId(), order.getStatus(), mapper.apply(order)))
+            .toList();
     }
 
     @Test
@@ -79,11 +131,13 @@ public class OrderServiceTest {
         User mockedUser = MockUser.mockEntity(1);
         List<Order> mockedOrders = OrderMocker.mockEntityList(1, 4, mockedUser);
 
-        when(securityContextManager.getUser()).thenReturn(mockedUser);
-        when(orderRepository.findAllByUserId(mockedUser.getId())).thenReturn(mockedOrders);
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(orderDocumentRepository.findAllByIdUser(mockedUser.getId()))
+            .thenReturn(mockDocuments(mockedOrders));
     
         List<OrderDetailResponseDTO> output = service.findAllByUser();
         assertEquals(4, output.size());
+        verify(orderRepository, never()).findById(any());
 
         OrderDetailResponseDTO outputPosition0 = output.get(0);
         assertEquals(1L, outputPosition0.id());
@@ -109,15 +163,73 @@ public class OrderServiceTest {
     @Test
     void testFindAllByUserWithoutOrders() {
         User mockedUser = MockUser.mockEntity(1);
-        List<Order> mockedOrders = new ArrayList<>();
+        List<OrderDocument> mockedDocuments = new ArrayList<>();
 
-        when(securityContextManager.getUser()).thenReturn(mockedUser);
-        when(orderRepository.findAllByUserId(mockedUser.getId())).thenReturn(mockedOrders);
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(orderDocumentRepository.findAllByIdUser(mockedUser.getId()))
+            .thenReturn(mockedDocuments);
 
         List<OrderDetailResponseDTO> output = service.findAllByUser();
         assertEquals(0, output.size());
     }
 
+    @Test
+    void testFindAllByUserByCursorFirstPageAndNextPage() {
+        User mockedUser = MockUser.mockEntity(1);
+        List<Order> mockedOrders = OrderMocker.mockEntityList(1, 5, mockedUser);
+
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(orderDocumentRepository.findAllByIdUserAndIdOrderAfter(mockedUser.getId(), 0L, PageRequest.ofSize(4)))
+            .thenReturn(mockDocuments(mockedOrders.subList(0, 4)));
+        when(orderDocumentRepository.findAllByIdUserAndIdOrderAfter(mockedUser.getId(), 3L, PageRequest.ofSize(4)))
+            .thenReturn(mockDocuments(mockedOrders.subList(3, 5)));
+
+        CursorSliceDTO<OrderDetailResponseDTO> output = service.findAllByUser(null, 3, Direction.ASC);
+        assertEquals(3, output.content().size());
+        assertEquals(1L, output.content().get(0).id());
+        assertEquals(3L, output.content().get(2).id());
+        assertEquals(3, output.size());
+        assertTrue(output.hasNext());
+        assertNotNull(output.next());
+
+        output = service.findAllByUser(output.next(), 3, Direction.ASC);
+        assertEquals(2, output.content().size());
+        assertEquals(4L, output.content().get(0).id());
+        assertEquals(5L, output.content().get(1).id());
+        assertFalse(output.hasNext());
+        assertNull(output.next());
+    }
+
+    @Test
+    void testFindAllByUserWithCursorDescending() {
+        User mockedUser = MockUser.mockEntity(1);
+        List<Order> mockedOrders = OrderMocker.mockEntityList(1, 2, mockedUser);
+
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(orderDocumentRepository.findAllByIdUserAndIdOrderBefore(mockedUser.getId(), 5L, PageRequest.ofSize(3)))
+            .thenReturn(mockDocuments(mockedOrders));
+
+        // The token keeps the direction of the first page
+        String after = new CursorToken(Direction.DESC, 5L).encode();
+        CursorSliceDTO<OrderDetailResponseDTO> output = service.findAllByUser(after, 2, Direction.ASC);
+        assertEquals(2, output.content().size());
+        assertFalse(output.hasNext());
+        verify(orderDocumentRepository, never()).findAllByIdUserAndIdOrderAfter(any(), any(), any());
+    }
+
+    @Test
+    void testFindAllByUserWithInvalidSize() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.findAllByUser(null, 0, Direction.ASC);
+        });
+        assertEquals("The size must be between 1 and 100.", output.getMessage());
+
+        output = assertThrows(RequestValidationException.class, () -> {
+            service.findAllByUser(null, 101, Direction.ASC);
+        });
+        assertEquals("The size must be between 1 and 100.", output.getMessage());
+    }
+
     @Test
     void testFindByIdWithOrderNotFound() {
         Long id = 1L;
@@ -155,6 +267,9 @@ public class OrderServiceTest {
     
         when(orderRepository.findById(id)).thenReturn(Optional.of(mockedOrder));
         when(securityContextManager.checkSameUser(mockedUserOwner.getId())).thenReturn(Boolean.TRUE);
+        when(orderItemRepository.findAllResponseByIdOrder(id)).thenReturn(List.of(
+            new OrderItemResponseDTO(1L, "Product name 1", "Version 1", "Condition 1", new BigDecimal("1.99"), 1),
+            new OrderItemResponseDTO(2L, "Product name 2", "Version 2", "Condition 2", new BigDecimal("2.99"), 1)));
 
         OrderDetailResponseDTO output = service.findById(id);
         assertEquals(1L, output.id());
@@ -167,6 +282,39 @@ public class OrderServiceTest {
         assertEquals("Street 1", output.deliveryAddress().street());
     }
 
+    @Test
+    void testFindByIdWithDocument() {
+        Long id = 1L;
+        User mockedUserOwner = MockUser.mockEntity(1);
+        Order mockedOrder = OrderMocker.mockEntity(id.intValue(), mockedUserOwner, null, null);
+    
+        when(orderDocumentRepository.findById(id)).thenReturn(Optional.of(mockDocuments(List.of(mockedOrder)).get(0)));
+        when(securityContextManager.checkSameUser(mockedUserOwner.getId())).thenReturn(Boolean.TRUE);
+
+        OrderDetailResponseDTO output = service.findById(id);
+        assertEquals(1L, output.id());
+        assertEquals("CANCELED", output.status());
+        assertEquals(2, output.items().size());
+        assertEquals("Street 2", output.billingAddress().street());
+        assertEquals("Street 1", output.deliveryAddress().street());
+
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void testFindByIdWithDocumentOfOtherUser() {
+        Long id = 1L;
+        User mockedUserOwner = MockUser.mockEntity(1);
+        Order mockedOrder = OrderMocker.mockEntity(id.intValue(), mockedUserOwner, null, null);
+    
+        when(orderDocumentRepository.findById(id)).thenReturn(Optional.of(mockDocuments(List.of(mockedOrder)).get(0)));
+        when(securityContextManager.checkSameUser(mockedUserOwner.getId())).thenReturn(Boolean.FALSE);
+
+        assertThrows(UserUnauthorizedException.class, () -> {
+            service.findById(id);
+        });
+    }
+
     @Test
     void testCreateOrderWithItemNotFoundPosition0() {
         List<OrderItemResquestDTO> items = List.of(
@@ -175,7 +323,8 @@ public class OrderServiceTest {
         OrderRequestDTO orderRequest = OrderMocker.mockRequestDTO(
             items, null, null);
 
-        when(inventoryItemRepository.findById(9999L)).thenReturn(Optional.ofNullable(null));
+        when(inventoryItemRepository.decrementQuantities(Map.of(9999L, 1)))
+            .thenReturn(List.of(new InventoryItemStock(9999L, false, false, null)));
     
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
             service.createOrder(orderRequest);
@@ -194,12 +343,11 @@ public class OrderServiceTest {
         OrderRequestDTO orderRequest = OrderMocker.mockRequestDTO(
             items, null, null);
 
-        InventoryItem mockedInventoryItemId2 = InventoryItemMocker.mockEntity(2);
-        InventoryItem mockedInventoryItemId3 = InventoryItemMocker.mockEntity(3);
-
-        when(inventoryItemRepository.findById(2L)).thenReturn(Optional.of(mockedInventoryItemId2));
-        when(inventoryItemRepository.findById(3L)).thenReturn(Optional.of(mockedInventoryItemId3));
-        when(inventoryItemRepository.findById(4L)).thenReturn(Optional.ofNullable(null));
+        when(inventoryItemRepository.decrementQuantities(Map.of(2L, 1, 3L, 2, 4L, 3)))
+            .thenReturn(List.of(
+                new InventoryItemStock(2L, true, true, new BigDecimal("2.99")),
+                new InventoryItemStock(3L, true, true, new BigDecimal("3.99")),
+                new InventoryItemStock(4L, false, false, null)));
     
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
             service.createOrder(orderRequest);
@@ -216,14 +364,13 @@ public class OrderServiceTest {
         OrderRequestDTO orderRequest = OrderMocker.mockRequestDTO(
             items, null, null);
 
-        InventoryItem mockedInventoryItem = InventoryItemMocker.mockEntity(1);
-
-        when(inventoryItemRepository.findById(1L)).thenReturn(Optional.of(mockedInventoryItem));
+        when(inventoryItemRepository.decrementQuantities(Map.of(1L, 2)))
+            .thenReturn(List.of(new InventoryItemStock(1L, true, false, new BigDecimal("1.99"))));
     
         Exception output = assertThrows(ResourceInsufficientException.class, () -> {
             service.createOrder(orderRequest);
         });
-        String expectedMessage = "The order exceeded the quantity in inventory.";
+        String expectedMessage = "The order exceeded the quantity in inventory. Inventory items: [1].";
         assertTrue(output.getMessage().contains(expectedMessage));
     }
 
@@ -237,18 +384,16 @@ public class OrderServiceTest {
         OrderRequestDTO orderRequest = OrderMocker.mockRequestDTO(
             items, null, null);
 
-        InventoryItem mockedInventoryItemId2 = InventoryItemMocker.mockEntity(2);
-        InventoryItem mockedInventoryItemId3 = InventoryItemMocker.mockEntity(3);
-        InventoryItem mockedInventoryItemId4 = InventoryItemMocker.mockEntity(4);
-
-        when(inventoryItemRepository.findById(2L)).thenReturn(Optional.of(mockedInventoryItemId2));
-        when(inventoryItemRepository.findById(3L)).thenReturn(Optional.of(mockedInventoryItemId3));
-        when(inventoryItemRepository.findById(4L)).thenReturn(Optional.of(mockedInventoryItemId4));
+        when(inventoryItemRepository.decrementQuantities(Map.of(2L, 1, 3L, 2, 4L, 99)))
+            .thenReturn(List.of(
+                new InventoryItemStock(2L, true, true, new BigDecimal("2.99")),
+                new InventoryItemStock(3L, true, true, new BigDecimal("3.99")),
+                new InventoryItemStock(4L, true, false, new BigDecimal("4.99"))));
     
         Exception output = assertThrows(ResourceInsufficientException.class, () -> {
             service.createOrder(orderRequest);
         });
-        String expectedMessage = "The order exceeded the quantity in inventory.";
+        String expectedMessage = "The order exceeded the quantity in inventory. Inventory items: [4].";
         assertTrue(output.getMessage().contains(expectedMessage));
     }
 
@@ -270,12 +415,18 @@ public class OrderServiceTest {
         User mockedUser = MockUser.mockEntity(1);
         Order mockedPersistedOrder = new Order();
         mockedPersistedOrder.setId(1L);
+        mockedPersistedOrder.setUser(mockedUser);
         mockedPersistedOrder.setStatus(OrderStatus.CONFIRMED);
 
         // Mocking results
-        when(inventoryItemRepository.findById(2L)).thenReturn(Optional.of(mockedInventoryItemId2));
-        when(inventoryItemRepository.findById(4L)).thenReturn(Optional.of(mockedInventoryItemId4));
-        when(securityContextManager.getUser()).thenReturn(mockedUser);
+        when(inventoryItemRepository.decrementQuantities(Map.of(2L, 1, 4L, 2)))
+            .thenReturn(List.of(
+                new InventoryItemStock(2L, true, true, new BigDecimal("2.99")),
+                new InventoryItemStock(4L, true, true, new BigDecimal("4.99"))));
+        when(inventoryItemRepository.getReferenceById(2L)).thenReturn(mockedInventoryItemId2);
+        when(inventoryItemRepository.getReferenceById(4L)).thenReturn(mockedInventoryItemId4);
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(mockedUser);
         when(orderRepository.save(any(Order.class))).thenReturn(mockedPersistedOrder);
 
         // Check code after save
@@ -285,17 +436,16 @@ public class OrderServiceTest {
 
         // Check before save
 
-        // Checks if the item quantity has been subtracted 
-        ArgumentCaptor<InventoryItem> inventoryItemArgumentCaptor 
-            = ArgumentCaptor.forClass(InventoryItem.class);
-        verify(inventoryItemRepository, times(2))
-            .save(inventoryItemArgumentCaptor.capture());
-        List<InventoryItem> capturedInventoryItems = inventoryItemArgumentCaptor.getAllValues();
-        assertEquals(2, capturedInventoryItems.size());
-        assertEquals(2L, capturedInventoryItems.get(0).getId());
-        assertEquals(1, capturedInventoryItems.get(0).getQuantity());
-        assertEquals(4L, capturedInventoryItems.get(1).getId());
-        assertEquals(2, capturedInventoryItems.get(1).getQuantity());
+        // Checks if the item quantities were decremented in a single call
+        verify(inventoryItemRepository, times(1)).decrementQuantities(Map.of(2L, 1, 4L, 2));
+
+        // Checks if the document was written with the order
+        ArgumentCaptor<OrderDocument> documentArgumentCaptor = ArgumentCaptor.forClass(OrderDocument.class);
+        verify(orderDocumentRepository).save(documentArgumentCaptor.capture());
+        assertEquals(1L, documentArgumentCaptor.getValue().getIdOrder());
+        assertEquals(1L, documentArgumentCaptor.getValue().getIdUser());
+        assertEquals(OrderStatus.CONFIRMED, documentArgumentCaptor.getValue().getStatus());
+        assertEquals(1L, documentArgumentCaptor.getValue().getDocument().id());
 
         // Check the order before save
         ArgumentCaptor<Order> orderArgumentCaptor = ArgumentCaptor.forClass(Order.class);
@@ -347,6 +497,77 @@ public class OrderServiceTest {
         assertEquals("00000-002", capturedOrderAddresses.get(1).getZipCode());
     }
 
+    @Test
+    void testCheckoutWithEmptyCart() {
+        User mockedUser = MockUser.mockEntity(1);
+        CheckoutRequestDTO request = new CheckoutRequestDTO(
+            OrderMocker.mockAddressRequestDTO(1), OrderMocker.mockAddressRequestDTO(2));
+
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(shoppingCartItemRepository.deleteAllByUserIdReturning(1L)).thenReturn(List.of());
+
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.checkout(request);
+        });
+        assertEquals("The shopping cart is empty.", output.getMessage());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void testCheckoutWithSuccess() {
+        User mockedUser = MockUser.mockEntity(1);
+        CheckoutRequestDTO request = new CheckoutRequestDTO(
+            OrderMocker.mockAddressRequestDTO(1), OrderMocker.mockAddressRequestDTO(2));
+        Order mockedPersistedOrder = new Order();
+        mockedPersistedOrder.setId(1L);
+        mockedPersistedOrder.setUser(mockedUser);
+        mockedPersistedOrder.setStatus(OrderStatus.CONFIRMED);
+
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(shoppingCartItemRepository.deleteAllByUserIdReturning(1L))
+            .thenReturn(List.of(new ShoppingCartLine(2L, 1), new ShoppingCartLine(4L, 2)));
+        when(inventoryItemRepository.decrementQuantities(Map.of(2L, 1, 4L, 2)))
+            .thenReturn(List.of(
+                new InventoryItemStock(2L, true, true, new BigDecimal("2.99")),
+                new InventoryItemStock(4L, true, true, new BigDecimal("4.99"))));
+        when(inventoryItemRepository.getReferenceById(2L)).thenReturn(InventoryItemMocker.mockEntity(2));
+        when(inventoryItemRepository.getReferenceById(4L)).thenReturn(InventoryItemMocker.mockEntity(4));
+        when(userRepository.getReferenceById(1L)).thenReturn(mockedUser);
+        when(orderRepository.save(any(Order.class))).thenReturn(mockedPersistedOrder);
+
+        OrderResponseDTO output = service.checkout(request);
+        assertEquals(1L, output.id());
+        assertEquals("CONFIRMED", output.status());
+
+        ArgumentCaptor<Order> orderArgumentCaptor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(orderArgumentCaptor.capture());
+        Order capturedOrder = orderArgumentCaptor.getValue();
+        assertEquals(0, capturedOrder.getTotalPrice().compareTo(new BigDecimal("12.97")));
+        assertEquals(2, capturedOrder.getOrderItems().size());
+        assertEquals("Street 1", capturedOrder.getOrderAddresses().get(0).getStreet());
+        assertEquals("Street 2", capturedOrder.getOrderAddresses().get(1).getStreet());
+    }
+
+    @Test
+    void testCheckoutWithInsufficientQuantity() {
+        User mockedUser = MockUser.mockEntity(1);
+        CheckoutRequestDTO request = new CheckoutRequestDTO(
+            OrderMocker.mockAddressRequestDTO(1), OrderMocker.mockAddressRequestDTO(2));
+
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(shoppingCartItemRepository.deleteAllByUserIdReturning(1L))
+            .thenReturn(List.of(new ShoppingCartLine(2L, 10)));
+        when(inventoryItemRepository.decrementQuantities(Map.of(2L, 10)))
+            .thenReturn(List.of(new InventoryItemStock(2L, true, false, new BigDecimal("2.99"))));
+
+        // The exception rolls back the transaction, which gives the items back to the cart
+        Exception output = assertThrows(ResourceInsufficientException.class, () -> {
+            service.checkout(request);
+        });
+        assertEquals("The order exceeded the quantity in inventory. Inventory items: [2].", output.getMessage());
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     void testCancelOrderWithOrderNotFound() {
         Long id = 1L;
@@ -412,15 +633,245 @@ public class OrderServiceTest {
         assertEquals(1L, output.id());
         assertEquals("CANCELED", output.status());
 
-        ArgumentCaptor<InventoryItem> inventoryItemArgumentCaptor 
-            = ArgumentCaptor.forClass(InventoryItem.class);
-        verify(inventoryItemRepository, times(2))
-            .save(inventoryItemArgumentCaptor.capture());
-        List<InventoryItem> capturedInventoryItems = inventoryItemArgumentCaptor.getAllValues();
-        assertEquals(2, capturedInventoryItems.size());
-        assertEquals(1L, capturedInventoryItems.get(0).getId());
-        assertEquals(3, capturedInventoryItems.get(0).getQuantity());
-        assertEquals(2L, capturedInventoryItems.get(1).getId());
-        assertEquals(5, capturedInventoryItems.get(1).getQuantity());
+        verify(inventoryItemRepository, times(1)).restockByIdOrder(1L);
+        verify(orderDocumentRepository, times(1)).updateStatus(1L, "CANCELED");
+    }
+
+    @Test
+    void testCreateOrderWithReservationEngine() {
+        List<OrderItemResquestDTO> items = List.of(
+            new OrderItemResquestDTO(2L, 1)
+        );
+        OrderAddressRequestDTO address = OrderMocker.mockAddressRequestDTO(1);
+        OrderRequestDTO orderRequest = OrderMocker.mockRequestDTO(items, address, address);
+
+        User mockedUser = MockUser.mockEntity(1);
+        Order mockedPersistedOrder = new Order();
+        mockedPersistedOrder.setId(1L);
+        mockedPersistedOrder.setUser(mockedUser);
+        mockedPersistedOrder.setStatus(OrderStatus.CONFIRMED);
+
+        when(reservationEngine.isEnabled()).thenReturn(Boolean.TRUE);
+        when(reservationEngine.reserve(Map.of(2L, 1)))
+            .thenReturn(List.of(new InventoryItemStock(2L, true, true, new BigDecimal("2.99"))));
+        when(inventoryItemRepository.getReferenceById(2L)).thenReturn(InventoryItemMocker.mockEntity(2));
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(mockedUser);
+        when(orderRepository.save(any(Order.class))).thenReturn(mockedPersistedOrder);
+
+        OrderResponseDTO output = service.createOrder(orderRequest);
+        assertEquals(1L, output.id());
+        assertEquals("CONFIRMED", output.status());
+
+        verify(inventoryItemRepository, never()).decrementQuantities(any());
+    }
+
+    @Test
+    void testCancelOrderWithReservationEngine() {
+        Long id = 1L;
+        User mockedUserOwner = MockUser.mockEntity(1);
+        List<OrderItem> mockedOrderItems = List.of(
+            OrderMocker.mockItemEntity(1, 2),
+            OrderMocker.mockItemEntity(2, 3)  
+        );
+        Order mockedOrder = OrderMocker.mockEntity(1, mockedUserOwner, null, mockedOrderItems);
+        mockedOrder.setStatus(OrderStatus.CONFIRMED);
+        
+        when(orderRepository.findById(id)).thenReturn(Optional.of(mockedOrder));
+        when(securityContextManager.checkSameUser(mockedOrder.getUser().getId())).thenReturn(Boolean.TRUE);
+        when(reservationEngine.isEnabled()).thenReturn(Boolean.TRUE);
+        when(orderRepository.save(mockedOrder)).thenReturn(mockedOrder);
+
+        OrderResponseDTO output = service.cancelOrder(id);
+        assertEquals("CANCELED", output.status());
+
+        verify(reservationEngine, times(1)).release(Map.of(1L, 2, 2L, 3));
+        verify(inventoryItemRepository, never()).restockByIdOrder(any());
+    }
+
+    @Test
+    void testFindStatusByIdWithSameUser() {
+        Long id = 1L;
+        Order mockedOrder = OrderMocker.mockEntity(1, MockUser.mockEntity(1), null, null);
+        mockedOrder.setStatus(OrderStatus.PENDING);
+
+        when(orderRepository.findById(id)).thenReturn(Optional.of(mockedOrder));
+        when(securityContextManager.checkSameUser(mockedOrder.getUser().getId())).thenReturn(Boolean.TRUE);
+
+        OrderResponseDTO output = service.findStatusById(id);
+        assertEquals(1L, output.id());
+        assertEquals("PENDING", output.status());
+    }
+
+    @Test
+    void testFindStatusByIdWithOtherUser() {
+        Long id = 1L;
+        Order mockedOrder = OrderMocker.mockEntity(1, MockUser.mockEntity(1), null, null);
+
+        when(orderRepository.findById(id)).thenReturn(Optional.of(mockedOrder));
+        when(securityContextManager.checkSameUser(mockedOrder.getUser().getId())).thenReturn(Boolean.FALSE);
+
+        assertThrows(UserUnauthorizedException.class, () -> {
+            service.findStatusById(id);
+        });
+    }
+
+    @Test
+    void testCreatePendingOrderWithItemNotFound() {
+        List<OrderItemResquestDTO> items = List.of(
+            new OrderItemResquestDTO(2L, 1),
+            new OrderItemResquestDTO(9999L, 1)
+        );
+        OrderRequestDTO orderRequest = OrderMocker.mockRequestDTO(items, null, null);
+
+        when(inventoryItemRepository.findAllWithProductByIdIn(List.of(2L, 9999L)))
+            .thenReturn(List.of(InventoryItemMocker.mockEntity(2)));
+
+        Exception output = assertThrows(ResourceNotFoundException.class, () -> {
+            service.createPendingOrder(orderRequest);
+        });
+        assertEquals("The inventory item was not found with the given ID.", output.getMessage());
+    }
+
+    @Test
+    void testCreatePendingOrderWithSuccess() {
+        List<OrderItemResquestDTO> items = List.of(
+            new OrderItemResquestDTO(2L, 1)
+        );
+        OrderAddressRequestDTO address = OrderMocker.mockAddressRequestDTO(1);
+        OrderRequestDTO orderRequest = OrderMocker.mockRequestDTO(items, address, address);
+
+        User mockedUser = MockUser.mockEntity(1);
+        Order mockedPersistedOrder = new Order();
+        mockedPersistedOrder.setId(1L);
+        mockedPersistedOrder.setUser(mockedUser);
+        mockedPersistedOrder.setStatus(OrderStatus.PENDING);
+
+        when(inventoryItemRepository.findAllWithProductByIdIn(List.of(2L)))
+            .thenReturn(List.of(InventoryItemMocker.mockEntity(2)));
+        when(securityContextManager.getUser()).thenReturn(AuthenticatedUser.from(mockedUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(mockedUser);
+        when(orderRepository.save(any(Order.class))).thenReturn(mockedPersistedOrder);
+
+        OrderResponseDTO output = service.createPendingOrder(orderRequest);
+        assertEquals(1L, output.id());
+        assertEquals("PENDING", output.status());
+
+        // The stock is not reserved on intake
+        verify(inventoryItemRepository, never()).decrementQuantities(any());
+
+        ArgumentCaptor<Order> orderArgumentCaptor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(orderArgumentCaptor.capture());
+        Order capturedOrder = orderArgumentCaptor.getValue();
+        assertEquals(OrderStatus.PENDING, capturedOrder.getStatus());
+        assertEquals(1, capturedOrder.getOrderItems().size());
+        assertEquals(2L, capturedOrder.getOrderItems().get(0).getItem().getId());
+        assertEquals(2, capturedOrder.getOrderAddresses().size());
+    }
+
+    @Test
+    void testProcessPendingOrderConfirmed() {
+        Order order = OrderMocker.mockEntity(1, MockUser.mockEntity(1), null, 
+            List.of(OrderMocker.mockItemEntity(1, 1), OrderMocker.mockItemEntity(2, 2)));
+        order.setStatus(OrderStatus.PENDING);
+
+        when(orderRepository.findAllWithItemsByIdInAndStatus(List.of(1L), OrderStatus.PENDING))
+            .thenReturn(List.of(order));
+        when(inventoryItemRepository.decrementQuantities(Map.of(1L, 1, 2L, 2)))
+            .thenReturn(List.of(
+                new InventoryItemStock(1L, true, true, new BigDecimal("1.99")),
+                new InventoryItemStock(2L, true, true, new BigDecimal("2.99"))));
+        OrderDocument document = new OrderDocument(1L, 1L, OrderStatus.PENDING, null);
+        when(orderDocumentRepository.findById(1L)).thenReturn(Optional.of(document));
+
+        service.processPendingOrder(1L);
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        assertEquals(0, order.getTotalPrice().compareTo(new BigDecimal("7.97")));
+        assertEquals(0, order.getOrderItems().get(1).getUnitPrice().compareTo(new BigDecimal("2.99")));
+
+        // The document is rewritten with the final status and prices
+        assertEquals(OrderStatus.CONFIRMED, document.getStatus());
+        assertEquals("CONFIRMED", document.getDocument().status());
+        assertEquals(0, document.getDocument().totalPrice().compareTo(new BigDecimal("7.97")));
+    }
+
+    @Test
+    void testProcessPendingOrderRejected() {
+        Order order = OrderMocker.mockEntity(2, MockUser.mockEntity(1), null, 
+            List.of(OrderMocker.mockItemEntity(3, 1), OrderMocker.mockItemEntity(4, 99)));
+        order.setStatus(OrderStatus.PENDING);
+
+        when(orderRepository.findAllWithItemsByIdInAndStatus(List.of(2L), OrderStatus.PENDING))
+            .thenReturn(List.of(order));
+        when(inventoryItemRepository.decrementQuantities(Map.of(3L, 1, 4L, 99)))
+            .thenReturn(List.of(
+                new InventoryItemStock(3L, true, true, new BigDecimal("3.99")),
+                new InventoryItemStock(4L, true, false, new BigDecimal("4.99"))));
+        OrderDocument document = new OrderDocument(2L, 1L, OrderStatus.PENDING, null);
+        when(orderDocumentRepository.findById(2L)).thenReturn(Optional.of(document));
+
+        service.processPendingOrder(2L);
+
+        // The reserved line of the rejected order is given back
+        assertEquals(OrderStatus.REJECTED, order.getStatus());
+        verify(inventoryItemRepository, times(1)).incrementQuantities(Map.of(3L, 1));
+        assertEquals(OrderStatus.REJECTED, document.getStatus());
+        assertEquals("REJECTED", document.getDocument().status());
+    }
+
+    @Test
+    void testProcessPendingOrderNoLongerPending() {
+        when(orderRepository.findAllWithItemsByIdInAndStatus(List.of(3L), OrderStatus.PENDING))
+            .thenReturn(List.of());
+
+        service.processPendingOrder(3L);
+
+        verify(inventoryItemRepository, never()).decrementQuantities(any());
+        verify(orderDocumentRepository, never()).findById(any());
+    }
+
+    @Test
+    void testRejectPendingOrder() {
+        Order order = OrderMocker.mockEntity(4, MockUser.mockEntity(1), null, null);
+        order.setStatus(OrderStatus.PENDING);
+
+        when(orderRepository.findById(4L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        service.rejectPendingOrder(4L);
+
+        assertEquals(OrderStatus.REJECTED, order.getStatus());
+        verify(orderDocumentRepository, times(1)).updateStatus(4L, "REJECTED");
+        verify(inventoryItemRepository, never()).incrementQuantities(any());
+    }
+
+    @Test
+    void testRejectPendingOrderNoLongerPending() {
+        Order order = OrderMocker.mockEntity(5, MockUser.mockEntity(1), null, null);
+        order.setStatus(OrderStatus.CONFIRMED);
+
+        when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+
+        service.rejectPendingOrder(5L);
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verify(orderRepository, never()).save(any());
+        verify(orderDocumentRepository, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void testCancelOrderWithOrderPending() {
+        Long id = 1L;
+        Order mockedOrder = OrderMocker.mockEntity(1, MockUser.mockEntity(1), null, null);
+        mockedOrder.setStatus(OrderStatus.PENDING);
+        
+        when(orderRepository.findById(id)).thenReturn(Optional.of(mockedOrder));
+        when(securityContextManager.checkSameUser(mockedOrder.getUser().getId())).thenReturn(Boolean.TRUE);
+
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.cancelOrder(id);
+        });
+        assertEquals("The order is still being processed.", output.getMessage());
     }
 }
@@ -1,14 +1,17 @@
 package br.com.igormartinez.potygames.unittests.services;
 
-import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,12 +26,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort;
 
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.data.projection.Versioned;
 import br.com.igormartinez.potygames.data.request.ProductCreateDTO;
 import br.com.igormartinez.potygames.data.request.ProductUpdateDTO;
+import br.com.igormartinez.potygames.data.response.CursorSliceDTO;
 import br.com.igormartinez.potygames.data.response.ProductDTO;
+import br.com.igormartinez.potygames.data.response.ProductSearchResultDTO;
+import br.com.igormartinez.potygames.data.response.SliceDTO;
+import br.com.igormartinez.potygames.enums.CountMode;
 import br.com.igormartinez.potygames.exceptions.DeleteAssociationConflictException;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceNotFoundException;
@@ -40,7 +50,11 @@ import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
 import br.com.igormartinez.potygames.repositories.ProductRepository;
 import br.com.igormartinez.potygames.repositories.ProductTypeRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.services.CatalogCache;
 import br.com.igormartinez.potygames.services.ProductService;
+import br.com.igormartinez.potygames.services.ProductTypeRegistry;
+import br.com.igormartinez.potygames.utils.CursorToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 
 @TestInstance(Lifecycle.PER_CLASS)
@@ -61,14 +75,22 @@ public class ProductServiceTest {
     @Mock
     private SecurityContextManager securityContextManager;
 
+    @Mock
+    private ProductTypeRegistry productTypeRegistry;
+
+    private CatalogCache catalogCache;
+
     @BeforeEach
     void setup() {
+        catalogCache = new CatalogCache(Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
         service = new ProductService(
             productRepository, 
             productTypeRepository, 
             inventoryItemRepository,
             new ProductToProductDTOMapper(), 
-            securityContextManager);
+            securityContextManager,
+            catalogCache,
+            productTypeRegistry);
     }
 
     @Test
@@ -191,6 +213,233 @@ public class ProductServiceTest {
         assertEquals(0, output.size());
     }
 
+    @Test
+    void testFindSliceWithProductsPage0() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Direction.ASC, "id"));
+        Slice<ProductDTO> slice = ProductMocker.mockDTOSlice(94, pageable);
+
+        when(productRepository.findSliceDTO(pageable)).thenReturn(slice);
+        when(productRepository.estimateCount()).thenReturn(97L);
+
+        SliceDTO<ProductDTO> outputPage = service.findSlice(pageable, CountMode.APPROXIMATE);
+        assertEquals(0, outputPage.number());
+        assertEquals(10, outputPage.size());
+        assertEquals(97L, outputPage.totalElements());
+        assertFalse(outputPage.totalExact());
+
+        List<ProductDTO> output = outputPage.content();
+        assertNotNull(output);
+        assertEquals(10, output.size());
+
+        ProductDTO outputPosition0 = output.get(0);
+        assertEquals(1L, outputPosition0.id());
+        assertEquals(1L, outputPosition0.idProductType());
+        assertEquals("Product name 1", outputPosition0.name());
+        assertEquals("Product description 1", outputPosition0.description());
+
+        ProductDTO outputPosition4 = output.get(4);
+        assertEquals(5L, outputPosition4.id());
+        assertEquals(5L, outputPosition4.idProductType());
+        assertEquals("Product name 5", outputPosition4.name());
+        assertEquals("Product description 5", outputPosition4.description());
+
+        ProductDTO outputPosition9 = output.get(9);
+        assertEquals(10L, outputPosition9.id());
+        assertEquals(10L, outputPosition9.idProductType());
+        assertEquals("Product name 10", outputPosition9.name());
+        assertEquals("Product description 10", outputPosition9.description());
+    }
+
+    @Test
+    void testFindSliceWithProductsPage4() {
+        Pageable pageable = PageRequest.of(4, 10, Sort.by(Direction.ASC, "name"));
+        Slice<ProductDTO> slice = ProductMocker.mockDTOSlice(94, pageable);
+
+        when(productRepository.findSliceDTO(pageable)).thenReturn(slice);
+        when(productRepository.count()).thenReturn(94L);
+
+        SliceDTO<ProductDTO> outputPage = service.findSlice(pageable, CountMode.EXACT);
+        assertEquals(4, outputPage.number());
+        assertEquals(10, outputPage.size());
+        assertEquals(94L, outputPage.totalElements());
+        assertTrue(outputPage.totalExact());
+
+        List<ProductDTO> output = outputPage.content();
+        assertNotNull(output);
+        assertEquals(10, output.size());
+
+        ProductDTO outputPosition0 = output.get(0);
+        assertEquals(41L, outputPosition0.id());
+        assertEquals(41L, outputPosition0.idProductType());
+        assertEquals("Product name 41", outputPosition0.name());
+        assertEquals("Product description 41", outputPosition0.description());
+
+        ProductDTO outputPosition4 = output.get(4);
+        assertEquals(45L, outputPosition4.id());
+        assertEquals(45L, outputPosition4.idProductType());
+        assertEquals("Product name 45", outputPosition4.name());
+        assertEquals("Product description 45", outputPosition4.description());
+
+        ProductDTO outputPosition9 = output.get(9);
+        assertEquals(50L, outputPosition9.id());
+        assertEquals(50L, outputPosition9.idProductType());
+        assertEquals("Product name 50", outputPosition9.name());
+        assertEquals("Product description 50", outputPosition9.description());
+    }
+
+    @Test
+    void testFindSliceWithProductsPage9() {
+        Pageable pageable = PageRequest.of(9, 10, Sort.by(Direction.ASC, "name"));
+        Slice<ProductDTO> slice = ProductMocker.mockDTOSlice(94, pageable);
+
+        when(productRepository.findSliceDTO(pageable)).thenReturn(slice);
+
+        SliceDTO<ProductDTO> outputPage = service.findSlice(pageable, CountMode.APPROXIMATE);
+        assertEquals(9, outputPage.number());
+        assertEquals(10, outputPage.size());
+        assertEquals(94L, outputPage.totalElements());
+        assertTrue(outputPage.totalExact());
+
+        List<ProductDTO> output = outputPage.content();
+        assertNotNull(output);
+        assertEquals(4, output.size());
+
+        ProductDTO outputPosition0 = output.get(0);
+        assertEquals(91L, outputPosition0.id());
+        assertEquals(91L, outputPosition0.idProductType());
+        assertEquals("Product name 91", outputPosition0.name());
+        assertEquals("Product description 91", outputPosition0.description());
+
+        ProductDTO outputPosition3 = output.get(3);
+        assertEquals(94L, outputPosition3.id());
+        assertEquals(94L, outputPosition3.idProductType());
+        assertEquals("Product name 94", outputPosition3.name());
+        assertEquals("Product description 94", outputPosition3.description());
+    }
+
+    @Test
+    void testFindSliceWithEstimateBehindTable() {
+        Pageable pageable = PageRequest.of(4, 10, Sort.by(Direction.ASC, "id"));
+        Slice<ProductDTO> slice = ProductMocker.mockDTOSlice(94, pageable);
+
+        when(productRepository.findSliceDTO(pageable)).thenReturn(slice);
+        when(productRepository.estimateCount()).thenReturn(10L);
+
+        // The estimate is never below the elements already seen plus the next one
+        SliceDTO<ProductDTO> outputPage = service.findSlice(pageable, CountMode.APPROXIMATE);
+        assertTrue(outputPage.hasNext());
+        assertEquals(51L, outputPage.totalElements());
+        assertFalse(outputPage.totalExact());
+    }
+
+    @Test
+    void testFindSliceWithoutProducts() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Direction.ASC, "name"));
+        Slice<ProductDTO> slice = ProductMocker.mockDTOSlice(0, pageable);
+
+        when(productRepository.findSliceDTO(pageable)).thenReturn(slice);
+
+        SliceDTO<ProductDTO> outputPage = service.findSlice(pageable, CountMode.NONE);
+        assertEquals(0, outputPage.number());
+        assertEquals(10, outputPage.size());
+        assertNull(outputPage.totalElements());
+
+        List<ProductDTO> output = outputPage.content();
+        assertNotNull(output);
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void testSearchWithQueryBlank() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.search("  ", null, null, 10);
+        });
+        String expectedMessage = "The query must have between 1 and 200 characters.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testSearchWithQueryTooLong() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.search("a".repeat(201), null, null, 10);
+        });
+        String expectedMessage = "The query must have between 1 and 200 characters.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testSearchWithSizeInvalid() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.search("deck", null, null, 101);
+        });
+        String expectedMessage = "The size must be between 1 and 100.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testSearchWithCursorWithoutRank() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.search("deck", null, 3L, 10);
+        });
+        String expectedMessage = "The rank and the cursor must be provided together.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testSearchWithSuccess() {
+        List<ProductSearchResultDTO> results = List.of(
+            new ProductSearchResultDTO(3L, 2L, "Structure Deck", "Description 3", 0.6f),
+            new ProductSearchResultDTO(7L, 2L, "Starter Deck", "Description 7", 0.3f));
+
+        when(productRepository.search("deck", 0.9f, 1L, 2)).thenReturn(results);
+
+        List<ProductSearchResultDTO> output = service.search("deck", 0.9f, 1L, 2);
+        assertEquals(2, output.size());
+        assertEquals(3L, output.get(0).id());
+        assertEquals(7L, output.get(1).id());
+    }
+
+    @Test
+    void testFindAllByCursorWithSizeInvalid() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.findAll(null, 0, Direction.ASC);
+        });
+        String expectedMessage = "The size must be between 1 and 100.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testFindAllByCursorWithTokenInvalid() {
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.findAll("not-a-token", 10, Direction.ASC);
+        });
+        String expectedMessage = "The after token is invalid.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testFindAllByCursorFirstPageAndNextPage() {
+        when(productRepository.findAllDTOByIdBefore(Long.MAX_VALUE, PageRequest.ofSize(3)))
+            .thenReturn(List.of(new ProductDTO(10L, 1L, "Name 10", "Description 10"), new ProductDTO(9L, 1L, "Name 9", "Description 9"), new ProductDTO(8L, 1L, "Name 8", "Description 8")));
+
+        CursorSliceDTO<ProductDTO> output = service.findAll(null, 2, Direction.DESC);
+        assertEquals(2, output.content().size());
+        assertEquals(10L, output.content().get(0).id());
+        assertEquals(9L, output.content().get(1).id());
+        assertTrue(output.hasNext());
+        assertEquals(new CursorToken(Direction.DESC, 9L), CursorToken.decode(output.next()));
+
+        when(productRepository.findAllDTOByIdBefore(9L, PageRequest.ofSize(3)))
+            .thenReturn(List.of(new ProductDTO(8L, 1L, "Name 8", "Description 8")));
+
+        // The token keeps the direction of the first page
+        CursorSliceDTO<ProductDTO> nextOutput = service.findAll(output.next(), 2, Direction.ASC);
+        assertEquals(1, nextOutput.content().size());
+        assertEquals(8L, nextOutput.content().get(0).id());
+        assertFalse(nextOutput.hasNext());
+        assertNull(nextOutput.next());
+    }
+
     @Test
     void testFindByIdWithParamIdNull() {
         Exception output = assertThrows(RequestValidationException.class, () -> {
@@ -232,6 +481,52 @@ public class ProductServiceTest {
         assertEquals("Product description 1", output.description());
     }
 
+    @Test
+    void testFindByIdFromCache() {
+        Product product = ProductMocker.mockEntity(1);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        service.findById(1L);
+        ProductDTO output = service.findById(1L);
+        assertEquals(1L, output.id());
+        assertEquals("Product name 1", output.name());
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testFindByIdWithCachedVersionOutdated() {
+        Product product = ProductMocker.mockEntity(1);
+        product.setRowVersion(0L);
+        Product productUpdated = ProductMocker.mockEntity(1);
+        productUpdated.setName("Product name updated 1");
+        productUpdated.setRowVersion(1L);
+
+        when(productRepository.findById(1L))
+            .thenReturn(Optional.of(product))
+            .thenReturn(Optional.of(productUpdated));
+
+        service.findById(1L);
+
+        // Another instance updated the product, the conditional request brings its current version
+        Versioned<ProductDTO> output = service.findById(1L, new ResourceVersion(1L, null));
+        assertEquals("Product name updated 1", output.value().name());
+        assertEquals("\"1\"", output.version().etag());
+        assertEquals("Product name updated 1", service.findById(1L).name());
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testFindVersionByIdWithProductNotFound() {
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        Exception output = assertThrows(ResourceNotFoundException.class, () -> {
+            service.findVersionById(1L);
+        });
+        String expectedMessage = "The product was not found with the given ID.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
     @Test
     void testFindByIdWithProductNotFound() {
         when(productRepository.findById(1L)).thenReturn(Optional.ofNullable(null));
@@ -263,7 +558,8 @@ public class ProductServiceTest {
         Product product = ProductMocker.mockEntity(1, productDTO);
 
         when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
-        when(productTypeRepository.findById(productDTO.idProductType())).thenReturn(Optional.of(product.getType()));
+        when(productTypeRegistry.contains(productDTO.idProductType())).thenReturn(Boolean.TRUE);
+        when(productTypeRepository.getReferenceById(productDTO.idProductType())).thenReturn(product.getType());
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         // Check the code after the save
@@ -288,7 +584,8 @@ public class ProductServiceTest {
         ProductCreateDTO productDTO = ProductMocker.mockCreateDTO(1);
 
         when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
-        when(productTypeRepository.findById(productDTO.idProductType())).thenReturn(Optional.ofNullable(null));
+        when(productTypeRegistry.contains(productDTO.idProductType())).thenReturn(Boolean.FALSE);
+        when(productTypeRepository.existsById(productDTO.idProductType())).thenReturn(Boolean.FALSE);
 
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
             service.create(productDTO);
@@ -363,7 +660,8 @@ public class ProductServiceTest {
         Product productUpdated = ProductMocker.mockEntity(productDTO);
 
         when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
-        when(productTypeRepository.findById(productDTO.idProductType())).thenReturn(Optional.of(productUpdated.getType()));
+        when(productTypeRegistry.contains(productDTO.idProductType())).thenReturn(Boolean.TRUE);
+        when(productTypeRepository.getReferenceById(productDTO.idProductType())).thenReturn(productUpdated.getType());
         when(productRepository.findById(productDTO.id())).thenReturn(Optional.of(product));
         when(productRepository.save(product)).thenReturn(productUpdated);
 
@@ -384,12 +682,38 @@ public class ProductServiceTest {
         assertEquals("Product description updated 1", capturedObject.getDescription());
     }
 
+    @Test
+    void testUpdateEvictsCachedProduct() {
+        ProductUpdateDTO productDTO = new ProductUpdateDTO(
+            1L, 2L, "Product name updated 1", 
+            "Product description updated 1");
+        Product product = ProductMocker.mockEntity(1);
+        Product productUpdated = ProductMocker.mockEntity(productDTO);
+
+        when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
+        when(productTypeRegistry.contains(productDTO.idProductType())).thenReturn(Boolean.TRUE);
+        when(productTypeRepository.getReferenceById(productDTO.idProductType())).thenReturn(productUpdated.getType());
+        when(productRepository.findById(1L))
+            .thenReturn(Optional.of(product))
+            .thenReturn(Optional.of(product))
+            .thenReturn(Optional.of(productUpdated));
+        when(productRepository.save(product)).thenReturn(productUpdated);
+
+        assertEquals("Product name 1", service.findById(1L).name());
+        service.update(1L, productDTO);
+
+        ProductDTO output = service.findById(1L);
+        assertEquals("Product name updated 1", output.name());
+        verify(productRepository, times(3)).findById(1L);
+    }
+
     @Test
     void testUpdateWithProductTypeNotFound() {
         ProductUpdateDTO productDTO = ProductMocker.mockUpdateDTO(1);
 
         when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
-        when(productTypeRepository.findById(productDTO.idProductType())).thenReturn(Optional.ofNullable(null));
+        when(productTypeRegistry.contains(productDTO.idProductType())).thenReturn(Boolean.FALSE);
+        when(productTypeRepository.existsById(productDTO.idProductType())).thenReturn(Boolean.FALSE);
 
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
             service.update(1L, productDTO);
@@ -404,7 +728,8 @@ public class ProductServiceTest {
         Product product = ProductMocker.mockEntity(1);
 
         when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
-        when(productTypeRepository.findById(productDTO.idProductType())).thenReturn(Optional.of(product.getType()));
+        when(productTypeRegistry.contains(productDTO.idProductType())).thenReturn(Boolean.TRUE);
+        when(productTypeRepository.getReferenceById(productDTO.idProductType())).thenReturn(product.getType());
         when(productRepository.findById(productDTO.id())).thenReturn(Optional.ofNullable(null));
 
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
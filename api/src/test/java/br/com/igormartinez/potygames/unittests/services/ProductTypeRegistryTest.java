@@ -0,0 +1,99 @@
+package br.com.igormartinez.potygames.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.igormartinez.potygames.data.projection.ResourceVersion;
+import br.com.igormartinez.potygames.mappers.ProductTypeToProductTypeDTOMapper;
+import br.com.igormartinez.potygames.mocks.ProductTypeMocker;
+import br.com.igormartinez.potygames.repositories.ProductTypeRepository;
+import br.com.igormartinez.potygames.services.ProductTypeRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class ProductTypeRegistryTest {
+
+    private static final ResourceVersion VERSION = new ResourceVersion(10L, 10L, LocalDateTime.of(2023, 1, 1, 0, 0));
+
+    private ProductTypeRegistry registry;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private ProductTypeRepository repository;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new ProductTypeRegistry(repository, new ProductTypeToProductTypeDTOMapper(), meterRegistry);
+    }
+
+    @Test
+    void testGetLoadsAllTypesOnce() {
+        when(repository.findVersionOfAll()).thenReturn(VERSION);
+        when(repository.findAll()).thenReturn(ProductTypeMocker.mockEntityList(10));
+
+        assertEquals("keyword-3", registry.get(3L).value().keyword());
+        assertTrue(registry.contains(10L));
+        assertFalse(registry.contains(11L));
+        assertEquals(VERSION, registry.getAll(null).version());
+
+        verify(repository, times(1)).findAll();
+        assertEquals(1.0, meterRegistry.get("catalog.product-types.reloads").counter().count());
+        assertEquals(10.0, meterRegistry.get("catalog.product-types.size").gauge().value());
+    }
+
+    @Test
+    void testRefreshWithSameVersion() {
+        when(repository.findVersionOfAll()).thenReturn(VERSION);
+        when(repository.findAll()).thenReturn(ProductTypeMocker.mockEntityList(10));
+
+        registry.load();
+        registry.refresh();
+
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void testRefreshWithVersionChanged() {
+        when(repository.findVersionOfAll())
+            .thenReturn(VERSION)
+            .thenReturn(new ResourceVersion(11L, 11L, LocalDateTime.of(2023, 1, 2, 0, 0)));
+        when(repository.findAll())
+            .thenReturn(ProductTypeMocker.mockEntityList(10))
+            .thenReturn(ProductTypeMocker.mockEntityList(11));
+
+        registry.load();
+        registry.refresh();
+
+        assertTrue(registry.contains(11L));
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    void testInvalidate() {
+        when(repository.findAll())
+            .thenReturn(ProductTypeMocker.mockEntityList(10))
+            .thenReturn(ProductTypeMocker.mockEntityList(11));
+
+        assertFalse(registry.contains(11L));
+        registry.invalidate();
+        assertTrue(registry.contains(11L));
+    }
+}
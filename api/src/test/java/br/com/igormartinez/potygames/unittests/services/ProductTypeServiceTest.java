@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,7 +35,9 @@ import br.com.igormartinez.potygames.models.ProductType;
 import br.com.igormartinez.potygames.repositories.ProductRepository;
 import br.com.igormartinez.potygames.repositories.ProductTypeRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.services.ProductTypeRegistry;
 import br.com.igormartinez.potygames.services.ProductTypeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @TestInstance(Lifecycle.PER_CLASS)
 @ExtendWith(MockitoExtension.class)
@@ -57,7 +60,8 @@ public class ProductTypeServiceTest {
             productTypeRepository, 
             productRepository, 
             new ProductTypeToProductTypeDTOMapper(), 
-            securityContextManager);
+            securityContextManager,
+            new ProductTypeRegistry(productTypeRepository, new ProductTypeToProductTypeDTOMapper(), new SimpleMeterRegistry()));
     }
 
     @Test
@@ -86,6 +90,21 @@ public class ProductTypeServiceTest {
         assertEquals("Description 10", outputPosition9.description());
     }
 
+    @Test
+    void testFindAllFromCache() {
+        List<ProductType> list = ProductTypeMocker.mockEntityList(10);
+
+        when(productTypeRepository.findAll()).thenReturn(list);
+
+        service.findAll();
+        List<ProductTypeDTO> output = service.findAll();
+        assertEquals(10, output.size());
+
+        ProductTypeDTO outputById = service.findById(5L);
+        assertEquals("keyword-5", outputById.keyword());
+        verify(productTypeRepository, times(1)).findAll();
+    }
+
     @Test
     void testFindAllWithoutProductTypes() {
         List<ProductType> list = ProductTypeMocker.mockEntityList(0);
@@ -128,7 +147,7 @@ public class ProductTypeServiceTest {
     void testFindByIdWithProductFound() {
         ProductType productType = ProductTypeMocker.mockEntity(1);
 
-        when(productTypeRepository.findById(1L)).thenReturn(Optional.of(productType));
+        when(productTypeRepository.findAll()).thenReturn(List.of(productType));
 
         ProductTypeDTO output = service.findById(1L);
         assertNotNull(output);
@@ -139,7 +158,7 @@ public class ProductTypeServiceTest {
 
     @Test
     void testFindByIdWithProductNotFound() {
-        when(productTypeRepository.findById(1L)).thenReturn(Optional.ofNullable(null));
+        when(productTypeRepository.existsById(1L)).thenReturn(Boolean.FALSE);
 
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
             service.findById(1L);
@@ -148,6 +167,24 @@ public class ProductTypeServiceTest {
         assertTrue(output.getMessage().contains(expectedMessage));
     }
 
+    @Test
+    void testFindByIdCreatedByAnotherInstance() {
+        ProductType productType = ProductTypeMocker.mockEntity(1);
+
+        when(productTypeRepository.findAll())
+            .thenReturn(List.of())
+            .thenReturn(List.of(productType));
+        when(productTypeRepository.existsById(1L)).thenReturn(Boolean.TRUE);
+
+        assertEquals(0, service.findAll().size());
+
+        // The unknown type reloads the registry
+        ProductTypeDTO output = service.findById(1L);
+        assertEquals("keyword-1", output.keyword());
+        assertEquals(1, service.findAll().size());
+        verify(productTypeRepository, times(2)).findAll();
+    }
+
     @Test
     void testCreateWithoutPermission() {
         ProductTypeCreateDTO productTypeDTO 
@@ -186,6 +223,26 @@ public class ProductTypeServiceTest {
         assertEquals("Some description", capturedObject.getDescription());
     }
 
+    @Test
+    void testCreateEvictsCachedProductTypes() {
+        ProductTypeCreateDTO productTypeDTO 
+            = new ProductTypeCreateDTO("keyword","Some description");
+        ProductType productType = ProductTypeMocker.mockEntity(1, productTypeDTO);
+
+        when(productTypeRepository.findAll())
+            .thenReturn(List.of())
+            .thenReturn(List.of(productType));
+        when(securityContextManager.checkAdmin()).thenReturn(Boolean.TRUE);
+        when(productTypeRepository.save(any(ProductType.class))).thenReturn(productType);
+
+        assertEquals(0, service.findAll().size());
+        service.create(productTypeDTO);
+
+        List<ProductTypeDTO> output = service.findAll();
+        assertEquals(1, output.size());
+        assertEquals("keyword", output.get(0).keyword());
+    }
+
     @Test
     void testUpdateWithParamIdNull() {
         ProductTypeUpdateDTO typeDTO = ProductTypeMocker.mockUpdateDTO(1);
@@ -1,42 +1,42 @@
 package br.com.igormartinez.potygames.unittests.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import br.com.igormartinez.potygames.data.projection.ShoppingCartItemInsert;
+import br.com.igormartinez.potygames.data.projection.ShoppingCartItemState;
+import br.com.igormartinez.potygames.data.request.ShoppingCartBatchRequestDTO;
 import br.com.igormartinez.potygames.data.request.ShoppingCartItemRequestDTO;
+import br.com.igormartinez.potygames.data.request.ShoppingCartOperationRequestDTO;
 import br.com.igormartinez.potygames.data.response.ShoppingCartItemResponseDTO;
+import br.com.igormartinez.potygames.data.response.ShoppingCartOperationResponseDTO;
+import br.com.igormartinez.potygames.enums.ShoppingCartOperationType;
 import br.com.igormartinez.potygames.exceptions.RequestValidationException;
 import br.com.igormartinez.potygames.exceptions.ResourceAlreadyExistsException;
 import br.com.igormartinez.potygames.exceptions.ResourceNotFoundException;
 import br.com.igormartinez.potygames.exceptions.UserUnauthorizedException;
-import br.com.igormartinez.potygames.mappers.ShoppingCartItemEntityToDTOMapper;
-import br.com.igormartinez.potygames.mocks.InventoryItemMocker;
 import br.com.igormartinez.potygames.mocks.ShoppingCartMocker;
-import br.com.igormartinez.potygames.mocks.MockUser;
-import br.com.igormartinez.potygames.models.InventoryItem;
 import br.com.igormartinez.potygames.models.ShoppingCartItem;
-import br.com.igormartinez.potygames.models.User;
-import br.com.igormartinez.potygames.repositories.InventoryItemRepository;
 import br.com.igormartinez.potygames.repositories.ShoppingCartItemRepository;
-import br.com.igormartinez.potygames.repositories.UserRepository;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
 import br.com.igormartinez.potygames.services.ShoppingCartService;
 
@@ -49,12 +49,6 @@ public class ShoppingCartServiceTest {
     @Mock
     private ShoppingCartItemRepository repository;
     
-    @Mock
-    private InventoryItemRepository itemRepository;
-    
-    @Mock
-    private UserRepository userRepository;
-    
     @Mock
     private SecurityContextManager securityContextManager;
     
@@ -62,10 +56,7 @@ public class ShoppingCartServiceTest {
     void setup() {
         service = new ShoppingCartService(
             repository, 
-            itemRepository, 
-            userRepository, 
-            securityContextManager, 
-            new ShoppingCartItemEntityToDTOMapper());
+            securityContextManager);
     }
 
     @Test
@@ -81,10 +72,10 @@ public class ShoppingCartServiceTest {
 
     @Test
     void testFindAllByUserWithItems() {
-        List<ShoppingCartItem> entityList = ShoppingCartMocker.mockEntityList(5);
+        List<ShoppingCartItemResponseDTO> dtoList = ShoppingCartMocker.mockResponseDTOList(5);
 
         when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
-        when(repository.findAllByUserId(1L)).thenReturn(entityList);
+        when(repository.findAllResponseByUserId(1L)).thenReturn(dtoList);
 
         List<ShoppingCartItemResponseDTO> output = service.findAllByUser(1L);
         assertEquals(5, output.size());
@@ -109,7 +100,7 @@ public class ShoppingCartServiceTest {
     @Test
     void testFindAllByUserWithoutItems() {
         when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
-        when(repository.findAllByUserId(1L)).thenReturn(new ArrayList<>());
+        when(repository.findAllResponseByUserId(1L)).thenReturn(new ArrayList<>());
 
         List<ShoppingCartItemResponseDTO> output = service.findAllByUser(1L);
         assertEquals(0, output.size());
@@ -133,7 +124,7 @@ public class ShoppingCartServiceTest {
         ShoppingCartItemRequestDTO requestDTO = new ShoppingCartItemRequestDTO(1L, 1);
         
         when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
-        when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(null));
+        when(repository.insertItem(1L, 1L, 1)).thenReturn(new ShoppingCartItemInsert(false, true, null));
 
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
             service.addItemToCart(1L, requestDTO);
@@ -145,11 +136,9 @@ public class ShoppingCartServiceTest {
     @Test
     void testAddItemToCartWithInventoryItemNotFound() {
         ShoppingCartItemRequestDTO requestDTO = new ShoppingCartItemRequestDTO(1L, 1);
-        User user = MockUser.mockEntity(1);
 
         when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(requestDTO.idInventoryItem())).thenReturn(Optional.ofNullable(null));
+        when(repository.insertItem(1L, 1L, 1)).thenReturn(new ShoppingCartItemInsert(true, false, null));
 
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
             service.addItemToCart(1L, requestDTO);
@@ -161,13 +150,9 @@ public class ShoppingCartServiceTest {
     @Test
     void testAddItemToCartWithItemAlreadyAdd() {
         ShoppingCartItemRequestDTO requestDTO = new ShoppingCartItemRequestDTO(1L, 1);
-        User user = MockUser.mockEntity(1);
-        InventoryItem inventoryItem = InventoryItemMocker.mockEntity(1);
 
         when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(requestDTO.idInventoryItem())).thenReturn(Optional.of(inventoryItem));
-        when(repository.existsByUserIdAndItemId(1L, requestDTO.idInventoryItem())).thenReturn(Boolean.TRUE);
+        when(repository.insertItem(1L, 1L, 1)).thenReturn(new ShoppingCartItemInsert(true, true, null));
 
         Exception output = assertThrows(ResourceAlreadyExistsException.class, () -> {
             service.addItemToCart(1L, requestDTO);
@@ -180,17 +165,12 @@ public class ShoppingCartServiceTest {
     void testAddItemToCartWithSuccess() {
         Long idUser = 3L;
         ShoppingCartItemRequestDTO requestDTO = new ShoppingCartItemRequestDTO(2L, 5);
-        User user = MockUser.mockEntity(idUser.intValue());
-        InventoryItem inventoryItem = InventoryItemMocker.mockEntity(requestDTO.idInventoryItem().intValue());
-        ShoppingCartItem item = ShoppingCartMocker.mockEntity(9L, user, inventoryItem, requestDTO.quantity());
+        ShoppingCartItemResponseDTO item = new ShoppingCartItemResponseDTO(
+            2L, "Product name 2", "Version 2", "Condition 2", new BigDecimal("2.99"), 5);
         
         when(securityContextManager.checkSameUserOrAdmin(idUser)).thenReturn(Boolean.TRUE);
-        when(userRepository.findById(idUser)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(requestDTO.idInventoryItem())).thenReturn(Optional.of(inventoryItem));
-        when(repository.existsByUserIdAndItemId(idUser, requestDTO.idInventoryItem())).thenReturn(Boolean.FALSE);
-        when(repository.save(any(ShoppingCartItem.class))).thenReturn(item);
+        when(repository.insertItem(idUser, 2L, 5)).thenReturn(new ShoppingCartItemInsert(true, true, item));
 
-        // Check result after save
         ShoppingCartItemResponseDTO output = service.addItemToCart(idUser, requestDTO);
         assertEquals(2L, output.idInventoryItem());
         assertEquals("Product name 2", output.name());
@@ -199,16 +179,9 @@ public class ShoppingCartServiceTest {
         assertEquals(0, output.price().compareTo(new BigDecimal("2.99")));
         assertEquals(5, output.quantity());
 
-        // Check result before save
-        ArgumentCaptor<ShoppingCartItem> argumentCaptor = ArgumentCaptor.forClass(ShoppingCartItem.class);
-        verify(repository).save(argumentCaptor.capture());
-        ShoppingCartItem capturedObject = argumentCaptor.getValue();
-        assertNull(capturedObject.getId());
-        assertEquals(3L, capturedObject.getUser().getId());
-        assertEquals("User name 3", capturedObject.getUser().getName());
-        assertEquals(2L, capturedObject.getItem().getId());
-        assertEquals("Version 2", capturedObject.getItem().getVersion());
-        assertEquals(5, capturedObject.getQuantity());
+        // Inserted in a single statement
+        verify(repository, times(1)).insertItem(idUser, 2L, 5);
+        verify(repository, never()).save(any());
     }
 
     @Test
@@ -240,7 +213,7 @@ public class ShoppingCartServiceTest {
         ShoppingCartItemRequestDTO requestDTO = new ShoppingCartItemRequestDTO(2L, 5);
 
         when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
-        when(repository.findByUserIdAndItemId(1L, 2L)).thenReturn(Optional.ofNullable(null));
+        when(repository.updateItemQuantity(1L, 2L, 5)).thenReturn(Optional.ofNullable(null));
 
         Exception output = assertThrows(ResourceNotFoundException.class, () -> {
             service.updateItemInCart(1L, 2L, requestDTO);
@@ -252,13 +225,12 @@ public class ShoppingCartServiceTest {
     @Test
     void testUpdateItemInCartWithSuccess() {
         ShoppingCartItemRequestDTO requestDTO = new ShoppingCartItemRequestDTO(2L, 5);
-        ShoppingCartItem item = ShoppingCartMocker.mockEntity(2);
+        ShoppingCartItemResponseDTO item = new ShoppingCartItemResponseDTO(
+            2L, "Product name 2", "Version 2", "Condition 2", new BigDecimal("2.99"), 5);
 
         when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
-        when(repository.findByUserIdAndItemId(1L, 2L)).thenReturn(Optional.of(item));
-        when(repository.save(item)).thenReturn(item);
+        when(repository.updateItemQuantity(1L, 2L, 5)).thenReturn(Optional.of(item));
 
-        // Check result after save
         ShoppingCartItemResponseDTO output = service.updateItemInCart(1L, 2L, requestDTO);
         assertEquals(2L, output.idInventoryItem());
         assertEquals("Product name 2", output.name());
@@ -267,16 +239,9 @@ public class ShoppingCartServiceTest {
         assertEquals(0, output.price().compareTo(new BigDecimal("2.99")));
         assertEquals(5, output.quantity());
 
-        // Check result before save
-        ArgumentCaptor<ShoppingCartItem> argumentCaptor = ArgumentCaptor.forClass(ShoppingCartItem.class);
-        verify(repository).save(argumentCaptor.capture());
-        ShoppingCartItem capturedObject = argumentCaptor.getValue();
-        assertEquals(2L, capturedObject.getId());
-        assertEquals(2L, capturedObject.getUser().getId());
-        assertEquals("User name 2", capturedObject.getUser().getName());
-        assertEquals(2L, capturedObject.getItem().getId());
-        assertEquals("Version 2", capturedObject.getItem().getVersion());
-        assertEquals(5, capturedObject.getQuantity());
+        // Updated in a single statement
+        verify(repository, never()).findByUserIdAndItemId(any(), any());
+        verify(repository, never()).save(any());
     }
 
     @Test
@@ -311,4 +276,125 @@ public class ShoppingCartServiceTest {
 
         service.removeItemFromCart(1L, 2L);
     }
+
+    @Test
+    void testApplyOperationsWithoutPermission() {
+        ShoppingCartBatchRequestDTO batchDTO = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 1L, 1)));
+
+        when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.FALSE);
+
+        Exception output = assertThrows(UserUnauthorizedException.class, () -> {
+            service.applyOperations(1L, batchDTO);
+        });
+        String expectedMessage = "The user is not authorized to access this resource.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testApplyOperationsWithoutQuantity() {
+        ShoppingCartBatchRequestDTO batchDTO = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.UPDATE, 1L, null)));
+
+        when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
+
+        Exception output = assertThrows(RequestValidationException.class, () -> {
+            service.applyOperations(1L, batchDTO);
+        });
+        String expectedMessage = "The quantity must be provided to add or update an item.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+        verify(repository, never()).findAllStateForUpdate(any(), any());
+    }
+
+    @Test
+    void testApplyOperationsWithUserNotFound() {
+        ShoppingCartBatchRequestDTO batchDTO = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 1L, 1)));
+
+        when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
+        when(repository.findAllStateForUpdate(1L, List.of(1L)))
+            .thenReturn(List.of(new ShoppingCartItemState(1L, false, true, false, mockItem(1L, null))));
+
+        Exception output = assertThrows(ResourceNotFoundException.class, () -> {
+            service.applyOperations(1L, batchDTO);
+        });
+        String expectedMessage = "The user was not found with the given ID.";
+        assertTrue(output.getMessage().contains(expectedMessage));
+        verify(repository, never()).insertItems(any(), any());
+    }
+
+    @Test
+    void testApplyOperationsWithSuccess() {
+        ShoppingCartBatchRequestDTO batchDTO = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 1L, 3),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.UPDATE, 2L, 5),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.REMOVE, 3L, null)));
+
+        when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
+        when(repository.findAllStateForUpdate(1L, List.of(1L, 2L, 3L))).thenReturn(List.of(
+            new ShoppingCartItemState(1L, true, true, false, mockItem(1L, null)),
+            new ShoppingCartItemState(2L, true, true, true, mockItem(2L, 1)),
+            new ShoppingCartItemState(3L, true, true, true, mockItem(3L, 2))));
+
+        List<ShoppingCartOperationResponseDTO> output = service.applyOperations(1L, batchDTO);
+        assertEquals(3, output.size());
+
+        ShoppingCartOperationResponseDTO outputPosition0 = output.get(0);
+        assertEquals("ADD", outputPosition0.type());
+        assertEquals(1L, outputPosition0.idInventoryItem());
+        assertEquals(200, outputPosition0.status());
+        assertEquals(3, outputPosition0.item().quantity());
+        assertEquals("Product name 1", outputPosition0.item().name());
+
+        ShoppingCartOperationResponseDTO outputPosition1 = output.get(1);
+        assertEquals("UPDATE", outputPosition1.type());
+        assertEquals(200, outputPosition1.status());
+        assertEquals(5, outputPosition1.item().quantity());
+
+        ShoppingCartOperationResponseDTO outputPosition2 = output.get(2);
+        assertEquals("REMOVE", outputPosition2.type());
+        assertEquals(204, outputPosition2.status());
+        assertEquals(null, outputPosition2.item());
+
+        verify(repository, times(1)).insertItems(1L, Map.of(1L, 3));
+        verify(repository, times(1)).updateItemQuantities(1L, Map.of(2L, 5));
+        verify(repository, times(1)).deleteItems(1L, List.of(3L));
+    }
+
+    @Test
+    void testApplyOperationsWithPartialFailure() {
+        ShoppingCartBatchRequestDTO batchDTO = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 1L, 3),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 2L, 1),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.UPDATE, 3L, 5),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.REMOVE, 4L, null)));
+
+        when(securityContextManager.checkSameUserOrAdmin(1)).thenReturn(Boolean.TRUE);
+        when(repository.findAllStateForUpdate(1L, List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+            new ShoppingCartItemState(1L, true, false, false, null),
+            new ShoppingCartItemState(2L, true, true, true, mockItem(2L, 1)),
+            new ShoppingCartItemState(3L, true, true, false, mockItem(3L, null)),
+            new ShoppingCartItemState(4L, true, true, false, mockItem(4L, null))));
+
+        List<ShoppingCartOperationResponseDTO> output = service.applyOperations(1L, batchDTO);
+        assertEquals(4, output.size());
+
+        assertEquals(404, output.get(0).status());
+        assertEquals("The inventory item was not found with the given ID.", output.get(0).message());
+        assertEquals(409, output.get(1).status());
+        assertEquals("The inventory item was already add to the cart.", output.get(1).message());
+        assertEquals(404, output.get(2).status());
+        assertEquals("The inventory item was not added to the cart.", output.get(2).message());
+        assertEquals(404, output.get(3).status());
+        assertEquals("The inventory item was not added to the cart.", output.get(3).message());
+
+        verify(repository, times(1)).insertItems(1L, Map.of());
+        verify(repository, times(1)).updateItemQuantities(1L, Map.of());
+        verify(repository, times(1)).deleteItems(1L, List.of());
+    }
+
+    private static ShoppingCartItemResponseDTO mockItem(Long id, Integer quantity) {
+        return new ShoppingCartItemResponseDTO(
+            id, "Product name " + id, "Version " + id, "USED", new BigDecimal("10.00"), quantity);
+    }
 }
@@ -0,0 +1,62 @@
+package br.com.igormartinez.potygames.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.igormartinez.potygames.repositories.ShoppingCartItemRepository;
+import br.com.igormartinez.potygames.services.ShoppingCartSweeper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class ShoppingCartSweeperTest {
+
+    private ShoppingCartSweeper sweeper;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private ShoppingCartItemRepository repository;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new ShoppingCartSweeper(Duration.ofDays(30), 100, repository, meterRegistry);
+    }
+
+    @Test
+    void testSweepInBatches() {
+        when(repository.deleteIdleBatch(any(), eq(100)))
+            .thenReturn(100)
+            .thenReturn(100)
+            .thenReturn(42);
+
+        assertEquals(242, sweeper.sweep());
+        verify(repository, times(3)).deleteIdleBatch(any(), eq(100));
+        assertEquals(242.0, meterRegistry.get("shopping-cart.sweeper.swept").counter().count());
+        assertEquals(1, meterRegistry.get("shopping-cart.sweeper.duration").timer().count());
+    }
+
+    @Test
+    void testSweepWithoutIdleCarts() {
+        when(repository.deleteIdleBatch(any(), eq(100))).thenReturn(0);
+
+        assertEquals(0, sweeper.sweep());
+        verify(repository, times(1)).deleteIdleBatch(any(), eq(100));
+        assertEquals(0.0, meterRegistry.get("shopping-cart.sweeper.swept").counter().count());
+    }
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -35,6 +36,7 @@ import br.com.igormartinez.potygames.repositories.PermissionRepository;
 import br.com.igormartinez.potygames.repositories.UserRepository;
 import br.com.igormartinez.potygames.security.PasswordManager;
 import br.com.igormartinez.potygames.security.SecurityContextManager;
+import br.com.igormartinez.potygames.security.UserPrincipalCache;
 import br.com.igormartinez.potygames.services.UserService;
 
 @TestInstance(Lifecycle.PER_CLASS)
@@ -56,6 +58,9 @@ public class UserServiceTest {
     @Mock
     private SecurityContextManager securityContextManager;
 
+    @Mock
+    private UserPrincipalCache principalCache;
+
     @BeforeEach
     void setUp() throws Exception {
         mockEntity = new MockUser();
@@ -63,7 +68,8 @@ public class UserServiceTest {
         service = new UserService(
             userRepository, 
             new UserToUserDTOMapper(), 
-            securityContextManager);
+            securityContextManager,
+            principalCache);
     }
 
     @Test
@@ -320,6 +326,8 @@ public class UserServiceTest {
         assertEquals(LocalDate.of(2010, 6, 12),output.birthDate());
         assertEquals("000.000.001-01", output.documentNumber());
         assertEquals("+5500987650001", output.phoneNumber());
+
+        verify(principalCache).evict(user.getEmail());
     }
 
     @Test
@@ -422,6 +430,8 @@ public class UserServiceTest {
         when(userRepository.existsById(1L)).thenReturn(Boolean.TRUE);
 
         service.delete(1L);
+
+        verify(principalCache).evict(1L);
     }
 
     @Test
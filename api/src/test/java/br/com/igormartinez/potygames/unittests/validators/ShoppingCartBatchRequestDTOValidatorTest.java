@@ -0,0 +1,71 @@
+package br.com.igormartinez.potygames.unittests.validators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.igormartinez.potygames.data.request.ShoppingCartBatchRequestDTO;
+import br.com.igormartinez.potygames.data.request.ShoppingCartOperationRequestDTO;
+import br.com.igormartinez.potygames.enums.ShoppingCartOperationType;
+import jakarta.validation.ConstraintViolation;
+
+public class ShoppingCartBatchRequestDTOValidatorTest extends GenericValidatorTest {
+
+    @Test
+    void testSuccess() {
+        ShoppingCartBatchRequestDTO batch = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 1L, 1),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.REMOVE, 2L, null)));
+
+        Set<ConstraintViolation<ShoppingCartBatchRequestDTO>> violations = validator.validate(batch);
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void testWithOperationsEmpty() {
+        ShoppingCartBatchRequestDTO batch = new ShoppingCartBatchRequestDTO(List.of());
+
+        Set<ConstraintViolation<ShoppingCartBatchRequestDTO>> violations = validator.validate(batch);
+        assertEquals(1, violations.size());
+        assertEquals("The operations must be provided.", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    void testWithOperationsTooMany() {
+        List<ShoppingCartOperationRequestDTO> operations = new ArrayList<>();
+        for (long i = 1; i <= 101; i++)
+            operations.add(new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, i, 1));
+        ShoppingCartBatchRequestDTO batch = new ShoppingCartBatchRequestDTO(operations);
+
+        Set<ConstraintViolation<ShoppingCartBatchRequestDTO>> violations = validator.validate(batch);
+        assertEquals(1, violations.size());
+        assertEquals("The operations must have at most 100 elements.", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    void testWithOperationsDuplicated() {
+        ShoppingCartBatchRequestDTO batch = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.ADD, 1L, 1),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.REMOVE, 1L, null)));
+
+        Set<ConstraintViolation<ShoppingCartBatchRequestDTO>> violations = validator.validate(batch);
+        assertEquals(1, violations.size());
+        assertEquals("The list of operations cannot have more than one operation for the same inventory item.", 
+            violations.iterator().next().getMessage());
+    }
+
+    @Test
+    void testWithOperationInvalid() {
+        ShoppingCartBatchRequestDTO batch = new ShoppingCartBatchRequestDTO(List.of(
+            new ShoppingCartOperationRequestDTO(null, 1L, 1),
+            new ShoppingCartOperationRequestDTO(ShoppingCartOperationType.UPDATE, 2L, 0)));
+
+        Set<ConstraintViolation<ShoppingCartBatchRequestDTO>> violations = validator.validate(batch);
+        assertEquals(2, violations.size());
+    }
+}